@@ -1,17 +1,102 @@
 package com.example;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+import com.example.base.WatchStoreServer;
+import com.example.load.LoadGenerator;
+import com.example.load.LoadReport;
+import com.example.load.LoadStage;
+import com.example.load.StageMetrics;
+
 /**
- * Hello world!
+ * Synthetic load generator for the watch store.
+ * <p>
+ * Drives headless Chrome shoppers through login → search → product → cart → checkout →
+ * orders and prints throughput and per-step latency percentiles for each stage:
+ * <pre>
+ * mvn -f Test/demo/pom.xml compile exec:java -Dexec.args="--stages 1x30s,4x60s,8x60s"
+ * </pre>
+ * Options: {@code --stages} (default {@code 1x30s,4x60s}), {@code --url} to load an already
+ * running store instead of the embedded server, {@code --search} (default {@code neo}),
+ * {@code --think} pause between journeys (default {@code 0ms}), {@code --out} file for the
+ * final report, and {@code --headed} to show the browsers.
  */
 public final class App {
     private App() {
     }
 
     /**
-     * Says hello to the world.
+     * Runs the configured stages and exits non-zero if any journey failed.
      * @param args The arguments of the program.
      */
-    public static void main(String[] args) {
-        System.out.println("Hello World!");
+    public static void main(String[] args) throws Exception {
+        String stages = "1x30s,4x60s";
+        String url = null;
+        String search = "neo";
+        Duration think = Duration.ZERO;
+        Path outFile = null;
+        boolean headed = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--stages":
+                    stages = args[++i];
+                    break;
+                case "--url":
+                    url = args[++i];
+                    break;
+                case "--search":
+                    search = args[++i];
+                    break;
+                case "--think":
+                    think = LoadStage.parseDuration(args[++i]);
+                    break;
+                case "--out":
+                    outFile = Paths.get(args[++i]);
+                    break;
+                case "--headed":
+                    headed = true;
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        if (!headed) {
+            System.setProperty("ws.headless", "true");
+        }
+        if (url != null) {
+            System.setProperty("ws.baseUrl", url.endsWith("/") ? url : url + "/");
+        }
+        String baseUrl = WatchStoreServer.baseUrl();
+        System.out.println("Load against " + baseUrl + " with stages " + stages);
+
+        List<StageMetrics.StageResult> results;
+        try {
+            results = new LoadGenerator(baseUrl, LoadStage.parseAll(stages), search, think, System.out).run();
+        } finally {
+            WatchStoreServer.stopShared();
+        }
+
+        if (outFile != null) {
+            writeReport(outFile, LoadReport.format(results));
+        }
+        boolean failed = results.stream().anyMatch(r -> r.journeys().errors() > 0);
+        System.exit(failed ? 1 : 0);
+    }
+
+    private static void writeReport(Path file, String report) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, report, StandardCharsets.UTF_8);
     }
 }
@@ -0,0 +1,195 @@
+package com.example.base;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Java reference for one user's cart, used as the oracle of model-based cart tests.
+ * <p>
+ * It follows {@code main.js}: "Add to Cart" on the product page appends a line of 1 or adds
+ * one to an existing line, the cart page's "+" and "−" keep a quantity within 1–99, "Remove"
+ * drops the line, and {@code cartLinesDetailed} prices each line at {@code price * qty} in
+ * the order the lines were first added. Prices are those of the seeded catalog.
+ */
+public final class CartModel {
+
+    public static final int MAX_QTY = 99;
+
+    // seedProducts() in main.js.
+    public static final List<Product> PRODUCTS = List.of(
+            new Product("neo-chrono", "Neo Chrono X1", 7999),
+            new Product("aurora-stealth", "Aurora Stealth S", 9999),
+            new Product("pulse-runner", "Pulse Runner R2", 6499),
+            new Product("titan-arc", "Titan Arc T9", 11999),
+            new Product("spectra-lite", "Spectra Lite L3", 5499),
+            new Product("nova-field", "Nova Field N5", 8999),
+            new Product("vortex-surge", "Vortex Surge V7", 10999),
+            new Product("shadow-matrix", "Shadow Matrix M4", 7599),
+            new Product("pixel-pro", "Pixel Pro P8", 6999),
+            new Product("orbit-prime", "Orbit Prime O2", 13499),
+            new Product("drift-core", "Drift Core D6", 6299),
+            new Product("zenith-strike", "Zenith Strike Z3", 10499));
+
+    private static final Map<String, Product> BY_ID = new LinkedHashMap<>();
+
+    static {
+        PRODUCTS.forEach(p -> BY_ID.put(p.id(), p));
+    }
+
+    // Product id to quantity, in the order of the stored cart array.
+    private final LinkedHashMap<String, Integer> items = new LinkedHashMap<>();
+
+    public CartModel() {
+    }
+
+    private CartModel(CartModel other) {
+        items.putAll(other.items);
+    }
+
+    public static Product product(String id) {
+        Product product = BY_ID.get(id);
+        if (product == null) {
+            throw new IllegalArgumentException("Not a seeded product: " + id);
+        }
+        return product;
+    }
+
+    public CartModel copy() {
+        return new CartModel(this);
+    }
+
+    /**
+     * Applies {@code op} the way the page would and reports what it did to the cart.
+     * "+", "−" and "Remove" on a product that has no line change nothing: the page has no
+     * button to click.
+     */
+    public Effect apply(Op op) {
+        String id = product(op.productId()).id();
+        Integer qty = items.get(id);
+        switch (op.action()) {
+            case ADD:
+                if (qty == null) {
+                    items.put(id, 1);
+                    return Effect.ADDED;
+                }
+                return increment(id, qty);
+            case INC:
+                return qty == null ? Effect.IGNORED : increment(id, qty);
+            case DEC:
+                if (qty == null) {
+                    return Effect.IGNORED;
+                }
+                if (qty <= 1) {
+                    items.put(id, 1);
+                    return Effect.CLAMPED_LOW;
+                }
+                items.put(id, qty - 1);
+                return Effect.DECREMENTED;
+            case REMOVE:
+                if (qty == null) {
+                    return Effect.IGNORED;
+                }
+                items.remove(id);
+                return items.isEmpty() ? Effect.EMPTIED : Effect.REMOVED;
+            default:
+                throw new IllegalArgumentException("Unknown action " + op.action());
+        }
+    }
+
+    private Effect increment(String id, int qty) {
+        if (qty >= MAX_QTY) {
+            items.put(id, MAX_QTY);
+            return Effect.CLAMPED_HIGH;
+        }
+        items.put(id, qty + 1);
+        return Effect.INCREMENTED;
+    }
+
+    public boolean contains(String productId) {
+        return items.containsKey(productId);
+    }
+
+    public int quantity(String productId) {
+        return items.getOrDefault(productId, 0);
+    }
+
+    public List<String> productIds() {
+        return List.copyOf(items.keySet());
+    }
+
+    /**
+     * The cart page's lines, as {@code cartLinesDetailed} computes them.
+     */
+    public List<Line> lines() {
+        List<Line> lines = new ArrayList<>(items.size());
+        items.forEach((id, qty) -> {
+            Product p = BY_ID.get(id);
+            int shown = Math.max(1, qty);
+            lines.add(new Line(p.id(), p.title(), p.price(), shown, p.price() * shown));
+        });
+        return lines;
+    }
+
+    public long grandTotal() {
+        long grand = 0;
+        for (Line line : lines()) {
+            grand += line.total();
+        }
+        return grand;
+    }
+
+    /**
+     * The header badge: {@code cartCount}, the sum of the stored quantities.
+     */
+    public int count() {
+        int count = 0;
+        for (int qty : items.values()) {
+            count += qty;
+        }
+        return count;
+    }
+
+    /**
+     * Writes this cart for the current user of {@code state}.
+     */
+    public StoreState writeTo(StoreState state) {
+        items.forEach(state::withCartItem);
+        return state;
+    }
+
+    @Override
+    public String toString() {
+        return items.toString();
+    }
+
+    public enum Action {
+        /** "Add to Cart" on the product page. */
+        ADD,
+        /** "+" on the cart line. */
+        INC,
+        /** "−" on the cart line. */
+        DEC,
+        /** "Remove" on the cart line. */
+        REMOVE
+    }
+
+    public enum Effect {
+        ADDED, INCREMENTED, CLAMPED_HIGH, DECREMENTED, CLAMPED_LOW, REMOVED, EMPTIED, IGNORED
+    }
+
+    public record Op(Action action, String productId) {
+
+        @Override
+        public String toString() {
+            return action + " " + productId;
+        }
+    }
+
+    public record Product(String id, String title, long price) {
+    }
+
+    public record Line(String id, String title, long price, int qty, long total) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.example.base.CartModel.Action;
+import com.example.base.CartModel.Op;
+
+/**
+ * Seeded sequences of cart operations for model-based tests of the cart.
+ * <p>
+ * Every operation is one a shopper could perform at that point: "+", "−" and "Remove" only
+ * target products that have a line. Besides single random steps, a sequence holds bursts of
+ * the same click on one product, long enough to walk a line up to 99 or down to 1 and keep
+ * pushing, and now and then clears the cart line by line. The same seed gives the same
+ * sequences.
+ */
+public final class CartOperationGenerator {
+
+    private final long seed;
+
+    private CartOperationGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public static CartOperationGenerator seeded(long seed) {
+        return new CartOperationGenerator(seed);
+    }
+
+    /**
+     * {@code count} sequences of {@code length} operations, each starting from an empty cart.
+     */
+    public List<List<Op>> generate(int count, int length) {
+        Random random = new Random(seed);
+        List<List<Op>> sequences = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sequences.add(sequence(random, length));
+        }
+        return sequences;
+    }
+
+    private static List<Op> sequence(Random random, int length) {
+        CartModel cart = new CartModel();
+        List<Op> ops = new ArrayList<>(length);
+        while (ops.size() < length) {
+            List<String> lines = cart.productIds();
+            int roll = random.nextInt(20);
+            if (lines.isEmpty() || roll < 5) {
+                add(ops, cart, new Op(Action.ADD, pick(random, CartModel.PRODUCTS).id()), length);
+            } else if (roll < 8) {
+                burst(random, ops, cart, Action.INC, pick(random, lines), length);
+            } else if (roll < 10) {
+                burst(random, ops, cart, Action.DEC, pick(random, lines), length);
+            } else if (roll < 11) {
+                burst(random, ops, cart, Action.ADD, pick(random, lines), length);
+            } else if (roll < 12) {
+                for (String id : lines) {
+                    add(ops, cart, new Op(Action.REMOVE, id), length);
+                }
+            } else if (roll < 14) {
+                add(ops, cart, new Op(Action.REMOVE, pick(random, lines)), length);
+            } else {
+                Action action = random.nextBoolean() ? Action.INC : Action.DEC;
+                add(ops, cart, new Op(action, pick(random, lines)), length);
+            }
+        }
+        return ops;
+    }
+
+    private static void burst(Random random, List<Op> ops, CartModel cart, Action action, String id, int length) {
+        // Far enough from the current quantity to reach the clamp most of the time.
+        int distance = action == Action.DEC ? cart.quantity(id) : CartModel.MAX_QTY - cart.quantity(id);
+        int clicks = 2 + random.nextInt(distance + 6);
+        for (int i = 0; i < clicks; i++) {
+            add(ops, cart, new Op(action, id), length);
+        }
+    }
+
+    private static void add(List<Op> ops, CartModel cart, Op op, int length) {
+        if (ops.size() < length) {
+            ops.add(op);
+            cart.apply(op);
+        }
+    }
+
+    private static <T> T pick(Random random, List<T> options) {
+        return options.get(random.nextInt(options.size()));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.base;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic {@code ws_products} catalogs of any size, for stress-testing the home page.
+ * <p>
+ * Product {@code i} is titled "{@code <series> <model> <i as 6 digits>}", e.g.
+ * "Orbit Diver 004217", with the 12 series and 12 models spread evenly, so a search's result
+ * count is known up front: a series or model name matches 1/12 of the catalog, a full index
+ * exactly one product (see {@link #matches}). Prices, ratings and genres come from a seeded
+ * {@link Random}, so the same seed gives the same catalog. Every product points at one
+ * shared, small image and has no description, about 150 characters of JSON per product.
+ * Browsers allow roughly 5 million characters of localStorage per origin, so catalogs stop
+ * fitting a little above 30k products.
+ */
+public final class CatalogGenerator {
+
+    /** Image every generated product uses; a small file in {@code watch-store/img/}. */
+    public static final String SHARED_IMAGE = "./img/catalog-watch.svg";
+
+    static final String[] SERIES = {
+            "Neo", "Aurora", "Pulse", "Titan", "Nova", "Orbit",
+            "Vector", "Zenith", "Echo", "Drift", "Flux", "Vertex"};
+    static final String[] MODELS = {
+            "Chrono", "Stealth", "Runner", "Diver", "Pilot", "Field",
+            "Racer", "Classic", "Sport", "Core", "Edge", "Prime"};
+    private static final String[] GENRES = {
+            "Cyber Sport", "Stealth Ops", "Trail", "Dress", "Dive", "Aviation"};
+
+    private final long seed;
+
+    private CatalogGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public static CatalogGenerator seeded(long seed) {
+        return new CatalogGenerator(seed);
+    }
+
+    /**
+     * The first {@code size} products, shaped like the entries {@code seedProducts()} writes.
+     */
+    public List<Map<String, Object>> generate(int size) {
+        Random random = new Random(seed);
+        List<Map<String, Object>> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> product = new LinkedHashMap<>();
+            product.put("id", "gen-" + i);
+            product.put("title", titleOf(i));
+            product.put("price", 1999 + random.nextInt(400) * 50);
+            product.put("rating", (35 + random.nextInt(16)) / 10.0);
+            product.put("genre", GENRES[random.nextInt(GENRES.length)]);
+            product.put("desc", "");
+            product.put("image", SHARED_IMAGE);
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * The catalog as the {@code ws_products} value.
+     */
+    public String toJson(int size) {
+        return StoreState.toJson(generate(size));
+    }
+
+    public static String titleOf(int index) {
+        return SERIES[index % SERIES.length] + " "
+                + MODELS[(index / SERIES.length) % MODELS.length] + " "
+                + String.format("%06d", index);
+    }
+
+    /**
+     * How many of the first {@code size} products the home page search (a case-insensitive
+     * substring match on the title) returns for {@code term}.
+     */
+    public static int matches(String term, int size) {
+        String q = term.trim().toLowerCase();
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (titleOf(i).toLowerCase().contains(q)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
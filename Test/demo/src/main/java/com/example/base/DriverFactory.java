@@ -0,0 +1,56 @@
+package com.example.base;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+/**
+ * Builds the ChromeDriver instances used by the suite so that every worker thread
+ * starts its browser with the same options, throttled to the configured
+ * {@link PerformanceProfile} and, under {@code -Dws.site=fetch}, serving the site itself
+ * through {@link InterceptedSite}.
+ */
+public final class DriverFactory {
+
+    private DriverFactory() {
+    }
+
+    public static ChromeOptions defaultOptions() {
+        ChromeOptions options = new ChromeOptions();
+
+        // Stable defaults for local + CI (GitHub Actions Linux runners).
+        options.addArguments("--window-size=1920,1080");
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--remote-allow-origins=*");
+
+        if (System.getenv("CI") != null || Boolean.getBoolean("ws.headless")) {
+            options.addArguments("--headless=new");
+            options.addArguments("--no-sandbox");
+            options.addArguments("--disable-gpu");
+        }
+        if (Integer.getInteger("ws.tabs", 1) > 1) {
+            // Checks run in background tabs too; keep their timers and rendering at full speed.
+            options.addArguments("--disable-background-timer-throttling");
+            options.addArguments("--disable-renderer-backgrounding");
+            options.addArguments("--disable-backgrounding-occluded-windows");
+        }
+        return options;
+    }
+
+    public static WebDriver newChromeDriver() {
+        ChromeDriver driver = new ChromeDriver(defaultOptions());
+        PerformanceProfile profile = PerformanceProfile.configured();
+        try {
+            if (profile != PerformanceProfile.DESKTOP) {
+                profile.apply(driver);
+            }
+            if (InterceptedSite.isEnabled()) {
+                InterceptedSite.attach(driver, WatchStoreServer.baseUrl());
+            }
+        } catch (RuntimeException e) {
+            driver.quit();
+            throw e;
+        }
+        return driver;
+    }
+}
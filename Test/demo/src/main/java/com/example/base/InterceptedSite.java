@@ -0,0 +1,192 @@
+package com.example.base;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+/**
+ * Serves {@code watch-store/} to a browser without any HTTP server, through CDP request
+ * interception ({@code -Dws.site=fetch}).
+ * <p>
+ * Every request for the site's origin is paused at the request stage
+ * ({@code Fetch.requestPaused}) and answered from {@link StaticAssets} with
+ * {@code Fetch.fulfillRequest}, so no socket, port or DNS lookup is involved. In fetch mode
+ * the origin is {@code http://watch-store.test/} unless {@code ws.baseUrl} names another.
+ * Each browser has its own {@link SiteRules} for per-resource delays, bandwidth and failures;
+ * responses are held back on a scheduler, so one slow resource never delays the others.
+ */
+public final class InterceptedSite {
+
+    public static final String DEFAULT_ORIGIN = "http://watch-store.test/";
+
+    private static final Event<Map<String, Object>> REQUEST_PAUSED =
+            new Event<>("Fetch.requestPaused", input -> input.read(Json.MAP_TYPE));
+    private static final Map<WebDriver, InterceptedSite> SITES = Collections.synchronizedMap(new WeakHashMap<>());
+    // Browsers whose DevTools session has the one requestPaused listener; it outlives detach.
+    private static final Set<WebDriver> LISTENING = Collections.newSetFromMap(new WeakHashMap<>());
+    private static final AtomicInteger RESPONDER_THREADS = new AtomicInteger();
+    private static final ScheduledExecutorService RESPONDER = Executors.newScheduledThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+                Thread t = new Thread(r, "watch-store-fetch-" + RESPONDER_THREADS.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+    private static StaticAssets sharedAssets;
+
+    private final DevTools devTools;
+    private final StaticAssets assets;
+    private final SiteRules rules = new SiteRules();
+
+    private InterceptedSite(DevTools devTools, StaticAssets assets) {
+        this.devTools = devTools;
+        this.assets = assets;
+    }
+
+    public static boolean isEnabled() {
+        return "fetch".equalsIgnoreCase(System.getProperty("ws.site", "server"));
+    }
+
+    /**
+     * Starts answering {@code driver}'s requests for {@code origin} (ending in "/") from the
+     * site's files. Does nothing if the driver is already intercepted.
+     */
+    public static InterceptedSite attach(WebDriver driver, String origin) {
+        synchronized (SITES) {
+            InterceptedSite site = SITES.get(driver);
+            if (site != null) {
+                return site;
+            }
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            site = new InterceptedSite(devTools, assets());
+            if (LISTENING.add(driver)) {
+                // Listeners cannot be removed one by one from a shared DevTools session, so a
+                // browser gets a single one that answers for whichever site is attached now.
+                devTools.addListener(REQUEST_PAUSED, paused -> {
+                    InterceptedSite live = SITES.get(driver);
+                    if (live != null) {
+                        RESPONDER.execute(() -> live.respond(paused));
+                    }
+                });
+            }
+            devTools.send(new Command<>("Fetch.enable", Map.of(
+                    "patterns", List.of(Map.of("urlPattern", origin + "*", "requestStage", "Request")))));
+            SITES.put(driver, site);
+            return site;
+        }
+    }
+
+    /**
+     * Stops intercepting {@code driver}'s requests; they go to the network again.
+     */
+    public static void detach(WebDriver driver) {
+        InterceptedSite site = SITES.remove(driver);
+        if (site == null) {
+            return;
+        }
+        try {
+            site.devTools.send(new Command<>("Fetch.disable", Map.of()));
+        } catch (WebDriverException e) {
+            // The browser is gone; nothing left to undo.
+        }
+    }
+
+    /**
+     * The interception of {@code driver}, or null if it has none.
+     */
+    public static InterceptedSite of(WebDriver driver) {
+        return SITES.get(driver);
+    }
+
+    private static synchronized StaticAssets assets() {
+        if (sharedAssets == null) {
+            sharedAssets = StaticAssets.load(StaticAssets.locateSiteRoot());
+        }
+        return sharedAssets;
+    }
+
+    public SiteRules rules() {
+        return rules;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void respond(Map<String, Object> paused) {
+        String requestId = String.valueOf(paused.get("requestId"));
+        String url = String.valueOf(((Map<String, Object>) paused.get("request")).get("url"));
+        String path = URI.create(url).getRawPath();
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        }
+
+        int status = 200;
+        String type = "text/plain";
+        byte[] body = new byte[0];
+        StaticAssets.Asset asset = assets.get(path);
+        Path file = asset == null ? assets.uncached(path) : null;
+        try {
+            if (asset != null) {
+                type = asset.contentType();
+                body = asset.body();
+            } else if (file != null) {
+                type = StaticAssets.contentType(file.toString());
+                body = Files.readAllBytes(file);
+            } else {
+                status = 404;
+            }
+        } catch (IOException e) {
+            status = 500;
+        }
+
+        SiteRules.Outcome outcome = rules.outcomeFor(path, body.length);
+        Command<Void> reply;
+        if (outcome.abort()) {
+            reply = new Command<>("Fetch.failRequest", Map.of("requestId", requestId, "errorReason", "ConnectionFailed"));
+        } else {
+            if (outcome.status() != 0) {
+                status = outcome.status();
+                body = new byte[0];
+            }
+            reply = new Command<>("Fetch.fulfillRequest", Map.of(
+                    "requestId", requestId,
+                    "responseCode", status,
+                    "responseHeaders", List.of(
+                            Map.of("name", "Content-Type", "value", type),
+                            Map.of("name", "Cache-Control", "value", "no-cache")),
+                    "body", Base64.getEncoder().encodeToString(body)));
+        }
+        Duration delay = outcome.delay();
+        if (delay.isZero()) {
+            send(reply);
+        } else {
+            RESPONDER.schedule(() -> send(reply), delay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void send(Command<Void> reply) {
+        try {
+            devTools.send(reply);
+        } catch (WebDriverException e) {
+            // The page navigated away or closed and the request no longer exists.
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.base;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import com.example.page.PaymentValidationBridge.Input;
+
+/**
+ * Seeded payment form inputs for differential tests of the checkout validation.
+ * <p>
+ * Each field is usually well formed, so most cases get past the earlier checks and reach
+ * the later ones (CVV, ZIP). The rest are the shapes validation code tends to get wrong:
+ * <ul>
+ *   <li>off-by-one lengths, broken Luhn check digits, separators such as tabs, NBSP (U+00A0),
+ *       ideographic spaces and dashes,</li>
+ *   <li>non-ASCII digits (Arabic-Indic, fullwidth) that Unicode-aware digit checks accept,</li>
+ *   <li>expiries at the current month and just either side of it, one-digit months, four-digit
+ *       years, months 00 and 13, and trailing newlines.</li>
+ * </ul>
+ * The same seed, {@code now} and zone give the same inputs.
+ */
+public final class PaymentInputGenerator {
+
+    private static final String[] SPACES = {" ", "  ", "\t", "\u00A0", "\u3000", "\u2009", "\uFEFF", "\n"};
+    private static final String[] NAMES = {"Ada Lovelace", "Jo", "A", "", " ", " Li ", "Zoë Ñúñez", "X Æ"};
+
+    private final long seed;
+
+    private PaymentInputGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public static PaymentInputGenerator seeded(long seed) {
+        return new PaymentInputGenerator(seed);
+    }
+
+    /**
+     * {@code count} inputs, with expiries spread around the month of {@code now} in {@code zone}.
+     */
+    public List<Input> generate(int count, Instant now, ZoneId zone) {
+        Random random = new Random(seed);
+        YearMonth current = YearMonth.from(now.atZone(zone));
+        List<Input> inputs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            inputs.add(new Input(name(random), card(random), expiry(random, current), cvv(random), zip(random)));
+        }
+        return inputs;
+    }
+
+    private static String name(Random random) {
+        return random.nextInt(4) > 0 ? NAMES[0] : pick(random, NAMES);
+    }
+
+    private static String card(Random random) {
+        int length = random.nextInt(4) > 0 ? 12 + random.nextInt(8) : 10 + random.nextInt(12);
+        StringBuilder digits = new StringBuilder(luhnNumber(random, length));
+        switch (random.nextInt(10)) {
+            case 0:
+                // A single wrong digit breaks the check sum.
+                int at = random.nextInt(digits.length());
+                digits.setCharAt(at, (char) ('0' + (digits.charAt(at) - '0' + 1 + random.nextInt(9)) % 10));
+                break;
+            case 1:
+                digits.setCharAt(random.nextInt(digits.length()), random.nextBoolean() ? '٤' : '４');
+                break;
+            case 2:
+                digits.setCharAt(random.nextInt(digits.length()), random.nextBoolean() ? '-' : 'O');
+                break;
+            default:
+                break;
+        }
+        return pad(random, group(random, digits.toString()));
+    }
+
+    /**
+     * A {@code length}-digit number whose last digit makes the Luhn sum a multiple of 10.
+     */
+    static String luhnNumber(Random random, int length) {
+        int[] d = new int[length];
+        d[0] = 1 + random.nextInt(9);
+        for (int i = 1; i < length - 1; i++) {
+            d[i] = random.nextInt(10);
+        }
+        int sum = 0;
+        for (int i = length - 2, pos = 1; i >= 0; i--, pos++) {
+            int n = d[i];
+            if (pos % 2 == 1) {
+                n *= 2;
+                if (n > 9) {
+                    n -= 9;
+                }
+            }
+            sum += n;
+        }
+        d[length - 1] = (10 - sum % 10) % 10;
+        StringBuilder out = new StringBuilder(length);
+        for (int n : d) {
+            out.append(n);
+        }
+        return out.toString();
+    }
+
+    private static String group(Random random, String digits) {
+        if (random.nextInt(3) == 0) {
+            return digits;
+        }
+        String separator = random.nextInt(3) > 0 ? " " : pick(random, SPACES);
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < digits.length(); i++) {
+            if (i > 0 && i % 4 == 0) {
+                out.append(separator);
+            }
+            out.append(digits.charAt(i));
+        }
+        return out.toString();
+    }
+
+    private static String expiry(Random random, YearMonth current) {
+        YearMonth month = current.plusMonths(random.nextInt(5) > 0 ? random.nextInt(60) - 3 : random.nextInt(7) - 3);
+        int mm = month.getMonthValue();
+        int yy = month.getYear() % 100;
+        String text;
+        switch (random.nextInt(12)) {
+            case 0:
+                text = mm + "/" + String.format(Locale.ROOT, "%02d", yy);
+                break;
+            case 1:
+                text = String.format(Locale.ROOT, "%02d/%d", mm, month.getYear());
+                break;
+            case 2:
+                text = String.format(Locale.ROOT, "%02d%s/%s%02d", mm, pick(random, SPACES), pick(random, SPACES), yy);
+                break;
+            case 3:
+                text = String.format(Locale.ROOT, "%02d-%02d", mm, yy);
+                break;
+            case 4:
+                text = String.format(Locale.ROOT, "%02d/%02d", random.nextBoolean() ? 0 : 13, yy);
+                break;
+            case 5:
+                text = String.format(Locale.ROOT, "%02d/%02d\n", mm, yy);
+                break;
+            case 6:
+                text = String.format(Locale.ROOT, "０%d/%02d", mm % 10, yy);
+                break;
+            default:
+                text = String.format(Locale.ROOT, "%02d/%02d", mm, yy);
+                break;
+        }
+        return pad(random, text);
+    }
+
+    private static String cvv(Random random) {
+        int length = random.nextInt(3) > 0 ? 3 + random.nextInt(2) : 1 + random.nextInt(6);
+        return pad(random, mutate(random, digits(random, length)));
+    }
+
+    private static String zip(Random random) {
+        int length = random.nextInt(3) > 0 ? 4 + random.nextInt(7) : 2 + random.nextInt(11);
+        return pad(random, mutate(random, digits(random, length)));
+    }
+
+    private static String digits(Random random, int length) {
+        StringBuilder out = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            out.append((char) ('0' + random.nextInt(10)));
+        }
+        return out.toString();
+    }
+
+    private static String mutate(Random random, String text) {
+        if (text.isEmpty() || random.nextInt(6) > 0) {
+            return text;
+        }
+        StringBuilder out = new StringBuilder(text);
+        int at = random.nextInt(out.length());
+        switch (random.nextInt(3)) {
+            case 0:
+                out.setCharAt(at, '٣');
+                break;
+            case 1:
+                out.setCharAt(at, 'A');
+                break;
+            default:
+                out.insert(at, pick(random, SPACES));
+                break;
+        }
+        return out.toString();
+    }
+
+    private static String pad(Random random, String text) {
+        if (random.nextInt(8) > 0) {
+            return text;
+        }
+        return (random.nextBoolean() ? pick(random, SPACES) : "") + text + (random.nextBoolean() ? pick(random, SPACES) : "");
+    }
+
+    private static String pick(Random random, String[] options) {
+        return options[random.nextInt(options.length)];
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.base;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+/**
+ * Java reference for the store's checkout validation: {@code luhnOk}, {@code parseExpiry} and
+ * {@code paymentError} in {@code main.js}, used as the oracle of differential tests.
+ * <p>
+ * It follows JavaScript's rules, not Java's: {@code trim()} and {@code \s} cover Unicode
+ * spaces such as U+00A0 and U+FEFF that {@link String#strip()} keeps, {@code \d} is ASCII only,
+ * {@code $} does not match before a trailing newline, and lengths count UTF-16 units.
+ */
+public final class PaymentRules {
+
+    public static final String NAME_ERROR = "Enter the name on the card.";
+    public static final String CARD_ERROR = "Enter a valid card number.";
+    public static final String EXPIRY_FORMAT_ERROR = "Expiry must be in MM/YY format.";
+    public static final String EXPIRED_ERROR = "Card is expired.";
+    public static final String CVV_ERROR = "CVV must be 3–4 digits.";
+    public static final String ZIP_ERROR = "Enter a valid ZIP/Postal code.";
+
+    private PaymentRules() {
+    }
+
+    public static boolean luhnOk(String number) {
+        String s = removeSpaces(number == null ? "" : number);
+        if (s.length() < 12 || s.length() > 19 || !asciiDigits(s)) {
+            return false;
+        }
+        int sum = 0;
+        boolean alt = false;
+        for (int i = s.length() - 1; i >= 0; i--) {
+            int n = s.charAt(i) - '0';
+            if (alt) {
+                n *= 2;
+                if (n > 9) {
+                    n -= 9;
+                }
+            }
+            sum += n;
+            alt = !alt;
+        }
+        return sum % 10 == 0;
+    }
+
+    /**
+     * Month and four-digit year of an {@code MM/YY} expiry, or null when it is not one.
+     */
+    public static YearMonth parseExpiry(String text) {
+        String t = trim(text == null ? "" : text);
+        // ^(\d{2})\s*\/\s*(\d{2})$
+        if (t.length() < 5 || !asciiDigits(t.substring(0, 2)) || !asciiDigits(t.substring(t.length() - 2))) {
+            return null;
+        }
+        String middle = t.substring(2, t.length() - 2);
+        if (!trim(middle).equals("/")) {
+            return null;
+        }
+        int mm = Integer.parseInt(t.substring(0, 2));
+        int yy = Integer.parseInt(t.substring(t.length() - 2));
+        if (mm < 1 || mm > 12) {
+            return null;
+        }
+        return YearMonth.of(2000 + yy, mm);
+    }
+
+    /**
+     * The first problem {@code paymentError} reports for these values at {@code now} in the
+     * browser's time zone, or "" when the payment would go through.
+     */
+    public static String paymentError(String name, String card, String expiry, String cvv, String zip,
+            Instant now, ZoneId zone) {
+        if (trim(name == null ? "" : name).length() < 2) {
+            return NAME_ERROR;
+        }
+        if (!luhnOk(card)) {
+            return CARD_ERROR;
+        }
+        YearMonth ex = parseExpiry(expiry);
+        if (ex == null) {
+            return EXPIRY_FORMAT_ERROR;
+        }
+        // new Date(yy, mm, 0, 23, 59, 59): the last day of the month, local time.
+        Instant expLast = LocalDateTime.of(ex.getYear(), ex.getMonthValue(), ex.lengthOfMonth(), 23, 59, 59)
+                .atZone(zone).toInstant();
+        if (expLast.isBefore(now)) {
+            return EXPIRED_ERROR;
+        }
+        String c = trim(cvv == null ? "" : cvv);
+        if (c.length() < 3 || c.length() > 4 || !asciiDigits(c)) {
+            return CVV_ERROR;
+        }
+        String z = trim(zip == null ? "" : zip);
+        if (z.length() < 4 || z.length() > 10 || !asciiDigits(z)) {
+            return ZIP_ERROR;
+        }
+        return "";
+    }
+
+    /**
+     * JavaScript's {@code WhiteSpace} and {@code LineTerminator}, as used by {@code trim()}
+     * and {@code \s}.
+     */
+    static boolean isJsSpace(char c) {
+        switch (c) {
+            case '\t', '\n', '\u000B', '\f', '\r', ' ', '\u00A0', '\u1680', '\u2028', '\u2029', '\u202F',
+                    '\u205F', '\u3000', '\uFEFF':
+                return true;
+            default:
+                return c >= '\u2000' && c <= '\u200A';
+        }
+    }
+
+    static String trim(String s) {
+        int start = 0;
+        int end = s.length();
+        while (start < end && isJsSpace(s.charAt(start))) {
+            start++;
+        }
+        while (end > start && isJsSpace(s.charAt(end - 1))) {
+            end--;
+        }
+        return s.substring(start, end);
+    }
+
+    private static String removeSpaces(String s) {
+        StringBuilder out = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            if (!isJsSpace(s.charAt(i))) {
+                out.append(s.charAt(i));
+            }
+        }
+        return out.toString();
+    }
+
+    private static boolean asciiDigits(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
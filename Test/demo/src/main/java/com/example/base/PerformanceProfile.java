@@ -0,0 +1,93 @@
+package com.example.base;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import com.example.page.PagePerformance;
+
+/**
+ * Named device profiles the browsers can be throttled to ({@code -Dws.perf.profile=...}).
+ * <p>
+ * Each profile sets CDP {@code Network.emulateNetworkConditions} and
+ * {@code Emulation.setCPUThrottlingRate} on every driver {@link DriverFactory} creates, all
+ * inside Chrome, and carries the load budget pages are held to under it. The network values
+ * are Chrome DevTools' "Fast 3G" preset and Lighthouse's mobile throttling.
+ */
+public enum PerformanceProfile {
+
+    /** No throttling; the default. */
+    DESKTOP("desktop", Duration.ZERO, -1, -1, 1, PagePerformance.Budget.DEFAULT),
+
+    /** DevTools "Fast 3G": 562.5 ms round trips, 1.44 Mbit/s down, 675 kbit/s up. */
+    THREE_G("3G", Duration.ofMillis(562), 180_000, 84_375, 1,
+            new PagePerformance.Budget(Duration.ofMillis(1800), Duration.ofMillis(4000), 0.1, Duration.ofMillis(200))),
+
+    /** Lighthouse mobile: 150 ms round trips, 1.6 Mbit/s down, 750 kbit/s up, 4x slower CPU. */
+    LOW_END_MOBILE("low-end-mobile", Duration.ofMillis(150), 204_800, 96_000, 4,
+            new PagePerformance.Budget(Duration.ofMillis(1000), Duration.ofMillis(4000), 0.1, Duration.ofMillis(600)));
+
+    private final String id;
+    private final Duration latency;
+    private final long downloadBytesPerSecond;
+    private final long uploadBytesPerSecond;
+    private final double cpuSlowdown;
+    private final PagePerformance.Budget budget;
+
+    PerformanceProfile(String id, Duration latency, long downloadBytesPerSecond, long uploadBytesPerSecond,
+            double cpuSlowdown, PagePerformance.Budget budget) {
+        this.id = id;
+        this.latency = latency;
+        this.downloadBytesPerSecond = downloadBytesPerSecond;
+        this.uploadBytesPerSecond = uploadBytesPerSecond;
+        this.cpuSlowdown = cpuSlowdown;
+        this.budget = budget;
+    }
+
+    public static PerformanceProfile configured() {
+        return byId(System.getProperty("ws.perf.profile", DESKTOP.id));
+    }
+
+    public static PerformanceProfile byId(String id) {
+        return Arrays.stream(values())
+                .filter(p -> p.id.equalsIgnoreCase(id.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown performance profile '" + id + "'; expected one of "
+                        + Arrays.stream(values()).map(PerformanceProfile::id).collect(Collectors.joining(", "))));
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Load budget for pages under this profile.
+     */
+    public PagePerformance.Budget budget() {
+        return budget;
+    }
+
+    /**
+     * Throttles {@code driver}'s network and CPU to this profile. Nothing to do for
+     * {@link #DESKTOP} on a fresh browser.
+     */
+    public void apply(WebDriver driver) {
+        HasCdp cdp = (HasCdp) driver;
+        cdp.executeCdpCommand("Network.enable", Map.of());
+        cdp.executeCdpCommand("Network.emulateNetworkConditions", Map.of(
+                "offline", false,
+                "latency", latency.toMillis(),
+                "downloadThroughput", downloadBytesPerSecond,
+                "uploadThroughput", uploadBytesPerSecond));
+        cdp.executeCdpCommand("Emulation.setCPUThrottlingRate", Map.of("rate", cpuSlowdown));
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.base;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * Per-resource behaviour of an {@link InterceptedSite}: extra latency, limited bandwidth and
+ * failures, by request path.
+ * <p>
+ * Paths are matched against the request path without its query, e.g. {@code /js/main.js};
+ * {@code *} matches any run of characters, so {@code /css/*} or {@code *.svg} work too.
+ * Every matching rule applies: delays add up, the lowest bandwidth wins, and the first
+ * matching failure is returned.
+ * <pre>
+ * siteRules().delay("/js/main.js", Duration.ofMillis(1500))
+ *            .bandwidth("/css/*", 8 * 1024)
+ *            .failWith("/img/*", 404);
+ * </pre>
+ */
+public final class SiteRules {
+
+    private final List<Rule> rules = new CopyOnWriteArrayList<>();
+
+    public SiteRules delay(String path, Duration delay) {
+        rules.add(new Rule(glob(path), delay, 0, 0, false));
+        return this;
+    }
+
+    /**
+     * Delivers matching responses at {@code bytesPerSecond}: a response is held back for as
+     * long as its body would take to arrive at that rate.
+     */
+    public SiteRules bandwidth(String path, long bytesPerSecond) {
+        if (bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("bytesPerSecond must be positive");
+        }
+        rules.add(new Rule(glob(path), Duration.ZERO, bytesPerSecond, 0, false));
+        return this;
+    }
+
+    /**
+     * Answers matching requests with an empty response of {@code status}.
+     */
+    public SiteRules failWith(String path, int status) {
+        rules.add(new Rule(glob(path), Duration.ZERO, 0, status, false));
+        return this;
+    }
+
+    /**
+     * Fails matching requests at the network level, as a dropped connection would.
+     */
+    public SiteRules abort(String path) {
+        rules.add(new Rule(glob(path), Duration.ZERO, 0, 0, true));
+        return this;
+    }
+
+    public void clear() {
+        rules.clear();
+    }
+
+    /**
+     * What to do with a request for {@code path} whose response body is {@code bodyBytes} long.
+     */
+    Outcome outcomeFor(String path, long bodyBytes) {
+        Duration delay = Duration.ZERO;
+        long bandwidth = Long.MAX_VALUE;
+        int status = 0;
+        boolean abort = false;
+        for (Rule rule : rules) {
+            if (!rule.path.matcher(path).matches()) {
+                continue;
+            }
+            delay = delay.plus(rule.delay);
+            if (rule.bytesPerSecond > 0) {
+                bandwidth = Math.min(bandwidth, rule.bytesPerSecond);
+            }
+            if (status == 0 && !abort) {
+                status = rule.status;
+                abort = rule.abort;
+            }
+        }
+        if (bandwidth != Long.MAX_VALUE) {
+            delay = delay.plusNanos(bodyBytes * 1_000_000_000L / bandwidth);
+        }
+        return new Outcome(delay, status, abort);
+    }
+
+    private static Pattern glob(String path) {
+        String[] parts = path.split("\\*", -1);
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(parts[i]));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private record Rule(Pattern path, Duration delay, long bytesPerSecond, int status, boolean abort) {
+    }
+
+    /**
+     * {@code status} 0 means the resource is served normally.
+     */
+    record Outcome(Duration delay, int status, boolean abort) {
+    }
+}
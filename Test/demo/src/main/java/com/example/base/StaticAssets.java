@@ -0,0 +1,176 @@
+package com.example.base;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-memory copy of the {@code watch-store/} site.
+ * <p>
+ * Every file up to {@code ws.server.maxCachedBytes} (1 MiB by default) is read once, given a
+ * strong ETag and, for text types, a gzip variant built ahead of time. Larger files stay on
+ * disk and are only described by {@link #uncached(String)}.
+ */
+public final class StaticAssets {
+
+    private static final long DEFAULT_MAX_CACHED_BYTES = 1024 * 1024;
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "html", "text/html; charset=utf-8",
+            "css", "text/css; charset=utf-8",
+            "js", "text/javascript; charset=utf-8",
+            "json", "application/json",
+            "svg", "image/svg+xml",
+            "png", "image/png",
+            "jpg", "image/jpeg",
+            "ico", "image/x-icon",
+            "md", "text/markdown; charset=utf-8");
+
+    private final Path root;
+    private final Map<String, Asset> cached;
+
+    private StaticAssets(Path root, Map<String, Asset> cached) {
+        this.root = root;
+        this.cached = cached;
+    }
+
+    public static StaticAssets load(Path siteRoot) {
+        Path root = siteRoot.toAbsolutePath().normalize();
+        long maxCached = Long.getLong("ws.server.maxCachedBytes", DEFAULT_MAX_CACHED_BYTES);
+        Map<String, Asset> cached = new HashMap<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                if (Files.size(file) > maxCached) {
+                    continue;
+                }
+                String path = "/" + root.relativize(file).toString().replace('\\', '/');
+                cached.put(path, Asset.of(path, Files.readAllBytes(file)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + root, e);
+        }
+        return new StaticAssets(root, Collections.unmodifiableMap(cached));
+    }
+
+    /**
+     * Finds the {@code watch-store/} directory from {@code ws.siteRoot} or by walking up from the
+     * working directory, so the suite works from both the repo root and {@code Test/demo}.
+     */
+    public static Path locateSiteRoot() {
+        String configured = System.getProperty("ws.siteRoot");
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured).toAbsolutePath().normalize();
+        }
+        for (Path dir = Paths.get("").toAbsolutePath(); dir != null; dir = dir.getParent()) {
+            Path candidate = dir.resolve("watch-store");
+            if (Files.isRegularFile(candidate.resolve("index.html"))) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Could not find the watch-store directory; set -Dws.siteRoot");
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    /**
+     * The cached asset for a request path such as {@code /js/main.js}, or null.
+     */
+    public Asset get(String path) {
+        return cached.get(normalize(path));
+    }
+
+    public Map<String, Asset> all() {
+        return cached;
+    }
+
+    /**
+     * A file under the root that was too large to cache, or null if there is no such file.
+     */
+    public Path uncached(String path) {
+        String normalized = normalize(path);
+        if (normalized == null) {
+            return null;
+        }
+        Path file = root.resolve(normalized.substring(1)).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        return file;
+    }
+
+    private static String normalize(String path) {
+        if (path == null || path.contains("..")) {
+            return null;
+        }
+        int query = path.indexOf('?');
+        String p = query < 0 ? path : path.substring(0, query);
+        if (p.isEmpty() || p.endsWith("/")) {
+            p = p + "index.html";
+        }
+        return p.startsWith("/") ? p : "/" + p;
+    }
+
+    public static String contentType(String path) {
+        int dot = path.lastIndexOf('.');
+        String ext = dot < 0 ? "" : path.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return CONTENT_TYPES.getOrDefault(ext, "application/octet-stream");
+    }
+
+    /**
+     * A cached file with its precomputed representations.
+     */
+    public record Asset(String path, String contentType, String etag, byte[] body, byte[] gzip) {
+
+        static Asset of(String path, byte[] body) {
+            String type = StaticAssets.contentType(path);
+            byte[] gzip = isCompressible(type) ? gzip(body) : null;
+            if (gzip != null && gzip.length >= body.length) {
+                gzip = null;
+            }
+            return new Asset(path, type, etag(body), body, gzip);
+        }
+
+        private static boolean isCompressible(String type) {
+            return type.startsWith("text/") || type.startsWith("application/json") || type.startsWith("image/svg");
+        }
+
+        private static byte[] gzip(byte[] body) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 3 + 64);
+            try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+                gz.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+
+        private static String etag(byte[] body) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+                StringBuilder sb = new StringBuilder("\"");
+                for (int i = 0; i < 12; i++) sb.append(String.format("%02x", hash[i]));
+                return sb.append('"').toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public String text() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.base;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+/**
+ * Fixture builder for the watch store's localStorage.
+ * <p>
+ * Writes users, session, carts and orders with the same key layout as
+ * {@code watch-store/js/main.js}, in a single script call:
+ * <pre>
+ * StoreState.forUser("test@test.com", "password123")
+ *         .loggedIn()
+ *         .withCartItem("neo-chrono", 1)
+ *         .applyTo(driver, BASE_URL);
+ * </pre>
+ * Products are not written unless {@link #withCatalog} is used; the app seeds
+ * {@code ws_products} itself on the next page load.
+ */
+public final class StoreState {
+
+    private static final Json JSON = new Json();
+
+    // Seeded products the generated order histories draw from.
+    private static final OrderLine[] HISTORY_PRODUCTS = {
+            new OrderLine("neo-chrono", "Neo Chrono X1", 7999, 1),
+            new OrderLine("aurora-stealth", "Aurora Stealth S", 9999, 1),
+            new OrderLine("pulse-runner", "Pulse Runner R2", 6499, 1),
+            new OrderLine("titan-arc", "Titan Arc T9", 11999, 1)};
+
+    private final Map<String, Map<String, Object>> users = new LinkedHashMap<>();
+    private final Map<String, List<Map<String, Object>>> carts = new LinkedHashMap<>();
+    private final Map<String, List<Map<String, Object>>> orders = new LinkedHashMap<>();
+    private String currentEmail;
+    private String sessionEmail;
+    private String products;
+
+    private StoreState() {
+    }
+
+    public static StoreState empty() {
+        return new StoreState();
+    }
+
+    public static StoreState forUser(String email, String password) {
+        return new StoreState().andUser(email, password);
+    }
+
+    /**
+     * Adds another account and makes it the target of the following {@code with*} calls.
+     */
+    public StoreState andUser(String email, String password) {
+        currentEmail = normEmail(email);
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("pwHash", passwordHash(password));
+        user.put("createdAt", Instant.now().toString());
+        users.put(currentEmail, user);
+        return this;
+    }
+
+    public StoreState loggedIn() {
+        sessionEmail = requireUser();
+        return this;
+    }
+
+    public StoreState withCartItem(String productId, int qty) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", productId);
+        item.put("qty", qty);
+        carts.computeIfAbsent(requireUser(), k -> new ArrayList<>()).add(item);
+        return this;
+    }
+
+    /**
+     * Replaces the seeded products with {@code size} generated ones (see {@link CatalogGenerator}).
+     */
+    public StoreState withCatalog(CatalogGenerator generator, int size) {
+        products = generator.toJson(size);
+        return this;
+    }
+
+    public StoreState withOrder(String orderId, OrderLine... lines) {
+        return withOrder(orderId, Instant.now(), lines);
+    }
+
+    public StoreState withOrder(String orderId, Instant createdAt, OrderLine... lines) {
+        // The app lists orders newest first.
+        orders.computeIfAbsent(requireUser(), k -> new ArrayList<>()).add(0, order(orderId, createdAt, lines));
+        return this;
+    }
+
+    private static Map<String, Object> order(String orderId, Instant createdAt, OrderLine... lines) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        long total = 0;
+        for (OrderLine line : lines) {
+            items.add(line.toJson());
+            total += line.total();
+        }
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("id", orderId);
+        order.put("createdAt", createdAt.toString());
+        order.put("total", total);
+        order.put("items", items);
+        return order;
+    }
+
+    /**
+     * Adds {@code count} older orders of one to three seeded watches each, one hour apart and
+     * ending an hour before now, with ids {@code ORD-H-000001} (oldest) upwards. The same count
+     * always gives the same items. Each order takes about 270 characters of storage, so
+     * histories stop fitting in localStorage a little below 20k orders.
+     */
+    public StoreState withOrderHistory(int count) {
+        Random random = new Random(count);
+        Instant latest = Instant.now().minus(Duration.ofHours(1));
+        List<Map<String, Object>> history = orders.computeIfAbsent(requireUser(), k -> new ArrayList<>());
+        for (int i = count; i >= 1; i--) {
+            OrderLine[] lines = new OrderLine[1 + random.nextInt(3)];
+            for (int j = 0; j < lines.length; j++) {
+                OrderLine product = HISTORY_PRODUCTS[random.nextInt(HISTORY_PRODUCTS.length)];
+                lines[j] = new OrderLine(product.id(), product.title(), product.price(), 1 + random.nextInt(2));
+            }
+            history.add(order(String.format("ORD-H-%06d", i), latest.minus(Duration.ofHours(count - i)), lines));
+        }
+        return this;
+    }
+
+    /**
+     * The localStorage entries this state consists of, as the app would have written them.
+     */
+    public Map<String, String> entries() {
+        Map<String, String> entries = new LinkedHashMap<>();
+        if (!users.isEmpty()) {
+            entries.put("ws_users", toJson(users));
+        }
+        if (sessionEmail != null) {
+            Map<String, Object> session = new LinkedHashMap<>();
+            session.put("email", sessionEmail);
+            session.put("at", Instant.now().toString());
+            entries.put("ws_session", toJson(session));
+        }
+        if (products != null) {
+            entries.put("ws_products", products);
+        }
+        carts.forEach((email, items) -> entries.put("ws_cart:" + email, toJson(items)));
+        orders.forEach((email, list) -> entries.put("ws_orders:" + email, toJson(list)));
+        return entries;
+    }
+
+    /**
+     * Replaces the site's web storage with this state.
+     */
+    public void applyTo(WebDriver driver, String baseUrl) {
+        ensureOnOrigin(driver, baseUrl);
+        ((JavascriptExecutor) driver).executeScript(
+                "localStorage.clear();"
+                        + "sessionStorage.clear();"
+                        + "const entries = arguments[0];"
+                        + "for (const k of Object.keys(entries)) localStorage.setItem(k, entries[k]);",
+                entries());
+    }
+
+    /**
+     * Loads the site's stylesheet when the browser is elsewhere (e.g. about:blank after a pool
+     * reset). It is a same-origin document that runs no app code, so storage can be written
+     * before the app boots.
+     */
+    static void ensureOnOrigin(WebDriver driver, String baseUrl) {
+        String current = driver.getCurrentUrl();
+        if (current == null || !current.startsWith(baseUrl)) {
+            driver.get(baseUrl + "css/styles.css");
+        }
+    }
+
+    static String toJson(Object value) {
+        StringBuilder out = new StringBuilder();
+        try (JsonOutput json = JSON.newOutput(out)) {
+            json.setPrettyPrint(false).write(value);
+        }
+        return out.toString();
+    }
+
+    private String requireUser() {
+        if (currentEmail == null) {
+            throw new IllegalStateException("Call forUser(...) or andUser(...) first");
+        }
+        return currentEmail;
+    }
+
+    private static String normEmail(String email) {
+        return String.valueOf(email).trim().toLowerCase();
+    }
+
+    /**
+     * SHA-256 hex of the password, matching {@code sha256Hex} in main.js.
+     */
+    public static String passwordHash(String password) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(String.valueOf(password).getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) sb.append(String.format("%02x", b));
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * One line of a placed order, shaped like the entries of {@code cartLinesDetailed}.
+     */
+    public record OrderLine(String id, String title, long price, int qty) {
+
+        public long total() {
+            return price * qty;
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("id", id);
+            line.put("title", title);
+            line.put("price", price);
+            line.put("qty", qty);
+            line.put("total", total());
+            return line;
+        }
+    }
+}
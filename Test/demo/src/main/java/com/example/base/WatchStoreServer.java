@@ -0,0 +1,174 @@
+package com.example.base;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded static server for {@code watch-store/}, started on an ephemeral loopback port.
+ * <p>
+ * Responses come from {@link StaticAssets}: gzip variants are prebuilt, ETags are strong and
+ * {@code If-None-Match} is answered with 304. Files too large to cache are sent straight from
+ * a {@link FileChannel}. Requests are served by a thread pool so parallel workers never queue
+ * behind each other.
+ */
+public final class WatchStoreServer {
+
+    private static WatchStoreServer shared;
+
+    private final StaticAssets assets;
+    private final HttpServer server;
+    private final ExecutorService workers;
+
+    private WatchStoreServer(StaticAssets assets, int threads) throws IOException {
+        this.assets = assets;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "watch-store-http");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(workers);
+        server.createContext("/", this::handle);
+    }
+
+    public static WatchStoreServer start(StaticAssets assets) {
+        int threads = Integer.getInteger("ws.server.threads", Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            WatchStoreServer s = new WatchStoreServer(assets, threads);
+            s.server.start();
+            return s;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the watch-store server", e);
+        }
+    }
+
+    /**
+     * The site URL the suite should test, ending in "/".
+     * <p>
+     * {@code -Dws.baseUrl=http://127.0.0.1:5500/} points the suite at an external server.
+     * Otherwise the shared embedded server is started on first use and its URL is published
+     * as {@code ws.baseUrl} for page objects. Under {@code -Dws.site=fetch} no server is started:
+     * the browsers answer {@link InterceptedSite#DEFAULT_ORIGIN} themselves.
+     */
+    public static synchronized String baseUrl() {
+        String configured = System.getProperty("ws.baseUrl");
+        if (configured != null && !configured.isBlank()) {
+            return configured.endsWith("/") ? configured : configured + "/";
+        }
+        if (InterceptedSite.isEnabled()) {
+            System.setProperty("ws.baseUrl", InterceptedSite.DEFAULT_ORIGIN);
+            return InterceptedSite.DEFAULT_ORIGIN;
+        }
+        if (shared == null) {
+            shared = start(StaticAssets.load(StaticAssets.locateSiteRoot()));
+            System.setProperty("ws.baseUrl", shared.url());
+        }
+        return shared.url();
+    }
+
+    public static synchronized void stopShared() {
+        if (shared != null) {
+            System.clearProperty("ws.baseUrl");
+            shared.stop();
+            shared = null;
+        }
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    public void stop() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            boolean head = "HEAD".equals(method);
+            if (!head && !"GET".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            StaticAssets.Asset asset = assets.get(path);
+            if (asset != null) {
+                sendCached(exchange, asset, head);
+                return;
+            }
+            Path file = assets.uncached(path);
+            if (file != null) {
+                sendFile(exchange, file, head);
+                return;
+            }
+            exchange.sendResponseHeaders(404, -1);
+        }
+    }
+
+    private static void sendCached(HttpExchange exchange, StaticAssets.Asset asset, boolean head) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", asset.contentType());
+        headers.set("ETag", asset.etag());
+        headers.set("Cache-Control", "no-cache");
+        headers.set("Vary", "Accept-Encoding");
+
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null && ifNoneMatch.contains(asset.etag())) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+
+        byte[] body = asset.body();
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (asset.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            headers.set("Content-Encoding", "gzip");
+            body = asset.gzip();
+        }
+        if (head) {
+            headers.set("Content-Length", String.valueOf(body.length));
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sendFile(HttpExchange exchange, Path file, boolean head) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            exchange.getResponseHeaders().set("Content-Type", StaticAssets.contentType(file.toString()));
+            if (head) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(size));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, size);
+            try (OutputStream out = exchange.getResponseBody()) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long sent = 0;
+                while (sent < size) {
+                    sent += channel.transferTo(sent, size - sent, target);
+                }
+            }
+        }
+    }
+}
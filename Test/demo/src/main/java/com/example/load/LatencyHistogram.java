@@ -0,0 +1,158 @@
+package com.example.load;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe latency histogram with HdrHistogram's bucket layout.
+ * <p>
+ * Values are recorded in microseconds. Each power-of-two range is split into the same number
+ * of linear sub-buckets, so every recorded value keeps {@code significantDigits} decimal digits
+ * of precision (2 digits: within 1%) from 1 µs up to {@code highestTrackable}, in a fixed,
+ * small array. Values above the range are clamped to it.
+ */
+public final class LatencyHistogram {
+
+    private final long highestTrackable;
+    private final int subBucketHalfCountMagnitude;
+    private final int subBucketHalfCount;
+    private final long subBucketMask;
+    private final int leadingZeroCountBase;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram() {
+        this(Duration.ofMinutes(5), 2);
+    }
+
+    public LatencyHistogram(Duration highestTrackable, int significantDigits) {
+        if (significantDigits < 1 || significantDigits > 4) {
+            throw new IllegalArgumentException("significantDigits must be 1..4");
+        }
+        this.highestTrackable = Math.max(2, toMicros(highestTrackable));
+
+        long singleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+        int subBucketCountMagnitude = (int) Math.ceil(Math.log(singleUnitResolution) / Math.log(2));
+        this.subBucketHalfCountMagnitude = Math.max(subBucketCountMagnitude, 1) - 1;
+        int subBucketCount = 1 << (subBucketHalfCountMagnitude + 1);
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.subBucketMask = subBucketCount - 1;
+        this.leadingZeroCountBase = 64 - subBucketHalfCountMagnitude - 1;
+
+        long smallestUntrackable = subBucketCount;
+        int buckets = 1;
+        while (smallestUntrackable <= this.highestTrackable) {
+            if (smallestUntrackable > Long.MAX_VALUE / 2) {
+                buckets++;
+                break;
+            }
+            smallestUntrackable <<= 1;
+            buckets++;
+        }
+        this.counts = new AtomicLongArray((buckets + 1) * subBucketHalfCount);
+    }
+
+    public void record(Duration latency) {
+        recordMicros(toMicros(latency));
+    }
+
+    public void recordMicros(long micros) {
+        long value = Math.max(0, Math.min(micros, highestTrackable));
+        counts.incrementAndGet(indexOf(value));
+        total.incrementAndGet();
+        sum.addAndGet(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Adds every count of {@code other}, which must have the same layout.
+     */
+    public void add(LatencyHistogram other) {
+        if (other.counts.length() != counts.length() || other.subBucketHalfCount != subBucketHalfCount) {
+            throw new IllegalArgumentException("Histograms have different layouts");
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        total.addAndGet(other.total.get());
+        sum.addAndGet(other.sum.get());
+        if (other.total.get() > 0) {
+            min.accumulateAndGet(other.min.get(), Math::min);
+            max.accumulateAndGet(other.max.get(), Math::max);
+        }
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    /**
+     * Sum of all recorded values (exact, not bucketed).
+     */
+    public Duration total() {
+        return Duration.ofNanos(sum.get() * 1000);
+    }
+
+    public Duration mean() {
+        long n = count();
+        return n == 0 ? Duration.ZERO : Duration.ofNanos(sum.get() * 1000 / n);
+    }
+
+    public Duration min() {
+        return count() == 0 ? Duration.ZERO : Duration.ofNanos(min.get() * 1000);
+    }
+
+    public Duration max() {
+        return Duration.ofNanos(max.get() * 1000);
+    }
+
+    /**
+     * The value at {@code percentile} (0-100), reported as the upper end of its bucket like
+     * HdrHistogram does.
+     */
+    public Duration percentile(double percentile) {
+        long n = count();
+        if (n == 0) {
+            return Duration.ZERO;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Duration.ofNanos(Math.min(highestEquivalentValue(i), max.get()) * 1000);
+            }
+        }
+        return max();
+    }
+
+    private int indexOf(long value) {
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+        return ((bucketIndex + 1) << subBucketHalfCountMagnitude) + (subBucketIndex - subBucketHalfCount);
+    }
+
+    private long highestEquivalentValue(int index) {
+        int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+        int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucketIndex < 0) {
+            subBucketIndex -= subBucketHalfCount;
+            bucketIndex = 0;
+        }
+        long lowest = (long) subBucketIndex << bucketIndex;
+        return lowest + (1L << bucketIndex) - 1;
+    }
+
+    private static long toMicros(Duration d) {
+        return d.toNanos() / 1000;
+    }
+}
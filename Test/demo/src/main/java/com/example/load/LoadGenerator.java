@@ -0,0 +1,144 @@
+package com.example.load;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import com.example.base.DriverFactory;
+
+/**
+ * Runs {@link ShopperJourney}s from many browsers at once, stage by stage.
+ * <p>
+ * Every virtual user owns one browser and repeats the journey until the stage it belongs
+ * to ends. Moving to a bigger stage launches more users; moving to a smaller one lets the
+ * extra users finish their current journey and quit. Browser launches happen while the
+ * stage clock is running but are not part of any step.
+ */
+public final class LoadGenerator {
+
+    private final String baseUrl;
+    private final List<LoadStage> stages;
+    private final String searchTerm;
+    private final Duration thinkTime;
+    private final PrintStream out;
+
+    private final List<VirtualUser> users = new ArrayList<>();
+    private final AtomicInteger userIds = new AtomicInteger();
+    private volatile StageMetrics current;
+
+    public LoadGenerator(String baseUrl, List<LoadStage> stages, String searchTerm, Duration thinkTime, PrintStream out) {
+        this.baseUrl = baseUrl;
+        this.stages = List.copyOf(stages);
+        this.searchTerm = searchTerm;
+        this.thinkTime = thinkTime;
+        this.out = out;
+    }
+
+    public List<StageMetrics.StageResult> run() throws InterruptedException {
+        List<StageMetrics.StageResult> results = new ArrayList<>();
+        try {
+            for (LoadStage stage : stages) {
+                StageMetrics metrics = new StageMetrics(stage);
+                current = metrics;
+                long start = System.nanoTime();
+                resize(stage.users());
+                Thread.sleep(stage.duration().toMillis());
+                StageMetrics.StageResult result = metrics.result(Duration.ofNanos(System.nanoTime() - start));
+                results.add(result);
+                out.print(LoadReport.format(result));
+                out.println();
+            }
+        } finally {
+            resize(0);
+        }
+        return results;
+    }
+
+    private void resize(int target) throws InterruptedException {
+        while (users.size() < target) {
+            VirtualUser user = new VirtualUser(userIds.incrementAndGet());
+            users.add(user);
+            user.thread.start();
+        }
+        List<VirtualUser> leaving = new ArrayList<>();
+        while (users.size() > target) {
+            VirtualUser user = users.remove(users.size() - 1);
+            user.running = false;
+            leaving.add(user);
+        }
+        for (VirtualUser user : leaving) {
+            user.thread.join();
+        }
+    }
+
+    private final class VirtualUser implements Runnable {
+
+        private final int id;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        VirtualUser(int id) {
+            this.id = id;
+            this.thread = new Thread(this, "load-user-" + id);
+        }
+
+        @Override
+        public void run() {
+            WebDriver driver = null;
+            try {
+                while (running) {
+                    if (driver == null) {
+                        driver = DriverFactory.newChromeDriver();
+                    }
+                    StageMetrics metrics = current;
+                    ShopperJourney journey =
+                            new ShopperJourney(driver, baseUrl, "shopper" + id + "@load.test", searchTerm);
+                    long start = System.nanoTime();
+                    try {
+                        journey.run(metrics);
+                        metrics.journeyCompleted(Duration.ofNanos(System.nanoTime() - start));
+                    } catch (RuntimeException e) {
+                        metrics.journeyFailed();
+                        if (!isAlive(driver)) {
+                            quitQuietly(driver);
+                            driver = null;
+                        }
+                    }
+                    if (!thinkTime.isZero()) {
+                        Thread.sleep(thinkTime.toMillis());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (WebDriverException e) {
+                out.println("load-user-" + id + " could not start a browser: " + e.getMessage());
+            } finally {
+                quitQuietly(driver);
+            }
+        }
+    }
+
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            driver.quit();
+        } catch (WebDriverException ignored) {
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.load;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.example.load.ShopperJourney.Step;
+import com.example.load.StageMetrics.StageResult;
+import com.example.load.StageMetrics.StepStats;
+
+/**
+ * Plain-text tables for stage results, one block per stage.
+ */
+public final class LoadReport {
+
+    private static final String ROW = "  %-12s %7s %6s %9s %9s %9s %9s%n";
+
+    private LoadReport() {
+    }
+
+    public static String format(StageResult result) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Stage %s: %d journeys in %.1fs (%.2f/s), %d failed%n",
+                result.stage(),
+                result.journeys().count(),
+                result.elapsed().toMillis() / 1000.0,
+                result.throughput(),
+                result.journeys().errors()));
+        out.append(String.format(ROW, "step", "count", "errors", "p50", "p95", "p99", "max"));
+        for (Step step : Step.values()) {
+            out.append(row(step.name().toLowerCase(), result.steps().get(step)));
+        }
+        out.append(row("journey", result.journeys()));
+        return out.toString();
+    }
+
+    public static String format(List<StageResult> results) {
+        StringBuilder out = new StringBuilder();
+        for (StageResult result : results) {
+            out.append(format(result)).append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+
+    private static String row(String name, StepStats s) {
+        return String.format(ROW, name, s.count(), s.errors(), ms(s.p50()), ms(s.p95()), ms(s.p99()), ms(s.max()));
+    }
+
+    private static String ms(Duration d) {
+        return d.toMillis() + "ms";
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@code users} concurrent shoppers held for {@code duration}. Written as {@code 4x60s};
+ * a ramp is a comma-separated list such as {@code 1x30s,4x60s,8x2m}.
+ */
+public record LoadStage(int users, Duration duration) {
+
+    public LoadStage {
+        if (users < 1) {
+            throw new IllegalArgumentException("A stage needs at least one user");
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("A stage needs a positive duration");
+        }
+    }
+
+    public static List<LoadStage> parseAll(String spec) {
+        List<LoadStage> stages = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            if (!part.isBlank()) {
+                stages.add(parse(part.trim()));
+            }
+        }
+        if (stages.isEmpty()) {
+            throw new IllegalArgumentException("No stages in \"" + spec + "\"");
+        }
+        return List.copyOf(stages);
+    }
+
+    public static LoadStage parse(String stage) {
+        int x = stage.toLowerCase(Locale.ROOT).indexOf('x');
+        if (x <= 0) {
+            throw new IllegalArgumentException("Expected <users>x<duration>, got \"" + stage + "\"");
+        }
+        return new LoadStage(Integer.parseInt(stage.substring(0, x).trim()), parseDuration(stage.substring(x + 1)));
+    }
+
+    /**
+     * Parses {@code 500ms}, {@code 30s}, {@code 2m} or {@code 1h}.
+     */
+    public static Duration parseDuration(String text) {
+        String t = text.trim().toLowerCase(Locale.ROOT);
+        if (t.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(t.substring(0, t.length() - 2)));
+        }
+        long value = Long.parseLong(t.substring(0, t.length() - 1));
+        switch (t.charAt(t.length() - 1)) {
+            case 's':
+                return Duration.ofSeconds(value);
+            case 'm':
+                return Duration.ofMinutes(value);
+            case 'h':
+                return Duration.ofHours(value);
+            default:
+                throw new IllegalArgumentException("Unknown duration unit in \"" + text + "\"");
+        }
+    }
+
+    @Override
+    public String toString() {
+        long ms = duration.toMillis();
+        return users + "x" + (ms % 1000 == 0 ? ms / 1000 + "s" : ms + "ms");
+    }
+}
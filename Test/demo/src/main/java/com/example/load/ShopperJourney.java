@@ -0,0 +1,101 @@
+package com.example.load;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import org.openqa.selenium.WebDriver;
+
+import com.example.base.StoreState;
+import com.example.page.CartPage;
+import com.example.page.HomePage;
+import com.example.page.LoginPage;
+import com.example.page.OrdersPage;
+import com.example.page.PaymentPage;
+import com.example.page.ProductPage;
+
+/**
+ * One shopper's visit, driven through the page objects:
+ * login → search → product → add to cart → checkout → orders.
+ * <p>
+ * Each run starts from fresh storage holding only the shopper's account, so the cart is empty
+ * and the orders page lists exactly the order just placed. That reset is not timed.
+ */
+public final class ShopperJourney {
+
+    public enum Step { LOGIN, SEARCH, PRODUCT, ADD_TO_CART, CHECKOUT, ORDERS }
+
+    private static final String PASSWORD = "load-test-pw";
+
+    private final WebDriver driver;
+    private final String baseUrl;
+    private final String email;
+    private final String searchTerm;
+
+    private final LoginPage login;
+    private final HomePage home;
+    private final ProductPage product;
+    private final CartPage cart;
+    private final PaymentPage payment;
+    private final OrdersPage orders;
+
+    public ShopperJourney(WebDriver driver, String baseUrl, String email, String searchTerm) {
+        this.driver = driver;
+        this.baseUrl = baseUrl;
+        this.email = email;
+        this.searchTerm = searchTerm;
+        this.login = new LoginPage(driver);
+        this.home = new HomePage(driver);
+        this.product = new ProductPage(driver);
+        this.cart = new CartPage(driver);
+        this.payment = new PaymentPage(driver);
+        this.orders = new OrdersPage(driver);
+    }
+
+    public void run(StepTimer timer) {
+        StoreState.forUser(email, PASSWORD).applyTo(driver, baseUrl);
+
+        timer.time(Step.LOGIN, () -> {
+            login.open();
+            login.waitForLoaded();
+            login.enterEmail(email);
+            login.enterPassword(PASSWORD);
+            login.clickLogin();
+            home.waitForLoaded();
+        });
+        timer.time(Step.SEARCH, () -> {
+            home.searchProduct(searchTerm);
+            home.waitForSearchResults(searchTerm);
+        });
+        timer.time(Step.PRODUCT, () -> {
+            home.openProduct(0);
+            product.waitForLoaded();
+        });
+        timer.time(Step.ADD_TO_CART, product::addToCart);
+        timer.time(Step.CHECKOUT, () -> {
+            cart.open();
+            cart.clickCheckout();
+            payment.waitForLoaded();
+            payment.enterCardName("Load Shopper");
+            payment.enterCardNumber("4242 4242 4242 4242");
+            payment.enterExpiry(YearMonth.now().plusYears(2).format(DateTimeFormatter.ofPattern("MM/yy")));
+            payment.enterCvv("123");
+            payment.enterZip("560001");
+            payment.submitPayment();
+            payment.waitForOrderConfirmation();
+        });
+        timer.time(Step.ORDERS, () -> {
+            orders.waitForLoaded();
+            if (orders.snapshot().orderCardCount() < 1) {
+                throw new IllegalStateException("The placed order is missing from the orders page");
+            }
+        });
+    }
+
+    /**
+     * Times one step; a failing step is counted as an error and ends the journey.
+     */
+    @FunctionalInterface
+    public interface StepTimer {
+        void time(Step step, Runnable action);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.load.ShopperJourney.Step;
+
+/**
+ * Latencies and errors recorded while one {@link LoadStage} is active. Shared by every
+ * virtual user; all counters are thread-safe.
+ */
+public final class StageMetrics implements ShopperJourney.StepTimer {
+
+    private final LoadStage stage;
+    private final Map<Step, LatencyHistogram> steps = new EnumMap<>(Step.class);
+    private final Map<Step, AtomicLong> errors = new EnumMap<>(Step.class);
+    private final LatencyHistogram journeys = new LatencyHistogram();
+    private final AtomicLong failedJourneys = new AtomicLong();
+
+    public StageMetrics(LoadStage stage) {
+        this.stage = stage;
+        for (Step step : Step.values()) {
+            steps.put(step, new LatencyHistogram());
+            errors.put(step, new AtomicLong());
+        }
+    }
+
+    @Override
+    public void time(Step step, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            errors.get(step).incrementAndGet();
+            throw e;
+        }
+        steps.get(step).record(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    void journeyCompleted(Duration elapsed) {
+        journeys.record(elapsed);
+    }
+
+    void journeyFailed() {
+        failedJourneys.incrementAndGet();
+    }
+
+    public StageResult result(Duration elapsed) {
+        Map<Step, StepStats> stats = new EnumMap<>(Step.class);
+        for (Step step : Step.values()) {
+            stats.put(step, StepStats.of(steps.get(step), errors.get(step).get()));
+        }
+        return new StageResult(stage, elapsed, StepStats.of(journeys, failedJourneys.get()), Map.copyOf(stats));
+    }
+
+    public record StepStats(long count, long errors, Duration p50, Duration p95, Duration p99, Duration max) {
+
+        static StepStats of(LatencyHistogram h, long errors) {
+            return new StepStats(h.count(), errors,
+                    h.percentile(50), h.percentile(95), h.percentile(99), h.max());
+        }
+    }
+
+    public record StageResult(LoadStage stage, Duration elapsed, StepStats journeys, Map<Step, StepStats> steps) {
+
+        /**
+         * Completed journeys per second.
+         */
+        public double throughput() {
+            double seconds = elapsed.toNanos() / 1e9;
+            return seconds <= 0 ? 0 : journeys.count() / seconds;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+public class CartPage {
+
+    WebDriver driver;
+    PageWait wait;
+
+    // ===== Locators from cart.html =====
+    private By cartTitle = By.tagName("h1");
+    private By cartTable = By.id("cartTable");
+    private By grandTotal = By.id("grandTotal");
+    private By checkoutBtn = By.id("checkoutBtn");
+    private By continueShoppingLink = By.linkText("Continue shopping");
+    private By cartCount = By.cssSelector("[data-cart-count]");
+    private By logoutBtn = By.id("logoutBtn");
+
+    public CartPage(WebDriver driver) {
+        this.driver = driver;
+        this.wait = Waits.forPage(driver);
+    }
+
+    // ===== Page actions / getters =====
+    public String getPageTitle() {
+        return driver.getTitle();
+    }
+
+    /**
+     * Navigates here, waits for the page and returns how it loaded.
+     */
+    public PagePerformance.Metrics open() {
+        PagePerformance.Metrics metrics = PagePerformance.load(driver, PageScripts.siteUrl("cart.html"));
+        waitForLoaded();
+        return metrics;
+    }
+
+    public void waitForLoaded() {
+        wait.urlContains("cart.html");
+        wait.visible(cartTitle);
+    }
+
+    public boolean isCartTitleVisible() {
+        return wait.visible(cartTitle).isDisplayed();
+    }
+
+    public boolean isCartTableVisible() {
+        return wait.visible(cartTable).isDisplayed();
+    }
+
+    public String getGrandTotal() {
+        return wait.visible(grandTotal).getText();
+    }
+
+    public boolean isCheckoutEnabled() {
+        return wait.visible(checkoutBtn).isEnabled();
+    }
+
+    public void clickCheckout() {
+        wait.clickable(checkoutBtn).click();
+    }
+
+    public void clickContinueShopping() {
+        wait.clickable(continueShoppingLink).click();
+    }
+
+    public String getCartCount() {
+        return wait.visible(cartCount).getText();
+    }
+
+    public int getCartCountAsInt() {
+        String digits = getCartCount().replaceAll("[^0-9]", "");
+        if (digits.isEmpty()) {
+            return 0;
+        }
+        return Integer.parseInt(digits);
+    }
+
+    /**
+     * Clicks "+" on the line of {@code productId} and waits for the re-rendered quantity.
+     */
+    public void increaseQuantity(String productId) {
+        int qty = getQuantity(productId);
+        clickLineButton(productId, "inc");
+        waitForQuantity(productId, Math.min(99, qty + 1));
+    }
+
+    /**
+     * Clicks "−" on the line of {@code productId} and waits for the re-rendered quantity; the
+     * cart never goes below 1.
+     */
+    public void decreaseQuantity(String productId) {
+        int qty = getQuantity(productId);
+        clickLineButton(productId, "dec");
+        waitForQuantity(productId, Math.max(1, qty - 1));
+    }
+
+    /**
+     * Clicks "Remove" on the line of {@code productId} and waits for the line to go.
+     */
+    public void removeLine(String productId) {
+        clickLineButton(productId, "rm");
+        wait.untilScript("cart line \"" + productId + "\" to be removed",
+                "![...document.querySelectorAll('#cartTable .line[data-id]')].some((r) => r.getAttribute('data-id') === args[0])",
+                productId);
+    }
+
+    public int getQuantity(String productId) {
+        return PageScripts.digits(wait.visible(lineElement(productId, " .qty .num")).getText());
+    }
+
+    private void clickLineButton(String productId, String action) {
+        wait.clickable(lineElement(productId, " button[data-act='" + action + "']")).click();
+    }
+
+    private void waitForQuantity(String productId, int qty) {
+        wait.untilScript("cart line \"" + productId + "\" quantity to be " + qty,
+                "(() => {"
+                        + "  const row = [...document.querySelectorAll('#cartTable .line[data-id]')]"
+                        + "      .find((r) => r.getAttribute('data-id') === args[0]);"
+                        + "  return !!row && txt(row.querySelector('.qty .num')) === String(args[1]);"
+                        + "})()",
+                productId, qty);
+    }
+
+    private static By lineElement(String productId, String descendant) {
+        return By.cssSelector("#cartTable .line[data-id='" + productId + "']" + descendant);
+    }
+
+    public void logout() {
+        wait.clickable(logoutBtn).click();
+    }
+
+    /**
+     * Reads everything this page object knows about, including the rendered cart lines,
+     * in a single script call.
+     */
+    @SuppressWarnings("unchecked")
+    public Snapshot snapshot() {
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                PageScripts.HELPERS
+                        + "const btn = $('#checkoutBtn');"
+                        + "return {"
+                        + "  title: document.title,"
+                        + "  url: location.href,"
+                        + "  cartTitleVisible: vis($('h1')),"
+                        + "  cartTableVisible: vis($('#cartTable')),"
+                        + "  grandTotal: txt($('#grandTotal')),"
+                        + "  checkoutVisible: vis(btn),"
+                        + "  checkoutEnabled: !!btn && !btn.disabled,"
+                        + "  cartCount: txt($('[data-cart-count]')),"
+                        + "  lines: [...document.querySelectorAll('#cartTable .line[data-id]')].map((row) => ({"
+                        + "    id: row.getAttribute('data-id'),"
+                        + "    title: txt(row.querySelector('.name')),"
+                        + "    qty: Number(txt(row.querySelector('.qty .num'))),"
+                        + "    total: txt(row.querySelectorAll('.name')[1])"
+                        + "  })),"
+                        + "  toastVisible: toastOn()"
+                        + "};");
+        List<Line> lines = new ArrayList<>();
+        for (Map<String, Object> line : PageScripts.list(raw, "lines")) {
+            lines.add(new Line(
+                    PageScripts.str(line, "id"),
+                    PageScripts.str(line, "title"),
+                    PageScripts.integer(line, "qty"),
+                    PageScripts.str(line, "total")));
+        }
+        return new Snapshot(
+                PageScripts.str(raw, "title"),
+                PageScripts.str(raw, "url"),
+                PageScripts.bool(raw, "cartTitleVisible"),
+                PageScripts.bool(raw, "cartTableVisible"),
+                PageScripts.str(raw, "grandTotal"),
+                PageScripts.bool(raw, "checkoutVisible"),
+                PageScripts.bool(raw, "checkoutEnabled"),
+                PageScripts.str(raw, "cartCount"),
+                List.copyOf(lines),
+                PageScripts.bool(raw, "toastVisible"));
+    }
+
+    public record Snapshot(
+            String title,
+            String url,
+            boolean cartTitleVisible,
+            boolean cartTableVisible,
+            String grandTotal,
+            boolean checkoutVisible,
+            boolean checkoutEnabled,
+            String cartCount,
+            List<Line> lines,
+            boolean toastVisible) {
+
+        public int grandTotalAsInt() {
+            return PageScripts.digits(grandTotal);
+        }
+
+        public int cartCountAsInt() {
+            return PageScripts.digits(cartCount);
+        }
+    }
+
+    public record Line(String id, String title, int qty, String total) {
+
+        public int totalAsInt() {
+            return PageScripts.digits(total);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.page;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+public class HomePage {
+
+    // Times the last input event to the first frame after the grid re-renders for it.
+    private static final String SEARCH_PROBE =
+            "(() => {"
+                    + "  if (window.__wsSearchProbe) window.__wsSearchProbe.stop();"
+                    + "  const input = document.querySelector('#searchInput');"
+                    + "  const grid = document.querySelector('#productsGrid');"
+                    + "  const probe = { lastInput: -1, measured: null, latency: null, pending: false };"
+                    + "  const onInput = (e) => { probe.lastInput = e.timeStamp; probe.pending = true; };"
+                    + "  input.addEventListener('input', onInput, true);"
+                    + "  const observer = new MutationObserver(() => {"
+                    + "    if (!probe.pending) return;"
+                    + "    probe.pending = false;"
+                    + "    const start = probe.lastInput;"
+                    + "    requestAnimationFrame(() => { probe.latency = performance.now() - start; probe.measured = start; });"
+                    + "  });"
+                    + "  observer.observe(grid, { childList: true });"
+                    + "  probe.stop = () => { input.removeEventListener('input', onInput, true); observer.disconnect(); };"
+                    + "  window.__wsSearchProbe = probe;"
+                    + "})();";
+
+    private static final String SEARCH_PROBE_RESULT =
+            "const done = arguments[arguments.length - 1];"
+                    + "const probe = window.__wsSearchProbe;"
+                    + "(function check() {"
+                    + "  if (!probe.pending && probe.measured === probe.lastInput) { probe.stop(); done(probe.latency); }"
+                    + "  else requestAnimationFrame(check);"
+                    + "})();";
+
+    WebDriver driver;
+    PageWait wait;
+
+    // ===== Locators (from your HTML) =====
+    private By homeTitle = By.tagName("h1");
+    private By searchInput = By.id("searchInput");
+    private By resultsCount = By.id("resultsCount");
+    private By productsGrid = By.id("productsGrid");
+    private By cartCount = By.cssSelector("[data-cart-count]");
+    private By logoutBtn = By.id("logoutBtn");
+    private By productCards = By.cssSelector("#productsGrid .product-card");
+    private By detailsLinks = By.cssSelector("#productsGrid .product-card a[href*='product.html']");
+    private By navHomePill = By.cssSelector("a.pill[href='./home.html']");
+    private By activeNavPill = By.cssSelector(".nav a.pill[aria-current='page']");
+    private By toast = By.id("toast");
+    private By addToCartButtons = By.xpath("//*[@id='productsGrid']//button[contains(translate(normalize-space(.),'ABCDEFGHIJKLMNOPQRSTUVWXYZ','abcdefghijklmnopqrstuvwxyz'),'add')]");
+
+    public HomePage(WebDriver driver) {
+        this.driver = driver;
+        this.wait = Waits.forPage(driver);
+    }
+
+    // ===== Page actions / getters =====
+    public String getPageTitle() {
+        return driver.getTitle();
+    }
+
+    /**
+     * Navigates here, waits for the page and returns how it loaded.
+     */
+    public PagePerformance.Metrics open() {
+        PagePerformance.Metrics metrics = PagePerformance.load(driver, PageScripts.siteUrl("home.html"));
+        waitForLoaded();
+        return metrics;
+    }
+
+    public void waitForLoaded() {
+        // One condition instead of five sequential waits; mirrors Snapshot.isLoaded().
+        wait.untilScript("home page to load",
+                "document.title === 'Watch Store — Home' && vis($('#searchInput')) && vis($('#productsGrid'))"
+                        + " && vis($('#resultsCount')) && vis($('[data-cart-count]'))");
+    }
+
+    /**
+     * Reads everything this page object knows about in a single script call.
+     */
+    @SuppressWarnings("unchecked")
+    public Snapshot snapshot() {
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                PageScripts.HELPERS
+                        + "const active = document.querySelector(\".nav a.pill[aria-current='page']\");"
+                        + "return {"
+                        + "  title: document.title,"
+                        + "  url: location.href,"
+                        + "  heroVisible: vis($('h1')),"
+                        + "  searchVisible: vis($('#searchInput')),"
+                        + "  searchValue: $('#searchInput') ? $('#searchInput').value : null,"
+                        + "  gridVisible: vis($('#productsGrid')),"
+                        + "  resultsCountVisible: vis($('#resultsCount')),"
+                        + "  resultsCount: txt($('#resultsCount')),"
+                        + "  productCount: document.querySelectorAll('#productsGrid .product-card').length,"
+                        + "  cartCountVisible: vis($('[data-cart-count]')),"
+                        + "  cartCount: txt($('[data-cart-count]')),"
+                        + "  activeNav: active ? active.getAttribute('href') : null,"
+                        + "  toastVisible: toastOn()"
+                        + "};");
+        return new Snapshot(
+                PageScripts.str(raw, "title"),
+                PageScripts.str(raw, "url"),
+                PageScripts.bool(raw, "heroVisible"),
+                PageScripts.bool(raw, "searchVisible"),
+                PageScripts.str(raw, "searchValue"),
+                PageScripts.bool(raw, "gridVisible"),
+                PageScripts.bool(raw, "resultsCountVisible"),
+                PageScripts.str(raw, "resultsCount"),
+                PageScripts.integer(raw, "productCount"),
+                PageScripts.bool(raw, "cartCountVisible"),
+                PageScripts.str(raw, "cartCount"),
+                PageScripts.str(raw, "activeNav"),
+                PageScripts.bool(raw, "toastVisible"));
+    }
+
+    public boolean isHeroTitleDisplayed() {
+        return wait.visible(homeTitle).isDisplayed();
+    }
+
+    public boolean isSearchBoxVisible() {
+        return wait.visible(searchInput).isDisplayed();
+    }
+
+    public void searchProduct(String text) {
+        wait.visible(searchInput).clear();
+        driver.findElement(searchInput).sendKeys(text);
+    }
+
+    /**
+     * Searches like {@link #searchProduct} and returns the keystroke-to-render latency: from the
+     * last keystroke's input event to the first frame after the grid showed its results.
+     */
+    public Duration timeSearch(String term) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        js.executeScript(SEARCH_PROBE);
+        searchProduct(term);
+        waitForSearchResults(term);
+        Number millis = (Number) js.executeAsyncScript(SEARCH_PROBE_RESULT);
+        return Duration.ofNanos(Math.round(millis.doubleValue() * 1_000_000));
+    }
+
+    public String getResultsCount() {
+        return wait.visible(resultsCount).getText();
+    }
+
+    public boolean isProductsGridVisible() {
+        return wait.present(productsGrid).isDisplayed();
+    }
+
+    public String getCartItemCount() {
+        return wait.visible(cartCount).getText();
+    }
+
+    public void logout() {
+        wait.clickable(logoutBtn).click();
+    }
+    public int getProductsCount() {
+        return driver.findElements(productCards).size();
+    }
+
+    /**
+     * Clicks "View Details" on the {@code index}-th card in the grid and returns the product id
+     * from its link.
+     */
+    public String openProduct(int index) {
+        wait.present(detailsLinks);
+        WebElement link = driver.findElements(detailsLinks).get(index);
+        String href = link.getDomAttribute("href");
+        link.click();
+        return href.substring(href.indexOf("id=") + 3);
+    }
+
+    /**
+     * Waits until the grid shows only titles containing {@code term} and the results count
+     * agrees with it; the search input is debounced to the next animation frame.
+     */
+    public void waitForSearchResults(String term) {
+        wait.untilScript("search results for \"" + term + "\"",
+                "(() => {"
+                        + "  const titles = [...document.querySelectorAll('#productsGrid .product-card .title')];"
+                        + "  const count = Number((txt($('#resultsCount')) || '').replace(/[^0-9]/g, ''));"
+                        + "  return titles.length === count"
+                        + "      && titles.every((t) => t.textContent.toLowerCase().includes(args[0]));"
+                        + "})()",
+                term.trim().toLowerCase());
+    }
+
+    public void waitForResultsCountToChange(String previous) {
+        wait.untilScript("results count to change from \"" + previous + "\"",
+                "txt($('#resultsCount')) !== null && txt($('#resultsCount')) !== args[0]", previous);
+    }
+
+    public boolean isHomeNavActive() {
+        wait.visible(navHomePill);
+        boolean hasHomeLink = !driver.findElements(navHomePill).isEmpty();
+        return hasHomeLink && "Watch Store — Home".equals(driver.getTitle());
+    }
+
+    public boolean isToastVisible() {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        Object visible = js.executeScript(
+                "var t=document.getElementById('toast');" +
+                        "return !!(t && t.classList.contains('show'));");
+        return Boolean.TRUE.equals(visible);
+    }
+
+    public int getCartItemCountAsInt() {
+        return parseInteger(getCartItemCount());
+    }
+
+    public boolean ensureAtLeastOneItemInCart() {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            int before = getCartItemCountAsInt();
+            if (before > 0 || hasCartDataInStorage()) {
+                return true;
+            }
+
+            wait.visible(productsGrid);
+            wait.present(productCards);
+
+            if (clickAddLikeControlAndWaitForCartSignal(before)) {
+                return true;
+            }
+
+            driver.navigate().refresh();
+            waitForLoaded();
+        }
+        return getCartItemCountAsInt() > 0 || hasCartDataInStorage();
+    }
+
+    private boolean clickAddLikeControlAndWaitForCartSignal(int before) {
+        List<WebElement> buttons = driver.findElements(addToCartButtons);
+        for (WebElement button : buttons) {
+            if (!button.isDisplayed() || !button.isEnabled()) {
+                continue;
+            }
+            button.click();
+            try {
+                wait.until(d -> parseInteger(d.findElement(cartCount).getText()) > before || hasCartDataInStorage());
+                return true;
+            } catch (TimeoutException ignored) {
+                // Try next match.
+            }
+        }
+
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        Object clicked = js.executeScript(
+                "const root = document.getElementById('productsGrid') || document;" +
+                        "const nodes = root.querySelectorAll('button,a,[role=\"button\"],[onclick]');" +
+                        "for (const n of nodes) {" +
+                        "  const t = (n.textContent || '').trim().toLowerCase();" +
+                        "  if (t.includes('add') || t.includes('cart') || t.includes('buy')) { n.click(); return true; }" +
+                        "}" +
+                        "return false;");
+        if (Boolean.TRUE.equals(clicked)) {
+            try {
+                wait.until(d -> parseInteger(d.findElement(cartCount).getText()) > before || hasCartDataInStorage());
+                return true;
+            } catch (TimeoutException ignored) {
+                return hasCartDataInStorage();
+            }
+        }
+        return false;
+    }
+
+    private boolean hasCartDataInStorage() {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        Object hasData = js.executeScript(
+                "try {" +
+                        "  for (let i = 0; i < localStorage.length; i++) {" +
+                        "    const key = localStorage.key(i) || '';" +
+                        "    if (!/cart/i.test(key)) continue;" +
+                        "    const raw = localStorage.getItem(key);" +
+                        "    if (!raw) continue;" +
+                        "    let v = null;" +
+                        "    try { v = JSON.parse(raw); } catch (e) { continue; }" +
+                        "    if (Array.isArray(v) && v.length > 0) return true;" +
+                        "    if (v && typeof v === 'object') {" +
+                        "      if (Array.isArray(v.items) && v.items.length > 0) return true;" +
+                        "      if (Object.keys(v).length > 0) return true;" +
+                        "    }" +
+                        "  }" +
+                        "  return false;" +
+                        "} catch (e) { return false; }");
+        return Boolean.TRUE.equals(hasData);
+    }
+
+    public record Snapshot(
+            String title,
+            String url,
+            boolean heroVisible,
+            boolean searchVisible,
+            String searchValue,
+            boolean gridVisible,
+            boolean resultsCountVisible,
+            String resultsCount,
+            int productCount,
+            boolean cartCountVisible,
+            String cartCount,
+            String activeNav,
+            boolean toastVisible) {
+
+        public boolean isLoaded() {
+            return "Watch Store — Home".equals(title) && searchVisible && gridVisible
+                    && resultsCountVisible && cartCountVisible;
+        }
+
+        public int resultsCountAsInt() {
+            return PageScripts.digits(resultsCount);
+        }
+
+        public int cartCountAsInt() {
+            return PageScripts.digits(cartCount);
+        }
+    }
+
+    private int parseInteger(String text) {
+        String digits = String.valueOf(text).replaceAll("[^0-9]", "");
+        if (digits.isEmpty()) {
+            return 0;
+        }
+        return Integer.parseInt(digits);
+    }
+}
+
@@ -0,0 +1,139 @@
+package com.example.page;
+
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+public class LoginPage {
+
+    WebDriver driver;
+    PageWait wait;
+
+    // ✅ CORRECT locators (matching your HTML)
+    private By loginEmail = By.id("loginEmail");
+    private By loginPassword = By.id("loginPassword");
+    private By loginBtn = By.id("loginBtn");
+    private By errorMsg = By.id("loginErr");
+    private By loginForm = By.id("loginForm");
+
+    public LoginPage(WebDriver driver) {
+        this.driver = driver;
+        this.wait = Waits.forPage(driver);
+    }
+
+    // Actions
+    public PagePerformance.Metrics open() {
+        return PagePerformance.load(driver, PageScripts.siteUrl("index.html"));
+    }
+
+    public void enterEmail(String value) {
+        wait.visible(loginEmail).clear();
+        driver.findElement(loginEmail).sendKeys(value);
+    }
+
+    public void enterPassword(String value) {
+        wait.visible(loginPassword).clear();
+        driver.findElement(loginPassword).sendKeys(value);
+    }
+
+    public void clickLogin() {
+        wait.clickable(loginBtn).click();
+    }
+
+    public String getErrorMessage() {
+        wait.untilScript("login error text", "txt($('#loginErr'))");
+        return driver.findElement(errorMsg).getText();
+    }
+
+    public boolean isLoginButtonEnabled() {
+        return driver.findElement(loginBtn).isEnabled();
+    }
+
+    public String getPageTitle() {
+        return driver.getTitle();
+    }
+
+    public boolean isLoginFormValid() {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        Object ok = js.executeScript("return document.querySelector('#loginForm')?.checkValidity() ?? false;");
+        return Boolean.TRUE.equals(ok);
+    }
+
+    public String getLocalStorageUser() {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        return (String) js.executeScript(
+                "try {"
+                        + "  const s = JSON.parse(localStorage.getItem('ws_session') || 'null');"
+                        + "  return (s && s.email) ? s.email : null;"
+                        + "} catch (e) { return null; }"
+        );
+    }
+
+    public String waitForSessionEmail() {
+        wait.untilScript("session email",
+                "(JSON.parse(localStorage.getItem('ws_session') || 'null') || {}).email");
+        return getLocalStorageUser();
+    }
+
+    public void waitForLoaded() {
+        // Mirrors Snapshot.isLoaded().
+        wait.untilScript("login page to load",
+                "vis($('#loginForm')) && vis($('#loginEmail')) && vis($('#loginPassword'))");
+    }
+
+    /**
+     * Reads everything this page object knows about in a single script call.
+     */
+    @SuppressWarnings("unchecked")
+    public Snapshot snapshot() {
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                PageScripts.HELPERS
+                        + "const form = $('#loginForm');"
+                        + "const btn = $('#loginBtn');"
+                        + "let session = null;"
+                        + "try { const s = JSON.parse(localStorage.getItem('ws_session') || 'null');"
+                        + "  session = (s && s.email) ? s.email : null; } catch (e) { session = null; }"
+                        + "return {"
+                        + "  title: document.title,"
+                        + "  url: location.href,"
+                        + "  formVisible: vis(form),"
+                        + "  formValid: !!form && form.checkValidity(),"
+                        + "  emailVisible: vis($('#loginEmail')),"
+                        + "  passwordVisible: vis($('#loginPassword')),"
+                        + "  loginEnabled: !!btn && !btn.disabled,"
+                        + "  errorText: txt($('#loginErr')) || '',"
+                        + "  sessionEmail: session,"
+                        + "  toastVisible: toastOn()"
+                        + "};");
+        return new Snapshot(
+                PageScripts.str(raw, "title"),
+                PageScripts.str(raw, "url"),
+                PageScripts.bool(raw, "formVisible"),
+                PageScripts.bool(raw, "formValid"),
+                PageScripts.bool(raw, "emailVisible"),
+                PageScripts.bool(raw, "passwordVisible"),
+                PageScripts.bool(raw, "loginEnabled"),
+                PageScripts.str(raw, "errorText"),
+                PageScripts.str(raw, "sessionEmail"),
+                PageScripts.bool(raw, "toastVisible"));
+    }
+
+    public record Snapshot(
+            String title,
+            String url,
+            boolean formVisible,
+            boolean formValid,
+            boolean emailVisible,
+            boolean passwordVisible,
+            boolean loginEnabled,
+            String errorText,
+            String sessionEmail,
+            boolean toastVisible) {
+
+        public boolean isLoaded() {
+            return formVisible && emailVisible && passwordVisible;
+        }
+    }
+}
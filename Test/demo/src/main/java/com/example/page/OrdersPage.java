@@ -0,0 +1,198 @@
+package com.example.page;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+public class OrdersPage {
+
+    private final WebDriver driver;
+    private final PageWait wait;
+
+    private final By heroTitle = By.tagName("h1");
+    private final By ordersWrap = By.id("ordersWrap");
+    private final By cartCount = By.cssSelector("[data-cart-count]");
+    private final By logoutBtn = By.id("logoutBtn");
+    private final By orderCards = By.cssSelector("#ordersWrap .card");
+
+    public OrdersPage(WebDriver driver) {
+        this.driver = driver;
+        this.wait = Waits.forPage(driver);
+    }
+
+    /**
+     * Navigates here, waits for the page and returns how it loaded.
+     */
+    public PagePerformance.Metrics open() {
+        PagePerformance.Metrics metrics = PagePerformance.load(driver, PageScripts.siteUrl("orders.html"));
+        waitForLoaded();
+        return metrics;
+    }
+
+    public void waitForLoaded() {
+        wait.present(By.tagName("body"));
+        wait.visible(ordersWrap);
+    }
+
+    public String getPageTitle() {
+        return driver.getTitle();
+    }
+
+    public boolean isHeroVisible() {
+        return wait.visible(heroTitle).isDisplayed();
+    }
+
+    public boolean isOrdersWrapVisible() {
+        return wait.visible(ordersWrap).isDisplayed();
+    }
+
+    public String getOrdersText() {
+        return wait.visible(ordersWrap).getText();
+    }
+
+    /**
+     * Number of orders in the history, including cards not rendered yet.
+     */
+    public int getTotalOrderCount() {
+        return PageScripts.digits(wait.present(ordersWrap).getDomAttribute("data-total"));
+    }
+
+    /**
+     * Reads up to {@code count} order cards starting at {@code from} (newest first), in one
+     * script call. Cards the page has not rendered yet are shown first with "Show more orders".
+     */
+    @SuppressWarnings("unchecked")
+    public List<OrderCard> readCards(int from, int count) {
+        List<Object> raw = (List<Object>) ((JavascriptExecutor) driver).executeScript(
+                PageScripts.HELPERS
+                        + "const wrap = $('#ordersWrap');"
+                        + "const want = Math.min(Number(wrap.dataset.total || 0), arguments[0] + arguments[1]);"
+                        + "const cards = () => wrap.querySelectorAll(':scope > .card');"
+                        + "while (cards().length < want && $('#ordersMore button')) $('#ordersMore button').click();"
+                        + "return [...cards()].slice(arguments[0], want).map((c) => ({"
+                        + "  id: txt(c.querySelector('.h1 span')),"
+                        + "  placedAt: txt(c.querySelector('.sub')),"
+                        + "  total: txt(c.querySelector('.big')),"
+                        + "  lines: [...c.querySelectorAll(':scope > .stack > .row')].map((r) => txt(r.querySelector('.chip')))"
+                        + "}));",
+                from, count);
+        List<OrderCard> cards = new ArrayList<>();
+        for (Object item : raw) {
+            Map<String, Object> card = (Map<String, Object>) item;
+            cards.add(new OrderCard(
+                    PageScripts.str(card, "id"),
+                    PageScripts.str(card, "placedAt"),
+                    PageScripts.str(card, "total"),
+                    PageScripts.strings(card, "lines")));
+        }
+        return cards;
+    }
+
+    /**
+     * Every order card, newest first, fetched {@code pageSize} at a time as the iteration
+     * reaches them; stopping early never reads (or renders) the rest of the history.
+     */
+    public Iterable<OrderCard> cards(int pageSize) {
+        return () -> new Iterator<>() {
+            private int next;
+            private List<OrderCard> page = List.of();
+            private int index;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (index < page.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                page = readCards(next, pageSize);
+                next += page.size();
+                index = 0;
+                exhausted = page.size() < pageSize;
+                return !page.isEmpty();
+            }
+
+            @Override
+            public OrderCard next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(index++);
+            }
+        };
+    }
+
+    public boolean hasOrderCards() {
+        return !driver.findElements(orderCards).isEmpty();
+    }
+
+    public String getCartCount() {
+        return wait.visible(cartCount).getText();
+    }
+
+    public void logout() {
+        wait.clickable(logoutBtn).click();
+    }
+
+    /**
+     * Reads everything this page object knows about in a single script call.
+     */
+    @SuppressWarnings("unchecked")
+    public Snapshot snapshot() {
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                PageScripts.HELPERS
+                        + "const wrap = $('#ordersWrap');"
+                        + "const cards = wrap ? [...wrap.querySelectorAll('.card')] : [];"
+                        + "return {"
+                        + "  title: document.title,"
+                        + "  url: location.href,"
+                        + "  heroVisible: vis($('h1')),"
+                        + "  ordersWrapVisible: vis(wrap),"
+                        + "  ordersText: txt(wrap),"
+                        + "  orderCardCount: cards.length,"
+                        + "  orderIds: cards.map((c) => txt(c.querySelector('.h1 span'))).filter(Boolean),"
+                        + "  cartCount: txt($('[data-cart-count]')),"
+                        + "  toastVisible: toastOn()"
+                        + "};");
+        return new Snapshot(
+                PageScripts.str(raw, "title"),
+                PageScripts.str(raw, "url"),
+                PageScripts.bool(raw, "heroVisible"),
+                PageScripts.bool(raw, "ordersWrapVisible"),
+                PageScripts.str(raw, "ordersText"),
+                PageScripts.integer(raw, "orderCardCount"),
+                PageScripts.strings(raw, "orderIds"),
+                PageScripts.str(raw, "cartCount"),
+                PageScripts.bool(raw, "toastVisible"));
+    }
+
+    /**
+     * One rendered order: its id, date and total as displayed, and one "qty× title" per item.
+     */
+    public record OrderCard(String id, String placedAt, String total, List<String> lines) {
+
+        public int totalAsInt() {
+            return PageScripts.digits(total);
+        }
+    }
+
+    public record Snapshot(
+            String title,
+            String url,
+            boolean heroVisible,
+            boolean ordersWrapVisible,
+            String ordersText,
+            int orderCardCount,
+            List<String> orderIds,
+            String cartCount,
+            boolean toastVisible) {
+    }
+}
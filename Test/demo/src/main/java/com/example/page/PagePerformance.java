@@ -0,0 +1,312 @@
+package com.example.page;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+/**
+ * Page-load metrics read from the browser's own performance timeline.
+ * <p>
+ * {@link #install(WebDriver)} registers PerformanceObservers for LCP, layout shifts and long
+ * tasks on every new document (CDP {@code Page.addScriptToEvaluateOnNewDocument}), so nothing
+ * that happens before the test gets control is missed. {@link #capture(WebDriver)} waits for
+ * the load event to settle and reads navigation timing, resource timings and the observed
+ * values in one script call. Without CDP the observers are attached at capture time with
+ * {@code buffered: true}, which still sees LCP and layout shifts but may miss early long tasks.
+ */
+public final class PagePerformance {
+
+    // Runs at document start; keeps the largest LCP candidate, the largest CLS session window
+    // (shifts < 1 s apart, window < 5 s) and every long task.
+    static final String OBSERVER =
+            "(() => {"
+                    + "  if (window.__wsPerf) return;"
+                    + "  const perf = window.__wsPerf = { lcp: null, lcpElement: null, cls: 0, longTasks: [] };"
+                    + "  const observe = (type, onEntry) => {"
+                    + "    try {"
+                    + "      new PerformanceObserver((list) => list.getEntries().forEach(onEntry))"
+                    + "          .observe({ type, buffered: true });"
+                    + "    } catch (e) { /* entry type not supported */ }"
+                    + "  };"
+                    + "  observe('largest-contentful-paint', (e) => {"
+                    + "    perf.lcp = e.renderTime || e.startTime;"
+                    + "    const el = e.element;"
+                    + "    perf.lcpElement = el ? el.tagName.toLowerCase() + (el.id ? '#' + el.id : '') : null;"
+                    + "  });"
+                    + "  let win = 0, winStart = 0, last = 0;"
+                    + "  observe('layout-shift', (e) => {"
+                    + "    if (e.hadRecentInput) return;"
+                    + "    if (win > 0 && e.startTime - last < 1000 && e.startTime - winStart < 5000) {"
+                    + "      win += e.value;"
+                    + "    } else {"
+                    + "      win = e.value;"
+                    + "      winStart = e.startTime;"
+                    + "    }"
+                    + "    last = e.startTime;"
+                    + "    perf.cls = Math.max(perf.cls, win);"
+                    + "  });"
+                    + "  observe('longtask', (e) => perf.longTasks.push({ start: e.startTime, duration: e.duration }));"
+                    + "})();";
+
+    private static final String CAPTURE =
+            "const done = arguments[arguments.length - 1];"
+                    + OBSERVER
+                    + "const collect = () => {"
+                    + "  const nav = performance.getEntriesByType('navigation')[0] || {};"
+                    + "  const fcp = performance.getEntriesByName('first-contentful-paint')[0];"
+                    + "  const perf = window.__wsPerf;"
+                    + "  done({"
+                    + "    url: location.href,"
+                    + "    type: nav.type || null,"
+                    + "    ttfb: nav.responseStart || 0,"
+                    + "    domContentLoaded: nav.domContentLoadedEventEnd || 0,"
+                    + "    load: nav.loadEventEnd || 0,"
+                    + "    transferSize: nav.transferSize || 0,"
+                    + "    fcp: fcp ? fcp.startTime : null,"
+                    + "    lcp: perf.lcp,"
+                    + "    lcpElement: perf.lcpElement,"
+                    + "    cls: perf.cls,"
+                    + "    longTasks: perf.longTasks.slice(),"
+                    + "    resources: performance.getEntriesByType('resource').map((r) => ({"
+                    + "      name: r.name, initiatorType: r.initiatorType, start: r.startTime,"
+                    + "      duration: r.duration, transferSize: r.transferSize || 0"
+                    + "    }))"
+                    + "  });"
+                    + "};"
+                    // Two frames after load so the LCP candidate for the final render is reported.
+                    + "const settle = () => requestAnimationFrame(() => requestAnimationFrame(() => setTimeout(collect, 0)));"
+                    + "if (document.readyState === 'complete') settle();"
+                    + "else window.addEventListener('load', settle, { once: true });";
+
+    private static final Map<WebDriver, Boolean> INSTALLED = Collections.synchronizedMap(new WeakHashMap<>());
+    private static volatile Consumer<Metrics> observer = metrics -> { };
+
+    private PagePerformance() {
+    }
+
+    /**
+     * Registers the observers on every document the browser loads from now on. Safe to call
+     * repeatedly; returns false when the driver has no CDP access.
+     */
+    public static boolean install(WebDriver driver) {
+        WebDriver raw = unwrap(driver);
+        if (!(raw instanceof HasCdp)) {
+            return false;
+        }
+        if (INSTALLED.containsKey(raw)) {
+            return true;
+        }
+        try {
+            ((HasCdp) raw).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", OBSERVER));
+            INSTALLED.put(raw, Boolean.TRUE);
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Hands every {@link Metrics} captured from now on, on any thread, to {@code listener}
+     * as well, e.g. to keep a history of page loads.
+     */
+    public static void observe(Consumer<Metrics> listener) {
+        observer = listener;
+    }
+
+    /**
+     * Loads {@code url} with the observers installed and returns its metrics.
+     */
+    public static Metrics load(WebDriver driver, String url) {
+        install(driver);
+        driver.get(url);
+        return capture(driver);
+    }
+
+    /**
+     * Metrics of the document currently loaded, once its load event has settled.
+     */
+    @SuppressWarnings("unchecked")
+    public static Metrics capture(WebDriver driver) {
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(CAPTURE);
+
+        List<LongTask> longTasks = new ArrayList<>();
+        for (Map<String, Object> t : PageScripts.list(raw, "longTasks")) {
+            longTasks.add(new LongTask(millis(t, "start"), millis(t, "duration")));
+        }
+        List<ResourceTiming> resources = new ArrayList<>();
+        for (Map<String, Object> r : PageScripts.list(raw, "resources")) {
+            resources.add(new ResourceTiming(
+                    PageScripts.str(r, "name"),
+                    PageScripts.str(r, "initiatorType"),
+                    millis(r, "start"),
+                    millis(r, "duration"),
+                    number(r, "transferSize").longValue()));
+        }
+        NavigationTiming navigation = new NavigationTiming(
+                PageScripts.str(raw, "type"),
+                millis(raw, "ttfb"),
+                millis(raw, "domContentLoaded"),
+                millis(raw, "load"),
+                number(raw, "transferSize").longValue());
+        Metrics metrics = new Metrics(
+                PageScripts.str(raw, "url"),
+                navigation,
+                raw.get("fcp") == null ? null : millis(raw, "fcp"),
+                raw.get("lcp") == null ? null : millis(raw, "lcp"),
+                PageScripts.str(raw, "lcpElement"),
+                number(raw, "cls").doubleValue(),
+                List.copyOf(longTasks),
+                List.copyOf(resources));
+        observer.accept(metrics);
+        return metrics;
+    }
+
+    private static WebDriver unwrap(WebDriver driver) {
+        WebDriver d = driver;
+        while (d instanceof WrapsDriver) {
+            WebDriver inner = ((WrapsDriver) d).getWrappedDriver();
+            if (inner == null || inner == d) {
+                break;
+            }
+            d = inner;
+        }
+        return d;
+    }
+
+    private static Number number(Map<String, Object> raw, String key) {
+        Object value = raw.get(key);
+        return value instanceof Number ? (Number) value : 0;
+    }
+
+    private static Duration millis(Map<String, Object> raw, String key) {
+        return Duration.ofNanos(Math.round(number(raw, key).doubleValue() * 1_000_000));
+    }
+
+    /**
+     * Times from {@code PerformanceNavigationTiming}, relative to the start of navigation.
+     */
+    public record NavigationTiming(
+            String type,
+            Duration timeToFirstByte,
+            Duration domContentLoaded,
+            Duration loadEventEnd,
+            long transferSize) {
+    }
+
+    public record ResourceTiming(String name, String initiatorType, Duration start, Duration duration, long transferSize) {
+    }
+
+    public record LongTask(Duration start, Duration duration) {
+
+        /**
+         * The part of the task beyond 50 ms, as counted by Total Blocking Time.
+         */
+        public Duration blocking() {
+            Duration over = duration.minusMillis(50);
+            return over.isNegative() ? Duration.ZERO : over;
+        }
+    }
+
+    /**
+     * Release budget for a page load. {@link #DEFAULT} uses the Web Vitals "good" thresholds.
+     */
+    public record Budget(Duration timeToFirstByte, Duration lcp, double cls, Duration totalBlockingTime) {
+
+        public static final Budget DEFAULT =
+                new Budget(Duration.ofMillis(800), Duration.ofMillis(2500), 0.1, Duration.ofMillis(200));
+    }
+
+    /**
+     * Everything measured for one page load. The {@code assert*} methods throw
+     * {@link AssertionError} naming the page and the measured value, and return {@code this}
+     * so budgets can be chained.
+     */
+    public record Metrics(
+            String url,
+            NavigationTiming navigation,
+            Duration firstContentfulPaint,
+            Duration largestContentfulPaint,
+            String lcpElement,
+            double cumulativeLayoutShift,
+            List<LongTask> longTasks,
+            List<ResourceTiming> resources) {
+
+        public Duration totalBlockingTime() {
+            return longTasks.stream().map(LongTask::blocking).reduce(Duration.ZERO, Duration::plus);
+        }
+
+        public long totalTransferSize() {
+            return navigation.transferSize() + resources.stream().mapToLong(ResourceTiming::transferSize).sum();
+        }
+
+        public Metrics assertTtfbBelow(Duration limit) {
+            return check("TTFB", navigation.timeToFirstByte(), limit);
+        }
+
+        public Metrics assertLoadBelow(Duration limit) {
+            return check("load event", navigation.loadEventEnd(), limit);
+        }
+
+        public Metrics assertLcpBelow(Duration limit) {
+            if (largestContentfulPaint == null) {
+                throw new AssertionError("No LCP entry was reported for " + url);
+            }
+            return check("LCP", largestContentfulPaint, limit);
+        }
+
+        public Metrics assertClsBelow(double limit) {
+            if (cumulativeLayoutShift >= limit) {
+                throw new AssertionError(String.format(
+                        "CLS %.3f on %s is not below %.3f", cumulativeLayoutShift, url, limit));
+            }
+            return this;
+        }
+
+        public Metrics assertTotalBlockingTimeBelow(Duration limit) {
+            return check("total blocking time", totalBlockingTime(), limit);
+        }
+
+        public Metrics assertWithin(Budget budget) {
+            return assertTtfbBelow(budget.timeToFirstByte())
+                    .assertLcpBelow(budget.lcp())
+                    .assertClsBelow(budget.cls())
+                    .assertTotalBlockingTimeBelow(budget.totalBlockingTime());
+        }
+
+        private Metrics check(String metric, Duration value, Duration limit) {
+            if (value.compareTo(limit) >= 0) {
+                throw new AssertionError(metric + " " + value.toMillis() + " ms on " + url
+                        + " is not below " + limit.toMillis() + " ms");
+            }
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%s ttfb=%dms dcl=%dms load=%dms fcp=%s lcp=%s (%s) cls=%.3f tbt=%dms longTasks=%d resources=%d bytes=%d",
+                    url,
+                    navigation.timeToFirstByte().toMillis(),
+                    navigation.domContentLoaded().toMillis(),
+                    navigation.loadEventEnd().toMillis(),
+                    firstContentfulPaint == null ? "-" : firstContentfulPaint.toMillis() + "ms",
+                    largestContentfulPaint == null ? "-" : largestContentfulPaint.toMillis() + "ms",
+                    lcpElement,
+                    cumulativeLayoutShift,
+                    totalBlockingTime().toMillis(),
+                    longTasks.size(),
+                    resources.size(),
+                    totalTransferSize());
+        }
+    }
+}
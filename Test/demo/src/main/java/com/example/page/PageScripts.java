@@ -0,0 +1,73 @@
+package com.example.page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared pieces for the page objects' single-round-trip {@code snapshot()} scripts.
+ */
+final class PageScripts {
+
+    /**
+     * Helpers prepended to every snapshot script:
+     * {@code $(sel)} finds an element, {@code vis(el)} approximates WebElement.isDisplayed()
+     * and {@code txt(el)} approximates WebElement.getText().
+     */
+    static final String HELPERS =
+            "const $ = (sel) => document.querySelector(sel);"
+                    + "const vis = (el) => {"
+                    + "  if (!el || !el.isConnected || el.getClientRects().length === 0) return false;"
+                    + "  const cs = getComputedStyle(el);"
+                    + "  return cs.visibility !== 'hidden' && cs.display !== 'none' && Number(cs.opacity) !== 0;"
+                    + "};"
+                    + "const txt = (el) => el ? (el.innerText || el.textContent || '').trim() : null;"
+                    + "const toastOn = () => !!($('#toast') && $('#toast').classList.contains('show'));";
+
+    private PageScripts() {
+    }
+
+    /**
+     * Absolute URL of a site page; {@code ws.baseUrl} is set by the embedded server.
+     */
+    static String siteUrl(String page) {
+        return System.getProperty("ws.baseUrl", "http://127.0.0.1:5500/") + page;
+    }
+
+    static boolean bool(Map<String, Object> raw, String key) {
+        return Boolean.TRUE.equals(raw.get(key));
+    }
+
+    static String str(Map<String, Object> raw, String key) {
+        Object value = raw.get(key);
+        return value == null ? null : String.valueOf(value);
+    }
+
+    static int integer(Map<String, Object> raw, String key) {
+        Object value = raw.get(key);
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> list(Map<String, Object> raw, String key) {
+        Object value = raw.get(key);
+        return value instanceof List ? (List<Map<String, Object>>) value : List.of();
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<String> strings(Map<String, Object> raw, String key) {
+        List<String> out = new ArrayList<>();
+        Object value = raw.get(key);
+        if (value instanceof List) {
+            for (Object o : (List<Object>) value) {
+                out.add(String.valueOf(o));
+            }
+        }
+        return List.copyOf(out);
+    }
+
+    static int digits(String text) {
+        String digits = String.valueOf(text).replaceAll("[^0-9]", "");
+        return digits.isEmpty() ? 0 : Integer.parseInt(digits);
+    }
+}
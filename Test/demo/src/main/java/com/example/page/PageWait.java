@@ -0,0 +1,319 @@
+package com.example.page;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+/**
+ * The waits used by the page objects, backed by one of two engines:
+ * <ul>
+ *   <li>{@code poll} (default): {@link WebDriverWait} polling every 500 ms.</li>
+ *   <li>{@code event}: one {@code executeAsyncScript} per wait that re-checks the condition
+ *   inside the page on every DOM mutation, {@code storage}/{@code load}/{@code input} event
+ *   and a 50 ms in-page tick, and returns as soon as it holds.</li>
+ * </ul>
+ * Select the engine with {@code -Dws.waits=event}. Waits on arbitrary Java conditions
+ * ({@link #until(Function)}) always poll.
+ * <p>
+ * Every wait is recorded in {@link WaitStats} under a key naming its condition, and takes its
+ * timeout and poll interval from there (the ceiling given here and 500 ms unless tuning is
+ * on). Create instances through {@link Waits}.
+ */
+public class PageWait {
+
+    public enum Engine { POLL, EVENT }
+
+    // Finds the first element for a By's remote (using, value) pair, like findElement would.
+    static final String FIND =
+            "const find = (using, value) => {"
+                    + "  switch (using) {"
+                    + "    case 'id': return document.getElementById(value);"
+                    + "    case 'css selector': return document.querySelector(value);"
+                    + "    case 'tag name': return document.getElementsByTagName(value)[0] || null;"
+                    + "    case 'name': return document.getElementsByName(value)[0] || null;"
+                    + "    case 'class name': return document.getElementsByClassName(value)[0] || null;"
+                    + "    case 'xpath': return document.evaluate(value, document, null,"
+                    + "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+                    + "    case 'link text': return [...document.querySelectorAll('a')]"
+                    + "        .find((a) => (a.innerText || '').trim() === value) || null;"
+                    + "    case 'partial link text': return [...document.querySelectorAll('a')]"
+                    + "        .find((a) => (a.innerText || '').includes(value)) || null;"
+                    + "    default: return null;"
+                    + "  }"
+                    + "};";
+
+    private static final String EVENT_WAIT =
+            "const done = arguments[arguments.length - 1];"
+                    + "const timeoutMs = arguments[0];"
+                    + "const args = arguments[1];"
+                    + PageScripts.HELPERS
+                    + FIND
+                    + "const check = () => { try { return !!(%s); } catch (e) { return false; } };"
+                    + "if (check()) { done(true); return; }"
+                    + "let finished = false;"
+                    + "const targets = [[window, 'storage'], [window, 'load'], [document, 'DOMContentLoaded'],"
+                    + "    [document, 'input'], [document, 'transitionend'], [document, 'animationend']];"
+                    + "const finish = (ok) => {"
+                    + "  if (finished) return;"
+                    + "  finished = true;"
+                    + "  observer.disconnect();"
+                    + "  targets.forEach(([t, e]) => t.removeEventListener(e, onChange, true));"
+                    + "  clearInterval(tick);"
+                    + "  clearTimeout(timer);"
+                    + "  done(ok);"
+                    + "};"
+                    + "const onChange = () => { if (check()) finish(true); };"
+                    + "const observer = new MutationObserver(onChange);"
+                    + "observer.observe(document, { subtree: true, childList: true, attributes: true, characterData: true });"
+                    + "targets.forEach(([t, e]) => t.addEventListener(e, onChange, true));"
+                    + "const tick = setInterval(onChange, 50);"
+                    + "const timer = setTimeout(() => finish(check()), timeoutMs);";
+
+    private static final String POLL_CHECK =
+            "const args = arguments[0];"
+                    + PageScripts.HELPERS
+                    + FIND
+                    + "try { return !!(%s); } catch (e) { return false; }";
+
+    private static final Duration DEFAULT_POLL = Duration.ofMillis(500);
+    // Headroom left under the session's script timeout for the call itself.
+    private static final long SCRIPT_SLACK_MS = 1000;
+
+    private static final ThreadLocal<Boolean> POLL_ONLY = ThreadLocal.withInitial(() -> false);
+
+    private final WebDriver driver;
+    private final Duration ceiling;
+    private final Engine engine;
+    private final WaitStats stats;
+    private long scriptTimeoutMs;
+
+    public PageWait(WebDriver driver, Duration timeout) {
+        this(driver, timeout, configuredEngine(), WaitStats.shared());
+    }
+
+    public PageWait(WebDriver driver, Duration timeout, Engine engine, WaitStats stats) {
+        this.driver = driver;
+        this.ceiling = timeout;
+        this.engine = engine;
+        this.stats = stats;
+    }
+
+    public static Engine configuredEngine() {
+        if (POLL_ONLY.get()) {
+            return Engine.POLL;
+        }
+        return "event".equalsIgnoreCase(System.getProperty("ws.waits", "poll")) ? Engine.EVENT : Engine.POLL;
+    }
+
+    /**
+     * Makes waits created on the calling thread poll whatever {@code ws.waits} says, e.g. where
+     * several threads share one browser session and an event wait would hold it for all of them.
+     */
+    public static void pollOnThisThread(boolean pollOnly) {
+        if (pollOnly) {
+            POLL_ONLY.set(true);
+        } else {
+            POLL_ONLY.remove();
+        }
+    }
+
+    public Engine engine() {
+        return engine;
+    }
+
+    public WebElement visible(By locator) {
+        String key = "visible " + locator;
+        if (engine == Engine.POLL) {
+            return poll(key, ExpectedConditions.visibilityOfElementLocated(locator));
+        }
+        untilScript(key, "vis(find(args[0], args[1]))", remote(locator));
+        return driver.findElement(locator);
+    }
+
+    public WebElement clickable(By locator) {
+        String key = "clickable " + locator;
+        if (engine == Engine.POLL) {
+            return poll(key, ExpectedConditions.elementToBeClickable(locator));
+        }
+        untilScript(key,
+                "(() => { const el = find(args[0], args[1]); return vis(el) && !el.disabled; })()",
+                remote(locator));
+        return driver.findElement(locator);
+    }
+
+    public WebElement present(By locator) {
+        String key = "present " + locator;
+        if (engine == Engine.POLL) {
+            return poll(key, ExpectedConditions.presenceOfElementLocated(locator));
+        }
+        untilScript(key, "find(args[0], args[1]) !== null", remote(locator));
+        return driver.findElement(locator);
+    }
+
+    public void titleIs(String title) {
+        String key = "title is \"" + title + "\"";
+        if (engine == Engine.POLL) {
+            poll(key, ExpectedConditions.titleIs(title));
+            return;
+        }
+        untilScript(key, "document.title === args[0]", title);
+    }
+
+    public void urlContains(String fragment) {
+        String key = "url contains \"" + fragment + "\"";
+        if (engine == Engine.POLL) {
+            poll(key, ExpectedConditions.urlContains(fragment));
+            return;
+        }
+        untilScript(key, "location.href.includes(args[0])", fragment);
+    }
+
+    /**
+     * Waits for a Java-side condition. Always polls, whatever the engine; recorded under the
+     * calling method's name.
+     */
+    public <T> T until(Function<? super WebDriver, T> condition) {
+        return poll("until " + caller(), condition);
+    }
+
+    /**
+     * Waits until the JavaScript expression {@code predicate} is truthy in the page. The expression
+     * can use {@code args[i]}, {@code find(using, value)} and the {@link PageScripts#HELPERS}.
+     * Quoted parts and numbers in {@code description} are left out of its statistics key, so
+     * "cart count to exceed 2" and "cart count to exceed 5" share their history.
+     */
+    public void untilScript(String description, String predicate, Object... args) {
+        String key = description.replaceAll("\"[^\"]*\"", "\"*\"").replaceAll("\\b\\d+\\b", "#");
+        List<Object> argList = Arrays.asList(args);
+        if (engine == Engine.POLL) {
+            // replace, not String.format: predicates may use % (e.g. "i % 2 === 0").
+            String script = POLL_CHECK.replace("%s", predicate);
+            poll(key, description, d -> Boolean.TRUE.equals(((JavascriptExecutor) d).executeScript(script, argList)));
+            return;
+        }
+        awaitEvent(key, description, EVENT_WAIT.replace("%s", predicate), argList);
+    }
+
+    private <T> T poll(String key, Function<? super WebDriver, T> condition) {
+        return poll(key, null, condition);
+    }
+
+    private <T> T poll(String key, String message, Function<? super WebDriver, T> condition) {
+        Duration timeout = stats.timeoutFor(key, ceiling);
+        WebDriverWait wait = new WebDriverWait(driver, timeout, stats.pollIntervalFor(key, DEFAULT_POLL));
+        if (message != null) {
+            wait.withMessage(message);
+        }
+        int[] polls = {0};
+        return recorded(key, () -> polls[0], () -> wait.until(d -> {
+            polls[0]++;
+            return condition.apply(d);
+        }));
+    }
+
+    private void awaitEvent(String key, String description, String script, List<Object> args) {
+        Duration timeout = stats.timeoutFor(key, ceiling);
+        int[] attempts = {0};
+        recorded(key, () -> attempts[0], () -> {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (true) {
+                long remainingMs = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMs <= 0) {
+                    break;
+                }
+                attempts[0]++;
+                // Each call stays under the session's script timeout; longer waits take several.
+                long chunkMs = Math.min(remainingMs, scriptChunkMs());
+                try {
+                    Object ok = ((JavascriptExecutor) driver).executeAsyncScript(script, chunkMs, args);
+                    if (Boolean.TRUE.equals(ok)) {
+                        return null;
+                    }
+                } catch (ScriptTimeoutException e) {
+                    // The call outlived the script timeout; try again while time remains.
+                } catch (NoSuchSessionException | NoSuchWindowException e) {
+                    throw e;
+                } catch (JavascriptException e) {
+                    // A broken predicate fails the same way on every call; only an unload retries.
+                    if (e.getMessage() == null || !e.getMessage().contains("document unloaded")) {
+                        throw e;
+                    }
+                    sleepQuietly(20);
+                } catch (WebDriverException e) {
+                    // The document navigated away mid-wait; check again on the new one.
+                    sleepQuietly(20);
+                }
+            }
+            throw new TimeoutException("Expected condition failed: waiting for " + description
+                    + " (event wait, timeout " + timeout.toMillis() + " ms)");
+        });
+    }
+
+    /**
+     * How long one event-wait call may wait in the page: the session's script timeout (30 s
+     * unless changed) minus {@link #SCRIPT_SLACK_MS}, read once.
+     */
+    private long scriptChunkMs() {
+        if (scriptTimeoutMs == 0) {
+            long timeout;
+            try {
+                timeout = driver.manage().timeouts().getScriptTimeout().toMillis();
+            } catch (WebDriverException | UnsupportedOperationException e) {
+                timeout = 30_000;
+            }
+            scriptTimeoutMs = timeout;
+        }
+        return Math.max(100, scriptTimeoutMs - SCRIPT_SLACK_MS);
+    }
+
+    private <T> T recorded(String key, Supplier<Integer> polls, Supplier<T> wait) {
+        long start = System.nanoTime();
+        try {
+            T result = wait.get();
+            stats.record(key, Duration.ofNanos(System.nanoTime() - start), polls.get(), false);
+            return result;
+        } catch (TimeoutException e) {
+            stats.record(key, Duration.ofNanos(System.nanoTime() - start), polls.get(), true);
+            throw e;
+        }
+    }
+
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> !f.getClassName().equals(PageWait.class.getName()))
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName())
+                .orElse("?"));
+    }
+
+    private static Object[] remote(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            throw new IllegalArgumentException("Event waits need a standard locator, got " + locator);
+        }
+        By.Remotable.Parameters p = ((By.Remotable) locator).getRemoteParameters();
+        return new Object[] {p.using(), String.valueOf(p.value())};
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
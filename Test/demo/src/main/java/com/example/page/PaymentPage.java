@@ -0,0 +1,193 @@
+package com.example.page;
+
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+public class PaymentPage {
+
+    private final WebDriver driver;
+    private final PageWait wait;
+
+    private final By heroTitle = By.tagName("h1");
+    private final By payTotal = By.id("payTotal");
+    private final By orderSummary = By.id("orderSummary");
+    private final By paymentForm = By.id("paymentForm");
+    private final By cardName = By.id("cardName");
+    private final By cardNumber = By.id("cardNumber");
+    private final By expiry = By.id("expiry");
+    private final By cvv = By.id("cvv");
+    private final By zip = By.id("zip");
+    private final By payErr = By.id("payErr");
+    private final By payBtn = By.id("payBtn");
+    private final By backToCart = By.cssSelector("a.btn.ghost[href='./cart.html']");
+    private final By cartCount = By.cssSelector("[data-cart-count]");
+    private final By logoutBtn = By.id("logoutBtn");
+
+    public PaymentPage(WebDriver driver) {
+        this.driver = driver;
+        this.wait = Waits.forPage(driver);
+    }
+
+    /**
+     * Navigates here, waits for the page and returns how it loaded.
+     */
+    public PagePerformance.Metrics open() {
+        PagePerformance.Metrics metrics = PagePerformance.load(driver, PageScripts.siteUrl("payment.html"));
+        waitForLoaded();
+        return metrics;
+    }
+
+    public void waitForLoaded() {
+        wait.untilScript("payment page to load",
+                "(location.href.includes('payment.html')"
+                        + " || (document.body && document.body.getAttribute('data-page') === 'payment'))"
+                        + " && vis($('#paymentForm')) && vis($('#payBtn'))");
+    }
+
+    public String getPageTitle() {
+        return driver.getTitle();
+    }
+
+    public boolean isHeroVisible() {
+        return wait.visible(heroTitle).isDisplayed();
+    }
+
+    public boolean isPaymentFormVisible() {
+        return wait.visible(paymentForm).isDisplayed();
+    }
+
+    public boolean isOrderSummaryVisible() {
+        return wait.visible(orderSummary).isDisplayed();
+    }
+
+    public String getPayTotal() {
+        return wait.visible(payTotal).getText();
+    }
+
+    public boolean isPayButtonEnabled() {
+        return wait.visible(payBtn).isEnabled();
+    }
+
+    public String getCartCount() {
+        return wait.visible(cartCount).getText();
+    }
+
+    public void enterCardName(String value) {
+        wait.visible(cardName).clear();
+        driver.findElement(cardName).sendKeys(value);
+    }
+
+    public void enterCardNumber(String value) {
+        wait.visible(cardNumber).clear();
+        driver.findElement(cardNumber).sendKeys(value);
+    }
+
+    public void enterExpiry(String value) {
+        wait.visible(expiry).clear();
+        driver.findElement(expiry).sendKeys(value);
+    }
+
+    public void enterCvv(String value) {
+        wait.visible(cvv).clear();
+        driver.findElement(cvv).sendKeys(value);
+    }
+
+    public void enterZip(String value) {
+        wait.visible(zip).clear();
+        driver.findElement(zip).sendKeys(value);
+    }
+
+    public void submitPayment() {
+        wait.clickable(payBtn).click();
+    }
+
+    /**
+     * Waits for the redirect to the orders page that follows a successful payment.
+     */
+    public void waitForOrderConfirmation() {
+        wait.urlContains("orders.html");
+    }
+
+    public void clickBackToCart() {
+        wait.clickable(backToCart).click();
+    }
+
+    public void logout() {
+        wait.clickable(logoutBtn).click();
+    }
+
+    public String getErrorMessage() {
+        wait.present(payErr);
+        String text = driver.findElement(payErr).getText();
+        return text == null ? "" : text;
+    }
+
+    public boolean isPaymentFormValid() {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        Object valid = js.executeScript("return document.querySelector('#paymentForm')?.checkValidity() ?? false;");
+        return Boolean.TRUE.equals(valid);
+    }
+
+    /**
+     * Reads everything this page object knows about in a single script call.
+     */
+    @SuppressWarnings("unchecked")
+    public Snapshot snapshot() {
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                PageScripts.HELPERS
+                        + "const btn = $('#payBtn');"
+                        + "const form = $('#paymentForm');"
+                        + "return {"
+                        + "  title: document.title,"
+                        + "  url: location.href,"
+                        + "  heroVisible: vis($('h1')),"
+                        + "  formVisible: vis(form),"
+                        + "  formValid: !!form && form.checkValidity(),"
+                        + "  orderSummaryVisible: vis($('#orderSummary')),"
+                        + "  payTotal: txt($('#payTotal')),"
+                        + "  payButtonVisible: vis(btn),"
+                        + "  payButtonEnabled: !!btn && !btn.disabled,"
+                        + "  payButtonText: txt(btn),"
+                        + "  errorText: txt($('#payErr')) || '',"
+                        + "  cartCount: txt($('[data-cart-count]')),"
+                        + "  toastVisible: toastOn()"
+                        + "};");
+        return new Snapshot(
+                PageScripts.str(raw, "title"),
+                PageScripts.str(raw, "url"),
+                PageScripts.bool(raw, "heroVisible"),
+                PageScripts.bool(raw, "formVisible"),
+                PageScripts.bool(raw, "formValid"),
+                PageScripts.bool(raw, "orderSummaryVisible"),
+                PageScripts.str(raw, "payTotal"),
+                PageScripts.bool(raw, "payButtonVisible"),
+                PageScripts.bool(raw, "payButtonEnabled"),
+                PageScripts.str(raw, "payButtonText"),
+                PageScripts.str(raw, "errorText"),
+                PageScripts.str(raw, "cartCount"),
+                PageScripts.bool(raw, "toastVisible"));
+    }
+
+    public record Snapshot(
+            String title,
+            String url,
+            boolean heroVisible,
+            boolean formVisible,
+            boolean formValid,
+            boolean orderSummaryVisible,
+            String payTotal,
+            boolean payButtonVisible,
+            boolean payButtonEnabled,
+            String payButtonText,
+            String errorText,
+            String cartCount,
+            boolean toastVisible) {
+
+        public int payTotalAsInt() {
+            return PageScripts.digits(payTotal);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.page;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Runs the store's own payment validation ({@code luhnOk}, {@code parseExpiry} and
+ * {@code paymentError} from {@code main.js}) on many inputs per {@code executeScript} call,
+ * instead of typing each one into {@link PaymentPage}.
+ * <p>
+ * Any page of the store has the functions; the inputs go over in batches of
+ * {@code batchSize} and come back as one {@link Verdict} each, evaluated against a fixed
+ * {@code now} so the caller can reproduce expiry decisions.
+ */
+public class PaymentValidationBridge {
+
+    public static final int DEFAULT_BATCH_SIZE = 2500;
+
+    private static final String EVALUATE =
+            "const [inputs, now] = arguments;"
+                    + "if (typeof paymentError !== 'function') throw new Error('main.js payment validation not loaded');"
+                    + "const at = new Date(now);"
+                    + "return inputs.map(([name, card, exp, cvv, zip]) => {"
+                    + "  const ex = parseExpiry(exp);"
+                    + "  return [luhnOk(card), ex ? ex.mm : null, ex ? ex.yy : null,"
+                    + "      paymentError({ name, card, exp, cvv, zip }, at)];"
+                    + "});";
+
+    private final WebDriver driver;
+    private final int batchSize;
+    private int roundTrips;
+
+    public PaymentValidationBridge(WebDriver driver) {
+        this(driver, DEFAULT_BATCH_SIZE);
+    }
+
+    public PaymentValidationBridge(WebDriver driver, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.driver = driver;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Time zone the page resolves {@code new Date(y, m, d)} in.
+     */
+    public ZoneId browserZone() {
+        Object zone = ((JavascriptExecutor) driver).executeScript(
+                "return Intl.DateTimeFormat().resolvedOptions().timeZone;");
+        roundTrips++;
+        return ZoneId.of(String.valueOf(zone));
+    }
+
+    /**
+     * The page's verdict on every input, in order, as of {@code now}.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Verdict> evaluate(List<Input> inputs, Instant now) {
+        List<Verdict> verdicts = new ArrayList<>(inputs.size());
+        for (int from = 0; from < inputs.size(); from += batchSize) {
+            List<List<String>> batch = new ArrayList<>();
+            for (Input in : inputs.subList(from, Math.min(inputs.size(), from + batchSize))) {
+                batch.add(List.of(in.name(), in.card(), in.expiry(), in.cvv(), in.zip()));
+            }
+            List<List<Object>> raw = (List<List<Object>>) ((JavascriptExecutor) driver)
+                    .executeScript(EVALUATE, batch, now.toEpochMilli());
+            roundTrips++;
+            for (List<Object> r : raw) {
+                YearMonth expiry = r.get(1) == null ? null
+                        : YearMonth.of(((Number) r.get(2)).intValue(), ((Number) r.get(1)).intValue());
+                verdicts.add(new Verdict(Boolean.TRUE.equals(r.get(0)), expiry, String.valueOf(r.get(3))));
+            }
+        }
+        return verdicts;
+    }
+
+    /**
+     * {@code executeScript} calls made so far.
+     */
+    public int roundTrips() {
+        return roundTrips;
+    }
+
+    /**
+     * The payment form's fields, as typed.
+     */
+    public record Input(String name, String card, String expiry, String cvv, String zip) {
+    }
+
+    /**
+     * {@code luhnOk(card)}, {@code parseExpiry(expiry)} (null when rejected) and the error
+     * {@code paymentError} reports ("" when the payment is accepted).
+     */
+    public record Verdict(boolean luhn, YearMonth expiry, String error) {
+    }
+}
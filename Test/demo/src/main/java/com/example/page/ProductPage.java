@@ -0,0 +1,128 @@
+package com.example.page;
+
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+public class ProductPage {
+
+    private final WebDriver driver;
+    private final PageWait wait;
+
+    private final By productTitle = By.id("pTitle");
+    private final By productPrice = By.id("pPrice");
+    private final By addToCartBtn = By.id("addToCartBtn");
+    private final By goToCart = By.cssSelector("a.btn.ghost[href='./cart.html']");
+    private final By cartCount = By.cssSelector("[data-cart-count]");
+
+    public ProductPage(WebDriver driver) {
+        this.driver = driver;
+        this.wait = Waits.forPage(driver);
+    }
+
+    /**
+     * Navigates to the details of {@code productId}, waits for the page and returns how it loaded.
+     */
+    public PagePerformance.Metrics open(String productId) {
+        PagePerformance.Metrics metrics =
+                PagePerformance.load(driver, PageScripts.siteUrl("product.html?id=" + productId));
+        waitForLoaded();
+        return metrics;
+    }
+
+    public void waitForLoaded() {
+        // initProductPage fills the title in after boot; an unknown id redirects home instead.
+        wait.untilScript("product page to load",
+                "document.body && document.body.getAttribute('data-page') === 'product'"
+                        + " && txt($('#pTitle')) && vis($('#addToCartBtn'))");
+    }
+
+    public String getPageTitle() {
+        return driver.getTitle();
+    }
+
+    public String getProductTitle() {
+        return wait.visible(productTitle).getText();
+    }
+
+    public String getPrice() {
+        return wait.visible(productPrice).getText();
+    }
+
+    /**
+     * Clicks "Add to Cart" and waits for the header badge to count the new item.
+     */
+    public void addToCart() {
+        int before = getCartCountAsInt();
+        wait.clickable(addToCartBtn).click();
+        wait.untilScript("cart count to exceed " + before,
+                "Number((txt($('[data-cart-count]')) || '0').replace(/[^0-9]/g, '')) > args[0]", before);
+    }
+
+    /**
+     * Clicks "Add to Cart" and waits for the header badge to read {@code expectedCount}; unlike
+     * {@link #addToCart()} this also works when the line is already at 99 and the count stays put.
+     */
+    public void addToCart(int expectedCount) {
+        wait.clickable(addToCartBtn).click();
+        wait.untilScript("cart count to be " + expectedCount,
+                "Number((txt($('[data-cart-count]')) || '0').replace(/[^0-9]/g, '')) === args[0]", expectedCount);
+    }
+
+    public void clickGoToCart() {
+        wait.clickable(goToCart).click();
+    }
+
+    public int getCartCountAsInt() {
+        return PageScripts.digits(driver.findElement(cartCount).getText());
+    }
+
+    /**
+     * Reads everything this page object knows about in a single script call.
+     */
+    @SuppressWarnings("unchecked")
+    public Snapshot snapshot() {
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                PageScripts.HELPERS
+                        + "return {"
+                        + "  title: document.title,"
+                        + "  url: location.href,"
+                        + "  productId: new URLSearchParams(location.search).get('id'),"
+                        + "  productTitle: txt($('#pTitle')),"
+                        + "  price: txt($('#pPrice')),"
+                        + "  addToCartVisible: vis($('#addToCartBtn')),"
+                        + "  cartCount: txt($('[data-cart-count]')),"
+                        + "  toastVisible: toastOn()"
+                        + "};");
+        return new Snapshot(
+                PageScripts.str(raw, "title"),
+                PageScripts.str(raw, "url"),
+                PageScripts.str(raw, "productId"),
+                PageScripts.str(raw, "productTitle"),
+                PageScripts.str(raw, "price"),
+                PageScripts.bool(raw, "addToCartVisible"),
+                PageScripts.str(raw, "cartCount"),
+                PageScripts.bool(raw, "toastVisible"));
+    }
+
+    public record Snapshot(
+            String title,
+            String url,
+            String productId,
+            String productTitle,
+            String price,
+            boolean addToCartVisible,
+            String cartCount,
+            boolean toastVisible) {
+
+        public int priceAsInt() {
+            return PageScripts.digits(price);
+        }
+
+        public int cartCountAsInt() {
+            return PageScripts.digits(cartCount);
+        }
+    }
+}
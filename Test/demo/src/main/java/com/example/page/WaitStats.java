@@ -0,0 +1,247 @@
+package com.example.page;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+/**
+ * Outcome of every {@link PageWait}, by condition, kept across runs in
+ * {@code ws.waits.stats} ({@code .perf/wait-stats.json} by default).
+ * <p>
+ * For each condition the file holds how often it was waited for, how often it timed out,
+ * how many polls it took, and the elapsed times of its most recent successful waits. With
+ * {@code -Dws.waits.tune=true} those samples set the timeout (p99.9 × 1.5 + 200 ms, at least
+ * 300 ms, never above the caller's ceiling) and the poll interval (p50 / 5, 20-500 ms) once a
+ * condition has {@code ws.waits.minSamples} (30) successes on record.
+ * <p>
+ * Tuning is meant for local runs that keep {@code .perf} between them; the CI shards do not
+ * upload or merge their statistics.
+ */
+public final class WaitStats {
+
+    private static final int MAX_SAMPLES = 1000;
+    private static final Duration MIN_TUNED_TIMEOUT = Duration.ofMillis(300);
+    private static final Duration TUNING_MARGIN = Duration.ofMillis(200);
+    private static final Duration MIN_POLL = Duration.ofMillis(20);
+    private static final Duration MAX_POLL = Duration.ofMillis(500);
+
+    private static volatile WaitStats shared;
+
+    private final Path file;
+    private final Map<String, Condition> conditions = new ConcurrentHashMap<>();
+    private final boolean tuning;
+    private final int minSamples;
+
+    WaitStats(Path file, boolean tuning, int minSamples) {
+        this.file = file;
+        this.tuning = tuning;
+        this.minSamples = minSamples;
+    }
+
+    /**
+     * The JVM-wide statistics, loaded from disk on first use.
+     */
+    public static WaitStats shared() {
+        WaitStats stats = shared;
+        if (stats == null) {
+            synchronized (WaitStats.class) {
+                stats = shared;
+                if (stats == null) {
+                    stats = new WaitStats(
+                            Paths.get(System.getProperty("ws.waits.stats", ".perf/wait-stats.json")),
+                            Boolean.getBoolean("ws.waits.tune"),
+                            Integer.getInteger("ws.waits.minSamples", 30));
+                    stats.load();
+                    shared = stats;
+                }
+            }
+        }
+        return stats;
+    }
+
+    public void record(String key, Duration elapsed, int polls, boolean timedOut) {
+        conditions.computeIfAbsent(key, k -> new Condition()).record(elapsed, polls, timedOut);
+    }
+
+    /**
+     * Timeout to use for {@code key}: the tuned value when tuning is on and there is enough
+     * history, otherwise {@code ceiling}.
+     */
+    public Duration timeoutFor(String key, Duration ceiling) {
+        Condition c = tuned(key);
+        if (c == null) {
+            return ceiling;
+        }
+        Duration tuned = tunedTimeout(c);
+        return tuned.compareTo(ceiling) < 0 ? tuned : ceiling;
+    }
+
+    private static Duration tunedTimeout(Condition c) {
+        Duration tuned = Duration.ofNanos(c.percentileMicros(99.9) * 1500).plus(TUNING_MARGIN);
+        return tuned.compareTo(MIN_TUNED_TIMEOUT) < 0 ? MIN_TUNED_TIMEOUT : tuned;
+    }
+
+    public Duration pollIntervalFor(String key, Duration fallback) {
+        Condition c = tuned(key);
+        if (c == null) {
+            return fallback;
+        }
+        Duration poll = Duration.ofNanos(c.percentileMicros(50) * 1000 / 5);
+        if (poll.compareTo(MIN_POLL) < 0) {
+            return MIN_POLL;
+        }
+        return poll.compareTo(MAX_POLL) > 0 ? MAX_POLL : poll;
+    }
+
+    private Condition tuned(String key) {
+        if (!tuning) {
+            return null;
+        }
+        Condition c = conditions.get(key);
+        return c != null && c.sampleCount() >= minSamples ? c : null;
+    }
+
+    // ===== Persistence =====
+
+    @SuppressWarnings("unchecked")
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            Map<String, Object> root = new Json().toType(Files.readString(file, StandardCharsets.UTF_8), Map.class);
+            Object all = root.get("conditions");
+            if (all instanceof Map) {
+                ((Map<String, Object>) all).forEach((key, value) -> {
+                    if (value instanceof Map) {
+                        conditions.put(key, Condition.fromJson((Map<String, Object>) value));
+                    }
+                });
+            }
+        } catch (IOException | JsonException | ClassCastException e) {
+            conditions.clear();
+        }
+    }
+
+    public void save() {
+        Map<String, Object> all = new TreeMap<>();
+        conditions.forEach((key, c) -> all.put(key, c.toJson()));
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("version", 1);
+        root.put("conditions", all);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(file, new Json().toJson(root), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+
+    /**
+     * One line per condition, slowest p99.9 first, with the timeout it would get when tuned.
+     */
+    public String report() {
+        StringBuilder out = new StringBuilder(String.format("%7s %8s %6s %8s %8s %9s  %s%n",
+                "waits", "timeouts", "polls", "p50", "p99.9", "timeout", "condition"));
+        conditions.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().percentileMicros(99.9), a.getValue().percentileMicros(99.9)))
+                .forEach(e -> {
+                    Condition c = e.getValue();
+                    out.append(String.format("%7d %8d %6.1f %6dms %6dms %9s  %s%n",
+                            c.count, c.timeouts, c.count == 0 ? 0.0 : (double) c.polls / c.count,
+                            c.percentileMicros(50) / 1000, c.percentileMicros(99.9) / 1000,
+                            c.sampleCount() < minSamples ? "-" : tunedTimeout(c).toMillis() + "ms",
+                            e.getKey()));
+                });
+        return out.toString();
+    }
+
+    private static final class Condition {
+
+        private long count;
+        private long timeouts;
+        private long polls;
+        private final long[] samples = new long[MAX_SAMPLES];
+        private int size;
+        private int next;
+
+        synchronized void record(Duration elapsed, int pollCount, boolean timedOut) {
+            count++;
+            polls += pollCount;
+            if (timedOut) {
+                timeouts++;
+                return;
+            }
+            add(elapsed.toNanos() / 1000);
+        }
+
+        private void add(long micros) {
+            samples[next] = micros;
+            next = (next + 1) % MAX_SAMPLES;
+            size = Math.min(size + 1, MAX_SAMPLES);
+        }
+
+        synchronized int sampleCount() {
+            return size;
+        }
+
+        synchronized long percentileMicros(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+            return sorted[Math.max(0, Math.min(index, size - 1))];
+        }
+
+        synchronized Map<String, Object> toJson() {
+            List<Long> recent = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                // Oldest first, so reloading keeps the same eviction order.
+                recent.add(samples[(next - size + i + MAX_SAMPLES) % MAX_SAMPLES]);
+            }
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("count", count);
+            json.put("timeouts", timeouts);
+            json.put("polls", polls);
+            json.put("samplesMicros", recent);
+            return json;
+        }
+
+        static Condition fromJson(Map<String, Object> json) {
+            Condition c = new Condition();
+            c.count = number(json.get("count"));
+            c.timeouts = number(json.get("timeouts"));
+            c.polls = number(json.get("polls"));
+            Object recent = json.get("samplesMicros");
+            if (recent instanceof List) {
+                for (Object sample : (List<?>) recent) {
+                    c.add(number(sample));
+                }
+            }
+            return c;
+        }
+
+        private static long number(Object value) {
+            return value instanceof Number ? ((Number) value).longValue() : 0;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.page;
+
+import java.time.Duration;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * The one place wait timeouts are decided.
+ * <p>
+ * Page objects use {@link #forPage(WebDriver)}, with a ceiling of {@code ws.waits.pageTimeoutMs}
+ * (6000 ms). Navigation and setup helpers use {@link #forNavigation(WebDriver)}, with a ceiling
+ * of {@code ws.waits.navigationTimeoutMs} (15000 ms). Under {@code -Dws.waits.tune=true},
+ * {@link WaitStats} lowers each condition's timeout below its ceiling from recorded history.
+ */
+public final class Waits {
+
+    private Waits() {
+    }
+
+    public static PageWait forPage(WebDriver driver) {
+        return new PageWait(driver, Duration.ofMillis(Long.getLong("ws.waits.pageTimeoutMs", 6000)));
+    }
+
+    public static PageWait forNavigation(WebDriver driver) {
+        return new PageWait(driver, Duration.ofMillis(Long.getLong("ws.waits.navigationTimeoutMs", 15000)));
+    }
+}
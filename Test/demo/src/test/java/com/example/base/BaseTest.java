@@ -1,59 +1,365 @@
 package com.example.base;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+import io.qameta.allure.Allure;
+import org.openqa.selenium.JavascriptException;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
+import org.testng.ITestClass;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.SkipException;
 import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
 
-public class BaseTest {
+import com.example.page.PagePerformance;
+import com.example.page.PageWait;
+import com.example.page.WaitStats;
+import com.example.page.Waits;
 
-    protected WebDriver driver;
-    protected WebDriverWait wait;
+public class BaseTest implements IHookable {
 
-    protected static final String BASE_URL = "http://127.0.0.1:5500/";
+    // One leased browser per worker thread. "driver" routes every call to the calling
+    // thread's browser, so test classes and page objects can share it under parallel="methods".
+    private static final ThreadLocal<DriverPool.Lease> THREAD_LEASE = new ThreadLocal<>();
+
+    // The class and browser whose prepared page the last passing @ReadOnly test on this thread
+    // left in place, and whether the running test is @ReadOnly.
+    private static final ThreadLocal<Prepared> PREPARED = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> READ_ONLY = ThreadLocal.withInitial(() -> false);
+
+    // Outcomes of read-only tests already run in tabs, waiting for TestNG to reach them.
+    private static final ThreadLocal<Map<ITestNGMethod, Optional<Throwable>>> TAB_OUTCOMES =
+            ThreadLocal.withInitial(HashMap::new);
+
+    // Storage snapshots are shared by every class in the suite.
+    private static final Map<String, StorageSnapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+
+    protected final WebDriver driver = ThreadBoundDriver.create(BaseTest::threadDriver);
+    // Navigation waits; polling or event-driven depending on -Dws.waits, recorded in WaitStats.
+    protected final PageWait wait = Waits.forNavigation(driver);
+
+    // Embedded server URL, or -Dws.baseUrl when pointing the suite at an external server.
+    protected static final String BASE_URL = WatchStoreServer.baseUrl();
     protected static final String LOGIN_URL = BASE_URL + "index.html";
     protected static final String HOME_URL = BASE_URL + "home.html";
 
-    @BeforeClass
-    public void setup() {
-        ChromeOptions options = new ChromeOptions();
+    @BeforeSuite(alwaysRun = true)
+    public void startDriverPool(ITestContext context) {
+        DriverPool.start(poolSize(context.getCurrentXmlTest()), origin(BASE_URL));
+    }
 
-        // Stable defaults for local + CI (GitHub Actions Linux runners).
-        options.addArguments("--window-size=1920,1080");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--remote-allow-origins=*");
+    @BeforeClass(alwaysRun = true)
+    public void setup(ITestContext context) {
+        if (!methodScopedLeases(context)) {
+            threadDriver();
+        }
+    }
+
+    @BeforeMethod(alwaysRun = true)
+    public void bindDriver(Method method) {
+        // Method-scoped leases are taken here; class-scoped ones already exist.
+        threadDriver();
+        READ_ONLY.set(method.isAnnotationPresent(ReadOnly.class));
+        if (VirtualClock.isEnabled()) {
+            VirtualClock.install(THREAD_LEASE.get());
+        }
+        if (CommandTracer.isEnabled()) {
+            CommandTracer.beginTest(getClass().getSimpleName() + "." + method.getName());
+        }
+        if (CpuProfiler.isEnabled()) {
+            CpuProfiler.begin(THREAD_LEASE.get(), getClass().getSimpleName() + "." + method.getName());
+        }
+        if (ResultCache.isCaching()) {
+            ResultCache.beginTest(THREAD_LEASE.get(), reusePreparedState());
+        }
+    }
 
-        if (System.getenv("CI") != null) {
-            options.addArguments("--headless=new");
-            options.addArguments("--no-sandbox");
-            options.addArguments("--disable-gpu");
+    /**
+     * Under {@code -Dws.tabs}, the first tab-eligible {@link ReadOnly} test of a class runs
+     * itself and the ones {@link FixtureOrdering} queued after it across tabs of this thread's
+     * browser; each of them then only reports the outcome it had there. Their results are
+     * marked {@link TabExecutor#REPORTED}, so the duration and performance histories skip
+     * timings that are not the test's own. Runs tests as usual when tabs are off, leases are
+     * per method, or the tabs cannot be opened.
+     */
+    @Override
+    public void run(IHookCallBack callBack, ITestResult testResult) {
+        ITestNGMethod method = testResult.getMethod();
+        if (!TabExecutor.isEnabled() || TabExecutor.current() != null || !FixtureOrdering.runsInTabs(method)
+                || methodScopedLeases(testResult.getTestContext())) {
+            callBack.runTestMethod(testResult);
+            return;
+        }
+        Map<ITestNGMethod, Optional<Throwable>> outcomes = TAB_OUTCOMES.get();
+        if (!outcomes.containsKey(method)) {
+            List<ITestNGMethod> batch = FixtureOrdering.tabBatchFrom(method);
+            if (batch.size() < 2) {
+                callBack.runTestMethod(testResult);
+                return;
+            }
+            try {
+                outcomes.putAll(runInTabs(batch, method.getTestClass()));
+            } catch (WebDriverException e) {
+                Allure.addAttachment("Tabs", "Could not open tabs, ran " + method.getMethodName()
+                        + " as usual: " + e);
+                callBack.runTestMethod(testResult);
+                return;
+            }
+        }
+        testResult.setAttribute(TabExecutor.REPORTED, Boolean.TRUE);
+        Throwable failure = outcomes.remove(method).orElse(null);
+        if (failure == null) {
+            testResult.setStatus(ITestResult.SUCCESS);
+            return;
+        }
+        testResult.setThrowable(failure);
+        if (failure instanceof Error) {
+            throw (Error) failure;
         }
+        throw failure instanceof RuntimeException ? (RuntimeException) failure : new RuntimeException(failure);
+    }
 
-        driver = new ChromeDriver(options);
-        wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+    /**
+     * Runs {@code batch} in tabs opened on the page this thread's browser shows. Each test runs
+     * on its own instance of the class, after the class's own {@code @BeforeMethod}s (which
+     * find {@link #reusePreparedState()} true), so checks running side by side do not share
+     * the page objects their setup builds. Fields only a {@code @BeforeClass} sets are not
+     * there; tests that need them should not be tab-eligible.
+     */
+    private Map<ITestNGMethod, Optional<Throwable>> runInTabs(List<ITestNGMethod> batch, ITestClass testClass) {
+        List<Method> setups = new ArrayList<>();
+        for (ITestNGMethod before : testClass.getBeforeTestMethods()) {
+            Method m = before.getConstructorOrMethod().getMethod();
+            if (m.getDeclaringClass() != BaseTest.class && m.getParameterCount() == 0) {
+                setups.add(m);
+            }
+        }
+        List<TabExecutor.Check> checks = new ArrayList<>();
+        for (ITestNGMethod test : batch) {
+            Method m = test.getConstructorOrMethod().getMethod();
+            checks.add(tab -> {
+                Object instance = testClass.getRealClass().getDeclaredConstructor().newInstance();
+                for (Method setup : setups) {
+                    invoke(instance, setup);
+                }
+                invoke(instance, m);
+            });
+        }
+        List<Throwable> thrown;
+        try (TabExecutor tabs = TabExecutor.open(THREAD_LEASE.get().driver(),
+                Math.min(TabExecutor.configuredTabs(), batch.size()))) {
+            thrown = tabs.runAll(checks);
+        }
+        Map<ITestNGMethod, Optional<Throwable>> outcomes = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            outcomes.put(batch.get(i), Optional.ofNullable(thrown.get(i)));
+        }
+        return outcomes;
     }
 
-    @AfterClass
+    private static void invoke(Object instance, Method method) throws Throwable {
+        try {
+            method.invoke(instance);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void releaseMethodLease(ITestContext context, ITestResult result) {
+        ResultCache.endTest(result, BASE_URL);
+        CommandTracer.TestTrace trace = CommandTracer.endTest();
+        if (trace != null) {
+            Allure.addAttachment("WebDriver commands", trace.toString());
+            PerfHistoryRecorder.recordCommands(result, trace.calls());
+        }
+        CpuProfiler.Profile profile = CpuProfiler.end();
+        if (profile != null) {
+            Allure.addAttachment("CPU profile", profile.toString());
+        }
+        DriverPool.Lease lease = THREAD_LEASE.get();
+        if (READ_ONLY.get() && result.isSuccess() && lease != null) {
+            PREPARED.set(new Prepared(getClass(), lease.driver()));
+        } else {
+            PREPARED.remove();
+        }
+        if (methodScopedLeases(context)) {
+            releaseThreadLease();
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
     public void tearDown() {
-        if (driver != null) {
-            driver.quit();
+        releaseThreadLease();
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void stopDriverPool() {
+        DriverPool.PoolMetrics metrics = DriverPool.shutdown();
+        if (metrics != null) {
+            Allure.addAttachment("Driver pool metrics", metrics.toString());
+        }
+        String trace = CommandTracer.writeSuiteReport();
+        if (trace != null) {
+            Allure.addAttachment("WebDriver command profile", trace);
+        }
+        String cpu = CpuProfiler.writeSuiteReport();
+        if (cpu != null) {
+            Allure.addAttachment("CPU profile", cpu);
+        }
+        String cache = ResultCache.save();
+        if (cache != null) {
+            Allure.addAttachment("Result cache", cache);
+        }
+        WaitStats waits = WaitStats.shared();
+        waits.save();
+        Allure.addAttachment("Wait statistics", waits.report());
+    }
+
+    private static WebDriver threadDriver() {
+        WebDriver tab = TabExecutor.current();
+        if (tab != null) {
+            return tab;
+        }
+        DriverPool.Lease lease = THREAD_LEASE.get();
+        if (lease == null) {
+            lease = DriverPool.get().lease();
+            THREAD_LEASE.set(lease);
+        }
+        return CommandTracer.isEnabled() ? lease.decorated(CommandTracer::decorate) : lease.driver();
+    }
+
+    private static void releaseThreadLease() {
+        DriverPool.Lease lease = THREAD_LEASE.get();
+        THREAD_LEASE.remove();
+        PREPARED.remove();
+        TAB_OUTCOMES.remove();
+        if (lease != null && DriverPool.isRunning()) {
+            DriverPool.get().release(lease);
+        }
+    }
+
+    /**
+     * Leases are held per class unless methods of one class run on several threads
+     * at once, or -Dws.pool.lease=method asks for a fresh browser per method.
+     */
+    private static boolean methodScopedLeases(ITestContext context) {
+        return context.getCurrentXmlTest().getParallel() == XmlSuite.ParallelMode.METHODS
+                || "method".equalsIgnoreCase(System.getProperty("ws.pool.lease", "class"));
+    }
+
+    private static int poolSize(XmlTest test) {
+        Integer configured = Integer.getInteger("ws.pool.size");
+        if (configured != null) {
+            return configured;
+        }
+        return test.getParallel().isParallel() ? test.getThreadCount() : 1;
+    }
+
+    private static String origin(String url) {
+        int slash = url.indexOf('/', url.indexOf("//") + 2);
+        return slash < 0 ? url : url.substring(0, slash);
+    }
+
+    /**
+     * Replaces the current thread's browser if its session died or lost all windows.
+     */
+    protected void ensureLiveDriver() {
+        DriverPool.Lease lease = THREAD_LEASE.get();
+        if (lease == null) {
+            threadDriver();
+            return;
+        }
+        DriverPool.get().ensureHealthy(lease);
+    }
+
+    /**
+     * True when this test is {@link ReadOnly} and the previous test on this thread was a
+     * passing {@code @ReadOnly} test of the same class on the same browser session, so the page
+     * it prepared is still in place and the setup can skip rebuilding it.
+     * {@link FixtureOrdering} runs read-only tests back to back so this is usually the case.
+     * Always true in a tab, which opens on the prepared page.
+     */
+    protected boolean reusePreparedState() {
+        if (TabExecutor.current() != null) {
+            return true;
+        }
+        Prepared prepared = PREPARED.get();
+        DriverPool.Lease lease = THREAD_LEASE.get();
+        return READ_ONLY.get() && prepared != null && lease != null
+                && prepared.testClass() == getClass() && prepared.driver() == lease.driver();
+    }
+
+    private record Prepared(Class<?> testClass, WebDriver driver) {
+    }
+
+    /**
+     * Load budget for the {@link PerformanceProfile} the browsers run under
+     * ({@code -Dws.perf.profile}, desktop by default).
+     */
+    protected static PagePerformance.Budget loadBudget() {
+        return PerformanceProfile.configured().budget();
+    }
+
+    /**
+     * Leak soak harness on this thread's browser; see {@link LeakSoak}.
+     */
+    protected LeakSoak soak(String name) {
+        threadDriver();
+        return new LeakSoak(name, (HasCdp) THREAD_LEASE.get().driver());
+    }
+
+    /**
+     * Per-resource latency and failures for this thread's browser, e.g.
+     * {@code siteRules().delay("/js/main.js", Duration.ofMillis(1500))}; see {@link SiteRules}.
+     * Outside {@code -Dws.site=fetch} the browser starts intercepting {@link #BASE_URL} for the
+     * rest of its lease. Rules are cleared when the lease is released.
+     */
+    protected SiteRules siteRules() {
+        threadDriver();
+        return InterceptedSite.attach(THREAD_LEASE.get().driver(), BASE_URL).rules();
+    }
+
+    /**
+     * Lets {@code amount} of page time pass: instantly under {@code -Dws.clock=virtual},
+     * by sleeping otherwise.
+     */
+    protected void advanceTime(Duration amount) {
+        if (VirtualClock.isEnabled() && VirtualClock.advance(driver, amount) >= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(amount.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
     protected void openLoginPage() {
         driver.get(LOGIN_URL);
-        wait.until(ExpectedConditions.titleIs("Watch Store — Login"));
+        wait.titleIs("Watch Store — Login");
     }
 
     protected void clearBrowserState() {
@@ -78,7 +384,7 @@ public class BaseTest {
     protected void seedUser(String email, String password) {
         // App stores users in localStorage key "ws_users" as:
         // { "<email>": { "pwHash": "<sha256 hex>", "createdAt": "<iso>" } }
-        String pwHash = sha256Hex(password);
+        String pwHash = StoreState.passwordHash(password);
         String createdAt = Instant.now().toString();
         String json = "{\"" + escapeJson(email) + "\":{\"pwHash\":\"" + pwHash + "\",\"createdAt\":\"" + createdAt + "\"}}";
 
@@ -92,30 +398,77 @@ public class BaseTest {
         }
     }
 
-    protected void waitForHomePage() {
-        wait.until(ExpectedConditions.or(
-                ExpectedConditions.titleIs("Watch Store — Home"),
-                ExpectedConditions.urlContains("home.html")
-        ));
+    /**
+     * Loads {@code page} with the given localStorage state already in place, skipping the UI login.
+     */
+    protected void startOn(String page, StoreState state) {
+        state.applyTo(driver, BASE_URL);
+        driver.get(BASE_URL + page);
     }
 
-    protected void waitForLoginPage() {
-        wait.until(ExpectedConditions.or(
-                ExpectedConditions.titleIs("Watch Store — Login"),
-                ExpectedConditions.urlContains("index.html")
-        ));
+    /**
+     * {@link #startOn}, skipping the test when {@code state} does not fit in localStorage;
+     * {@code what} names it in the skip message, e.g. "20000 products".
+     */
+    protected void startOnOrSkipIfOverQuota(String page, StoreState state, String what) {
+        try {
+            startOn(page, state);
+        } catch (JavascriptException e) {
+            if (String.valueOf(e.getMessage()).contains("QuotaExceeded")) {
+                throw new SkipException(what + " do not fit in localStorage");
+            }
+            throw e;
+        }
     }
 
-    private static String sha256Hex(String text) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(String.valueOf(text).getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder(hash.length * 2);
-            for (byte b : hash) sb.append(String.format("%02x", b));
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException(e);
+    /**
+     * Captures the current page's localStorage, sessionStorage and URL under {@code name}.
+     */
+    protected StorageSnapshot captureSnapshot(String name) {
+        StorageSnapshot snapshot = StorageSnapshot.capture(name, driver);
+        SNAPSHOTS.put(name, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Restores a snapshot and opens the page it was taken on.
+     */
+    protected void restoreSnapshot(String name) {
+        StorageSnapshot snapshot = SNAPSHOTS.get(name);
+        if (snapshot == null) {
+            throw new IllegalStateException("No storage snapshot named '" + name + "'");
         }
+        snapshot.writeTo(driver, BASE_URL);
+        driver.get(snapshot.url());
+    }
+
+    /**
+     * Restores the snapshot {@code name} and opens {@code page}. The first caller in the suite
+     * runs {@code prepare} to build the state and captures it; everyone after that only restores.
+     */
+    protected void restoreSnapshot(String name, String page, Runnable prepare) {
+        StorageSnapshot snapshot = SNAPSHOTS.get(name);
+        if (snapshot == null) {
+            synchronized (SNAPSHOTS) {
+                snapshot = SNAPSHOTS.get(name);
+                if (snapshot == null) {
+                    prepare.run();
+                    snapshot = captureSnapshot(name);
+                }
+            }
+        }
+        snapshot.writeTo(driver, BASE_URL);
+        driver.get(BASE_URL + page);
+    }
+
+    protected void waitForHomePage() {
+        wait.untilScript("home page",
+                "document.title === 'Watch Store — Home' || location.href.includes('home.html')");
+    }
+
+    protected void waitForLoginPage() {
+        wait.untilScript("login page",
+                "document.title === 'Watch Store — Login' || location.href.includes('index.html')");
     }
 
     private static String escapeJson(String s) {
@@ -0,0 +1,57 @@
+package com.example.base;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+
+import io.qameta.allure.Allure;
+
+/**
+ * Sizes and results of the scaling benchmarks in {@code benchmarks.xml}.
+ */
+public final class BenchmarkReport {
+
+    private BenchmarkReport() {
+    }
+
+    /**
+     * The comma separated sizes in {@code property}, or {@code defaults}, as data provider rows.
+     */
+    public static Object[][] sizes(String property, String defaults) {
+        return Arrays.stream(System.getProperty(property, defaults).split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(s -> new Object[] {Integer.parseInt(s)})
+                .toArray(Object[][]::new);
+    }
+
+    /**
+     * Prints {@code table}, attaches it and {@code csv} to the report under {@code title}, and
+     * writes {@code csv} to {@code outProperty} ({@code defaultPath} when unset).
+     */
+    public static void publish(String title, CharSequence table, CharSequence csv, String outProperty,
+            String defaultPath) {
+        Path file = Paths.get(System.getProperty(outProperty, defaultPath));
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(file, csv, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+        System.out.print(table);
+        Allure.addAttachment(title, table.toString());
+        Allure.addAttachment(title + " (CSV)", "text/csv", csv.toString(), ".csv");
+    }
+
+    public static double millis(Duration d) {
+        return d.toNanos() / 1_000_000.0;
+    }
+}
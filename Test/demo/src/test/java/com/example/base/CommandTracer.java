@@ -0,0 +1,408 @@
+package com.example.base;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import com.example.load.LatencyHistogram;
+
+/**
+ * Opt-in profiler for WebDriver traffic ({@code -Dws.trace=true}).
+ * <p>
+ * Drivers are wrapped in an {@link EventFiringDecorator}; every command is recorded with its
+ * type ({@code findElement}, {@code element.click}, {@code executeScript}, ...), the locator
+ * or script it targets, the page object method that issued it, and its duration. Commands are
+ * aggregated per test and per suite; {@link #writeSuiteReport()} ranks the slowest commands,
+ * the most-called locators and the most expensive page object methods, and writes the full
+ * data to {@code ws.trace.out} ({@code target/command-trace.json} by default).
+ */
+public final class CommandTracer implements WebDriverListener {
+
+    private static final CommandTracer INSTANCE = new CommandTracer();
+    private static final int TOP = 15;
+    private static final Set<String> SKIPPED_CALLERS = Set.of(
+            CommandTracer.class.getName(),
+            ThreadBoundDriver.class.getName(),
+            "com.example.page.PageWait",
+            "com.example.page.PagePerformance",
+            "com.example.page.PageScripts");
+
+    private static final Map<String, CommandStats> SUITE = new ConcurrentHashMap<>();
+    private static final Map<String, TestTrace> TESTS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<TestTrace> CURRENT_TEST = new ThreadLocal<>();
+    private static final ThreadLocal<Deque<Long>> STARTED = ThreadLocal.withInitial(ArrayDeque::new);
+    // Locator each element was found with; keyed by the undecorated element.
+    private static final Map<WebElement, String> ELEMENT_LOCATORS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private CommandTracer() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("ws.trace");
+    }
+
+    public static WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(INSTANCE).decorate(driver);
+    }
+
+    /**
+     * Starts collecting the calling thread's commands under {@code testName}.
+     */
+    public static void beginTest(String testName) {
+        TestTrace trace = new TestTrace(testName);
+        TESTS.put(testName, trace);
+        CURRENT_TEST.set(trace);
+    }
+
+    /**
+     * Stops collecting for the calling thread and returns what its test issued, or null.
+     */
+    public static TestTrace endTest() {
+        TestTrace trace = CURRENT_TEST.get();
+        CURRENT_TEST.remove();
+        return trace;
+    }
+
+    // ===== WebDriverListener =====
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        STARTED.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(target, method, args, false);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(target, method, args, true);
+    }
+
+    @Override
+    public void afterFindElement(WebDriver driver, By locator, WebElement result) {
+        ELEMENT_LOCATORS.put(result, locator.toString());
+    }
+
+    @Override
+    public void afterFindElements(WebDriver driver, By locator, List<WebElement> result) {
+        result.forEach(e -> ELEMENT_LOCATORS.put(e, locator.toString()));
+    }
+
+    @Override
+    public void afterFindElement(WebElement element, By locator, WebElement result) {
+        ELEMENT_LOCATORS.put(result, ELEMENT_LOCATORS.getOrDefault(element, "?") + " > " + locator);
+    }
+
+    @Override
+    public void afterFindElements(WebElement element, By locator, List<WebElement> result) {
+        String parent = ELEMENT_LOCATORS.getOrDefault(element, "?");
+        result.forEach(e -> ELEMENT_LOCATORS.put(e, parent + " > " + locator));
+    }
+
+    private void finish(Object target, Method method, Object[] args, boolean failed) {
+        Deque<Long> started = STARTED.get();
+        if (started.isEmpty()) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - started.pop();
+        String type = kind(target) + method.getName();
+        String locator = locator(target, method, args);
+        String caller = caller();
+
+        Duration elapsed = Duration.ofNanos(elapsedNanos);
+        SUITE.computeIfAbsent(type + '\u0000' + locator + '\u0000' + caller,
+                k -> new CommandStats(type, locator, caller)).record(elapsed, failed);
+        TestTrace test = CURRENT_TEST.get();
+        if (test != null) {
+            test.record(type, elapsed);
+        }
+    }
+
+    private static String kind(Object target) {
+        if (target instanceof WebDriver) {
+            return "";
+        }
+        if (target instanceof WebElement) {
+            return "element.";
+        }
+        if (target instanceof WebDriver.Navigation) {
+            return "navigate.";
+        }
+        if (target instanceof WebDriver.TargetLocator) {
+            return "switchTo.";
+        }
+        if (target instanceof WebDriver.Window) {
+            return "window.";
+        }
+        if (target instanceof WebDriver.Timeouts) {
+            return "timeouts.";
+        }
+        if (target instanceof WebDriver.Options) {
+            return "manage.";
+        }
+        if (target instanceof Alert) {
+            return "alert.";
+        }
+        return target.getClass().getSimpleName() + ".";
+    }
+
+    private static String locator(Object target, Method method, Object[] args) {
+        if (args != null && args.length > 0 && args[0] instanceof By) {
+            String by = args[0].toString();
+            return target instanceof WebElement ? ELEMENT_LOCATORS.getOrDefault(target, "?") + " > " + by : by;
+        }
+        if (target instanceof WebElement) {
+            return ELEMENT_LOCATORS.getOrDefault(target, "?");
+        }
+        if ("executeCdpCommand".equals(method.getName())) {
+            return "cdp: " + args[0];
+        }
+        if (method.getName().startsWith("execute") && args != null && args.length > 0 && args[0] instanceof String) {
+            return "script " + abbreviate((String) args[0]);
+        }
+        if ("get".equals(method.getName()) || "to".equals(method.getName())) {
+            return args != null && args.length > 0 ? String.valueOf(args[0]) : "";
+        }
+        return "";
+    }
+
+    /**
+     * Scripts often share a helper prelude, so they are told apart by hash rather than by
+     * their first characters.
+     */
+    private static String abbreviate(String script) {
+        String oneLine = script.replaceAll("\\s+", " ").trim();
+        String head = oneLine.length() <= 48 ? oneLine : oneLine.substring(0, 45) + "...";
+        return String.format("#%08x (%d chars) %s", script.hashCode(), script.length(), head);
+    }
+
+    /**
+     * The innermost page object, test or base-class method on the stack, skipping the waits
+     * and helpers that only forward commands.
+     */
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("com.example.")
+                        && !SKIPPED_CALLERS.contains(f.getClassName()))
+                .findFirst()
+                .map(f -> simpleName(f.getClassName()) + "." + methodName(f.getMethodName()))
+                .orElse("?"));
+    }
+
+    private static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        int nested = name.indexOf('$');
+        return nested < 0 ? name : name.substring(0, nested);
+    }
+
+    private static String methodName(String name) {
+        // lambda$waitForLoaded$3 -> waitForLoaded
+        if (name.startsWith("lambda$")) {
+            int end = name.indexOf('$', 7);
+            return end < 0 ? name.substring(7) : name.substring(7, end);
+        }
+        return name;
+    }
+
+    // ===== Reports =====
+
+    /**
+     * Ranks the suite's commands, writes the machine-readable report and returns the text one.
+     * Returns null when nothing was traced.
+     */
+    public static String writeSuiteReport() {
+        if (SUITE.isEmpty()) {
+            return null;
+        }
+        List<CommandStats> commands = new ArrayList<>(SUITE.values());
+
+        StringBuilder out = new StringBuilder();
+        long calls = commands.stream().mapToLong(c -> c.latency.count()).sum();
+        Duration time = commands.stream().map(c -> c.latency.total()).reduce(Duration.ZERO, Duration::plus);
+        out.append(String.format("WebDriver commands: %d calls, %d ms across %d tests%n%n",
+                calls, time.toMillis(), TESTS.size()));
+
+        out.append("Slowest commands (by total time)\n");
+        commands.sort(Comparator.comparing((CommandStats c) -> c.latency.total()).reversed());
+        out.append(String.format("  %9s %7s %8s %8s  %s%n", "total", "calls", "p50", "p99", "command"));
+        for (CommandStats c : commands.subList(0, Math.min(TOP, commands.size()))) {
+            out.append(String.format("  %7dms %7d %6dms %6dms  %s %s  [%s]%n",
+                    c.latency.total().toMillis(), c.latency.count(),
+                    c.latency.percentile(50).toMillis(), c.latency.percentile(99).toMillis(),
+                    c.type, c.locator, c.caller));
+        }
+
+        out.append("\nMost-called locators\n");
+        Map<String, long[]> locators = rollUp(commands, c -> c.locator);
+        locators.remove("");
+        appendRanking(out, locators, (a, b) -> Long.compare(b[0], a[0]));
+
+        out.append("\nPage object methods (by total time)\n");
+        appendRanking(out, rollUp(commands, c -> c.caller), (a, b) -> Long.compare(b[1], a[1]));
+
+        writeJson(commands);
+        return out.toString();
+    }
+
+    /**
+     * Sums calls and total microseconds per key.
+     */
+    private static Map<String, long[]> rollUp(List<CommandStats> commands, Function<CommandStats, String> key) {
+        Map<String, long[]> totals = new TreeMap<>();
+        for (CommandStats c : commands) {
+            long[] t = totals.computeIfAbsent(key.apply(c), k -> new long[2]);
+            t[0] += c.latency.count();
+            t[1] += c.latency.total().toNanos() / 1000;
+        }
+        return totals;
+    }
+
+    private static void appendRanking(StringBuilder out, Map<String, long[]> totals, Comparator<long[]> order) {
+        out.append(String.format("  %7s %9s  %s%n", "calls", "total", "name"));
+        totals.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(order))
+                .limit(TOP)
+                .forEach(e -> out.append(String.format("  %7d %7dms  %s%n",
+                        e.getValue()[0], e.getValue()[1] / 1000, e.getKey())));
+    }
+
+    private static void writeJson(List<CommandStats> commands) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("commands", commands.stream().map(CommandStats::toJson).collect(Collectors.toList()));
+        Map<String, Object> tests = new TreeMap<>();
+        TESTS.forEach((name, trace) -> tests.put(name, trace.toJson()));
+        report.put("tests", tests);
+
+        Path file = Paths.get(System.getProperty("ws.trace.out", "target/command-trace.json"));
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(file, new Json().toJson(report), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+
+    private static Map<String, Object> histogramJson(LatencyHistogram h) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("count", h.count());
+        json.put("totalMicros", h.total().toNanos() / 1000);
+        json.put("p50Micros", h.percentile(50).toNanos() / 1000);
+        json.put("p95Micros", h.percentile(95).toNanos() / 1000);
+        json.put("p99Micros", h.percentile(99).toNanos() / 1000);
+        json.put("maxMicros", h.max().toNanos() / 1000);
+        return json;
+    }
+
+    static final class CommandStats {
+
+        private final String type;
+        private final String locator;
+        private final String caller;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+
+        CommandStats(String type, String locator, String caller) {
+            this.type = type;
+            this.locator = locator;
+            this.caller = caller;
+        }
+
+        void record(Duration elapsed, boolean failed) {
+            latency.record(elapsed);
+            if (failed) {
+                errors.incrementAndGet();
+            }
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("type", type);
+            json.put("locator", locator);
+            json.put("caller", caller);
+            json.put("errors", errors.get());
+            json.putAll(histogramJson(latency));
+            return json;
+        }
+    }
+
+    /**
+     * The commands one test issued, by command type.
+     */
+    public static final class TestTrace {
+
+        private final String name;
+        private final Map<String, LatencyHistogram> byType = new ConcurrentHashMap<>();
+
+        TestTrace(String name) {
+            this.name = name;
+        }
+
+        void record(String type, Duration elapsed) {
+            byType.computeIfAbsent(type, k -> new LatencyHistogram()).record(elapsed);
+        }
+
+        public long calls() {
+            return byType.values().stream().mapToLong(LatencyHistogram::count).sum();
+        }
+
+        public Duration time() {
+            return byType.values().stream().map(LatencyHistogram::total).reduce(Duration.ZERO, Duration::plus);
+        }
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("calls", calls());
+            json.put("totalMicros", time().toNanos() / 1000);
+            Map<String, Object> types = new TreeMap<>();
+            byType.forEach((type, h) -> types.put(type, histogramJson(h)));
+            json.put("commands", types);
+            return json;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder(String.format("%s: %d WebDriver calls, %d ms%n",
+                    name, calls(), time().toMillis()));
+            byType.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue(Comparator.comparing(LatencyHistogram::total).reversed()))
+                    .forEach(e -> out.append(String.format("  %-28s %5d calls %7dms total  p50 %dms  max %dms%n",
+                            e.getKey(), e.getValue().count(), e.getValue().total().toMillis(),
+                            e.getValue().percentile(50).toMillis(), e.getValue().max().toMillis())));
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.base;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.json.Json;
+
+/**
+ * Opt-in JavaScript CPU profiling of the store per test ({@code -Dws.cpuprofile=true}).
+ * <p>
+ * Each test runs between CDP {@code Profiler.start} and {@code Profiler.stop}, sampling every
+ * {@code ws.cpuprofile.intervalUs} (200 µs). Samples are attributed to the page's functions,
+ * e.g. {@code renderProductsGrid (main.js:416)}, with their self time (on top of the stack)
+ * and total time (anywhere on it). For each test and for the whole suite this writes to
+ * {@code ws.cpuprofile.out} ({@code target/cpu-profiles}):
+ * <ul>
+ *   <li>{@code <test>.cpuprofile}: the raw profile, which Chrome DevTools and speedscope open,</li>
+ *   <li>{@code <test>.folded}, {@code suite.folded}: folded stacks weighted in microseconds,
+ *       the input of flamegraph.pl, speedscope and most flame graph tools.</li>
+ * </ul>
+ * The self/total tables of {@code main.js} are attached to the Allure report.
+ */
+public final class CpuProfiler {
+
+    private static final int TOP = 20;
+    private static final String SITE_SCRIPT = "/js/main.js";
+
+    private static final ThreadLocal<Running> CURRENT = new ThreadLocal<>();
+    private static final Map<String, long[]> SUITE_FUNCTIONS = new ConcurrentHashMap<>();
+    private static final Map<String, Long> SUITE_STACKS = new ConcurrentHashMap<>();
+    private static final Map<String, Long> SUITE_CATEGORIES = new ConcurrentHashMap<>();
+
+    private CpuProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("ws.cpuprofile");
+    }
+
+    /**
+     * Starts sampling the lease's browser for {@code testName}.
+     */
+    static void begin(DriverPool.Lease lease, String testName) {
+        HasCdp cdp = (HasCdp) lease.driver();
+        cdp.executeCdpCommand("Profiler.enable", Map.of());
+        cdp.executeCdpCommand("Profiler.setSamplingInterval",
+                Map.of("interval", Integer.getInteger("ws.cpuprofile.intervalUs", 200)));
+        cdp.executeCdpCommand("Profiler.start", Map.of());
+        CURRENT.set(new Running(testName, cdp));
+    }
+
+    /**
+     * Stops sampling for the calling thread, writes the test's files and returns its profile,
+     * or null when nothing was being profiled or the browser is gone.
+     */
+    @SuppressWarnings("unchecked")
+    static Profile end() {
+        Running running = CURRENT.get();
+        CURRENT.remove();
+        if (running == null) {
+            return null;
+        }
+        Map<String, Object> raw;
+        try {
+            raw = (Map<String, Object>) running.cdp.executeCdpCommand("Profiler.stop", Map.of()).get("profile");
+            running.cdp.executeCdpCommand("Profiler.disable", Map.of());
+        } catch (WebDriverException e) {
+            return null;
+        }
+        Profile profile = Profile.of(running.testName, raw);
+        String file = running.testName.replaceAll("[^A-Za-z0-9._-]", "_");
+        write(file + ".cpuprofile", new Json().toJson(raw));
+        write(file + ".folded", profile.folded());
+        profile.functions.forEach((key, t) -> SUITE_FUNCTIONS.merge(key, t.clone(), (a, b) -> {
+            a[0] += b[0];
+            a[1] += b[1];
+            return a;
+        }));
+        profile.stacks.forEach((stack, micros) -> SUITE_STACKS.merge(stack, micros, Long::sum));
+        profile.categories.forEach((category, micros) -> SUITE_CATEGORIES.merge(category, micros, Long::sum));
+        return profile;
+    }
+
+    /**
+     * Writes the suite's folded stacks and returns its hot-function report, or null when
+     * nothing was profiled.
+     */
+    public static String writeSuiteReport() {
+        if (SUITE_STACKS.isEmpty()) {
+            return null;
+        }
+        write("suite.folded", folded(SUITE_STACKS));
+        return report("Suite", SUITE_CATEGORIES, SUITE_FUNCTIONS);
+    }
+
+    private static void write(String name, String content) {
+        Path file = Paths.get(System.getProperty("ws.cpuprofile.out", "target/cpu-profiles")).resolve(name);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+
+    private static String folded(Map<String, Long> stacks) {
+        StringBuilder out = new StringBuilder();
+        new TreeMap<>(stacks).forEach((stack, micros) -> out.append(stack).append(' ').append(micros).append('\n'));
+        return out.toString();
+    }
+
+    private static String report(String title, Map<String, Long> categories, Map<String, long[]> functions) {
+        long busy = categories.entrySet().stream()
+                .filter(e -> !e.getKey().equals("(idle)"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        StringBuilder out = new StringBuilder(String.format("%s CPU profile: %.1f ms busy%n", title, busy / 1000.0));
+        categories.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(e -> out.append(String.format("  %7.1fms  %s%n", e.getValue() / 1000.0, e.getKey())));
+
+        out.append("\nmain.js functions (by total time)\n");
+        out.append(String.format("  %9s %9s  %s%n", "self", "total", "function"));
+        functions.entrySet().stream()
+                .filter(e -> e.getKey().contains("(main.js:"))
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[1]).reversed())
+                .limit(TOP)
+                .forEach(e -> out.append(String.format("  %7.1fms %7.1fms  %s%n",
+                        e.getValue()[0] / 1000.0, e.getValue()[1] / 1000.0, e.getKey())));
+        return out.toString();
+    }
+
+    private record Running(String testName, HasCdp cdp) {
+    }
+
+    /**
+     * One test's profile, reduced to self/total time per function, folded stacks and time per
+     * category (main.js, other scripts, and V8's (program), (garbage collector) and (idle)).
+     */
+    public static final class Profile {
+
+        private final String testName;
+        private final Map<String, long[]> functions = new HashMap<>();
+        private final Map<String, Long> stacks = new HashMap<>();
+        private final Map<String, Long> categories = new HashMap<>();
+
+        private Profile(String testName) {
+            this.testName = testName;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Profile of(String testName, Map<String, Object> raw) {
+            Profile profile = new Profile(testName);
+            List<Map<String, Object>> nodes = (List<Map<String, Object>>) raw.get("nodes");
+            List<Number> samples = (List<Number>) raw.getOrDefault("samples", List.of());
+            List<Number> deltas = (List<Number>) raw.getOrDefault("timeDeltas", List.of());
+            long endTime = ((Number) raw.get("endTime")).longValue();
+
+            Map<Long, Map<String, Object>> byId = new HashMap<>();
+            Map<Long, Long> parents = new HashMap<>();
+            for (Map<String, Object> node : nodes) {
+                long id = ((Number) node.get("id")).longValue();
+                byId.put(id, node);
+                for (Object child : (List<Object>) node.getOrDefault("children", List.of())) {
+                    parents.put(((Number) child).longValue(), id);
+                }
+            }
+
+            // Sample i lasts until sample i + 1 (or the end of the profile).
+            long[] timestamps = new long[samples.size()];
+            long t = ((Number) raw.get("startTime")).longValue();
+            for (int i = 0; i < samples.size(); i++) {
+                t += i < deltas.size() ? deltas.get(i).longValue() : 0;
+                timestamps[i] = t;
+            }
+            Map<Long, List<String>> stackCache = new HashMap<>();
+            for (int i = 0; i < samples.size(); i++) {
+                long micros = Math.max(0, (i + 1 < timestamps.length ? timestamps[i + 1] : endTime) - timestamps[i]);
+                long leaf = samples.get(i).longValue();
+                List<String> stack = stackCache.computeIfAbsent(leaf, id -> stackOf(id, byId, parents));
+                if (stack.isEmpty()) {
+                    continue;
+                }
+                profile.add(stack, category((Map<String, Object>) byId.get(leaf).get("callFrame")), micros);
+            }
+            return profile;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static List<String> stackOf(long leaf, Map<Long, Map<String, Object>> byId, Map<Long, Long> parents) {
+            List<String> stack = new ArrayList<>();
+            for (Long id = leaf; id != null; id = parents.get(id)) {
+                Map<String, Object> frame = (Map<String, Object>) byId.get(id).get("callFrame");
+                String name = frameName(frame);
+                if (!name.equals("(root)")) {
+                    stack.add(0, name);
+                }
+            }
+            return stack;
+        }
+
+        private static String frameName(Map<String, Object> frame) {
+            String function = String.valueOf(frame.getOrDefault("functionName", ""));
+            String url = String.valueOf(frame.getOrDefault("url", ""));
+            if (url.isEmpty()) {
+                return function.isEmpty() ? "(anonymous)" : function;
+            }
+            String file = url.substring(url.lastIndexOf('/') + 1);
+            int q = file.indexOf('?');
+            if (q >= 0) {
+                file = file.substring(0, q);
+            }
+            long line = ((Number) frame.getOrDefault("lineNumber", -1)).longValue() + 1;
+            return (function.isEmpty() ? "(anonymous)" : function) + " (" + file + ":" + line + ")";
+        }
+
+        private static String category(Map<String, Object> frame) {
+            String function = String.valueOf(frame.getOrDefault("functionName", ""));
+            String url = String.valueOf(frame.getOrDefault("url", ""));
+            if (url.contains(SITE_SCRIPT)) {
+                return "main.js";
+            }
+            if (url.isEmpty() && function.startsWith("(")) {
+                return function;
+            }
+            return "other scripts";
+        }
+
+        private void add(List<String> stack, String category, long micros) {
+            String leaf = stack.get(stack.size() - 1);
+            functions.computeIfAbsent(leaf, k -> new long[2])[0] += micros;
+            // Recursive functions count once per sample towards their total.
+            Set<String> onStack = new LinkedHashSet<>(stack);
+            for (String function : onStack) {
+                functions.computeIfAbsent(function, k -> new long[2])[1] += micros;
+            }
+            stacks.merge(String.join(";", stack), micros, Long::sum);
+            categories.merge(category, micros, Long::sum);
+        }
+
+        /**
+         * Self and total microseconds of {@code function}, as named in the report.
+         */
+        public long[] timeOf(String function) {
+            long[] t = functions.get(function);
+            return t == null ? new long[2] : t.clone();
+        }
+
+        String folded() {
+            return CpuProfiler.folded(stacks);
+        }
+
+        @Override
+        public String toString() {
+            return report(testName, categories, functions);
+        }
+    }
+}
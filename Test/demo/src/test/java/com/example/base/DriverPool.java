@@ -0,0 +1,350 @@
+package com.example.base;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+/**
+ * Suite-scoped pool of warm ChromeDriver sessions.
+ * <p>
+ * Browsers are launched once, leased to a test class or method, wiped clean on release
+ * (cookies, web storage, extra tabs) and handed to the next lease. Dead sessions are
+ * replaced on lease, and sessions past {@code ws.pool.maxUses} are recycled on release.
+ * A browser that fails to relaunch leaves its lease in the pool with the dead session, to be
+ * replaced again by the next lease.
+ */
+public final class DriverPool {
+
+    private static volatile DriverPool instance;
+
+    private final int size;
+    private final String origin;
+    private final int maxUses;
+    private final Duration leaseTimeout;
+
+    private final BlockingQueue<Lease> idle = new LinkedBlockingQueue<>();
+    private final Set<Lease> all = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong replaced = new AtomicLong();
+    private final AtomicLong recycled = new AtomicLong();
+    private final AtomicLong launched = new AtomicLong();
+    private final List<Long> leaseWaitNanos = Collections.synchronizedList(new ArrayList<>());
+
+    private DriverPool(int size, String origin) {
+        this.size = size;
+        this.origin = origin;
+        this.maxUses = Integer.getInteger("ws.pool.maxUses", 0);
+        this.leaseTimeout = Duration.ofSeconds(Long.getLong("ws.pool.leaseTimeoutSeconds", 120));
+    }
+
+    /**
+     * Starts the suite's pool, launching {@code size} browsers in parallel.
+     * Calling it again while a pool is running returns the running pool.
+     */
+    public static synchronized DriverPool start(int size, String origin) {
+        if (instance == null) {
+            DriverPool pool = new DriverPool(Math.max(1, size), origin);
+            pool.prelaunch();
+            instance = pool;
+        }
+        return instance;
+    }
+
+    public static DriverPool get() {
+        DriverPool pool = instance;
+        if (pool == null) {
+            throw new IllegalStateException("DriverPool has not been started");
+        }
+        return pool;
+    }
+
+    public static boolean isRunning() {
+        return instance != null;
+    }
+
+    public static synchronized PoolMetrics shutdown() {
+        DriverPool pool = instance;
+        instance = null;
+        if (pool == null) {
+            return null;
+        }
+        for (Lease lease : pool.all) {
+            quitQuietly(lease.driver);
+        }
+        pool.all.clear();
+        pool.idle.clear();
+        return pool.metrics();
+    }
+
+    private void prelaunch() {
+        ExecutorService starter = Executors.newFixedThreadPool(size);
+        try {
+            List<Future<WebDriver>> started = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                started.add(starter.submit(DriverFactory::newChromeDriver));
+            }
+            for (Future<WebDriver> f : started) {
+                Lease lease = new Lease(f.get());
+                launched.incrementAndGet();
+                all.add(lease);
+                idle.add(lease);
+            }
+        } catch (Exception e) {
+            for (Lease lease : all) {
+                quitQuietly(lease.driver);
+            }
+            throw new IllegalStateException("Could not launch the driver pool", e);
+        } finally {
+            starter.shutdown();
+        }
+    }
+
+    /**
+     * Blocks until a healthy browser is available and hands it to the caller.
+     */
+    public Lease lease() {
+        long start = System.nanoTime();
+        Lease lease;
+        try {
+            lease = idle.poll(leaseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser", e);
+        }
+        if (lease == null) {
+            throw new IllegalStateException("No browser became free within " + leaseTimeout);
+        }
+        leaseWaitNanos.add(System.nanoTime() - start);
+        leases.incrementAndGet();
+
+        if (!isHealthy(lease.driver)) {
+            try {
+                replaceSession(lease, replaced);
+            } catch (RuntimeException e) {
+                idle.add(lease);
+                throw e;
+            }
+        } else if (lease.uses > 0) {
+            reused.incrementAndGet();
+        }
+        lease.uses++;
+        return lease;
+    }
+
+    /**
+     * Wipes the browser and returns it to the pool.
+     */
+    public void release(Lease lease) {
+        if (lease == null || !all.contains(lease)) {
+            return;
+        }
+        try {
+            if (maxUses > 0 && lease.uses >= maxUses) {
+                replaceSession(lease, recycled);
+            } else if (!reset(lease)) {
+                replaceSession(lease, replaced);
+            }
+        } finally {
+            idle.add(lease);
+        }
+    }
+
+    /**
+     * Replaces the session behind {@code lease} if it no longer responds.
+     */
+    public void ensureHealthy(Lease lease) {
+        if (!isHealthy(lease.driver)) {
+            replaceSession(lease, replaced);
+        }
+    }
+
+    /**
+     * Quits the session behind {@code lease} and launches a new one, counted in {@code reason}.
+     * If the launch fails the lease keeps the quit session, which the next lease replaces.
+     */
+    private void replaceSession(Lease lease, AtomicLong reason) {
+        InterceptedSite.detach(lease.driver);
+        quitQuietly(lease.driver);
+        lease.uses = 0;
+        lease.documentScripts.clear();
+        lease.driver = DriverFactory.newChromeDriver();
+        launched.incrementAndGet();
+        reason.incrementAndGet();
+    }
+
+    private boolean reset(Lease lease) {
+        WebDriver d = lease.driver;
+        try {
+            // Fetch-mode browsers keep serving the site; on-demand interception is dropped.
+            InterceptedSite site = InterceptedSite.of(d);
+            if (site != null && InterceptedSite.isEnabled()) {
+                site.rules().clear();
+            } else if (site != null) {
+                InterceptedSite.detach(d);
+            }
+
+            List<String> handles = new ArrayList<>(d.getWindowHandles());
+            for (int i = 1; i < handles.size(); i++) {
+                d.switchTo().window(handles.get(i));
+                d.close();
+            }
+            d.switchTo().window(handles.get(0));
+
+            // sessionStorage survives clearDataForOrigin, so clear it from the page itself.
+            ((JavascriptExecutor) d).executeScript(
+                    "try {"
+                            + "  if (window.location.origin !== arguments[0]) return;"
+                            + "  window.localStorage.clear();"
+                            + "  window.sessionStorage.clear();"
+                            + "} catch (e) { /* ignore */ }",
+                    origin);
+
+            HasCdp cdp = (HasCdp) d;
+            for (String identifier : lease.documentScripts.values()) {
+                cdp.executeCdpCommand("Page.removeScriptToEvaluateOnNewDocument", Map.of("identifier", identifier));
+            }
+            lease.documentScripts.clear();
+            cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            cdp.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+            d.get("about:blank");
+            return true;
+        } catch (WebDriverException | ClassCastException e) {
+            return false;
+        }
+    }
+
+    private static boolean isHealthy(WebDriver d) {
+        try {
+            d.getTitle();
+            return !d.getWindowHandles().isEmpty();
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private static void quitQuietly(WebDriver d) {
+        try {
+            d.quit();
+        } catch (WebDriverException ignored) {
+        }
+    }
+
+    public PoolMetrics metrics() {
+        List<Long> waits;
+        synchronized (leaseWaitNanos) {
+            waits = new ArrayList<>(leaseWaitNanos);
+        }
+        Collections.sort(waits);
+        return new PoolMetrics(
+                size,
+                launched.get(),
+                leases.get(),
+                reused.get(),
+                replaced.get(),
+                recycled.get(),
+                Duration.ofNanos(percentile(waits, 0.50)),
+                Duration.ofNanos(percentile(waits, 0.95)),
+                Duration.ofNanos(waits.isEmpty() ? 0 : waits.get(waits.size() - 1)));
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    /**
+     * A browser on loan from the pool. The underlying session may be swapped when it dies,
+     * so callers should always go through {@link #driver()}.
+     */
+    public static final class Lease {
+
+        private volatile WebDriver driver;
+        private int uses;
+        private WebDriver decorated;
+        private WebDriver decoratedFrom;
+        // Scripts added with ensureDocumentScript, by name, with their CDP identifiers.
+        private final Map<String, String> documentScripts = new ConcurrentHashMap<>();
+
+        private Lease(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        /**
+         * The undecorated session, for CDP and pool housekeeping.
+         */
+        public WebDriver driver() {
+            return driver;
+        }
+
+        /**
+         * The session seen through {@code decorator}, built once per underlying session.
+         */
+        public synchronized WebDriver decorated(UnaryOperator<WebDriver> decorator) {
+            WebDriver current = driver;
+            if (decoratedFrom != current) {
+                decorated = decorator.apply(current);
+                decoratedFrom = current;
+            }
+            return decorated;
+        }
+
+        /**
+         * Runs {@code source} at the start of every document this lease's browser loads, until
+         * the lease is released. Adding a name that is already present does nothing.
+         */
+        public void ensureDocumentScript(String name, String source) {
+            documentScripts.computeIfAbsent(name, k -> {
+                Map<String, Object> added = ((HasCdp) driver).executeCdpCommand(
+                        "Page.addScriptToEvaluateOnNewDocument", Map.of("source", source));
+                return String.valueOf(added.get("identifier"));
+            });
+        }
+    }
+
+    /**
+     * {@code replaced} counts sessions relaunched because they died or could not be reset,
+     * {@code recycled} those relaunched after {@code ws.pool.maxUses} leases.
+     */
+    public record PoolMetrics(
+            int size,
+            long launched,
+            long leases,
+            long reused,
+            long replaced,
+            long recycled,
+            Duration leaseWaitP50,
+            Duration leaseWaitP95,
+            Duration leaseWaitMax) {
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "DriverPool size=%d launched=%d leases=%d reused=%d replaced=%d recycled=%d "
+                            + "leaseWait p50=%dms p95=%dms max=%dms",
+                    size, launched, leases, reused, replaced, recycled,
+                    leaseWaitP50.toMillis(), leaseWaitP95.toMillis(), leaseWaitMax.toMillis());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.base;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Wall time of test and configuration methods, by {@code <class>.<method>}, as a tab separated
+ * file ({@code .perf/test-durations.tsv} by default, or {@code ws.shard.durations}).
+ * <p>
+ * Each entry holds the invocations of one run, their total and the first invocation's time;
+ * the first call of a fixture such as {@code PaymentsTest.setupPayment} pays for the snapshot
+ * every later call restores, which is what a shard pays again when a class is split. A run is
+ * folded into the history by {@link #blend}, which averages it with the previous value so one
+ * slow run does not swing the shard plan.
+ */
+public final class DurationHistory {
+
+    static final String HEADER = "# method\tinvocations\ttotal_ms\tfirst_ms";
+
+    private final Map<String, Entry> entries = new TreeMap<>();
+
+    public static Path defaultFile() {
+        return Paths.get(System.getProperty("ws.shard.durations", ".perf/test-durations.tsv"));
+    }
+
+    /**
+     * The history in {@code file}, or an empty one when it is missing or unreadable.
+     */
+    public static DurationHistory load(Path file) {
+        DurationHistory history = new DurationHistory();
+        if (!Files.isRegularFile(file)) {
+            return history;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] cols = line.split("\t");
+                if (cols.length == 4) {
+                    history.entries.put(cols[0], new Entry(
+                            Integer.parseInt(cols[1]), Double.parseDouble(cols[2]), Double.parseDouble(cols[3])));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // A damaged history only costs the balancing; start over.
+            history.entries.clear();
+        }
+        return history;
+    }
+
+    public void save(Path file) {
+        StringBuilder out = new StringBuilder(HEADER).append('\n');
+        synchronized (entries) {
+            entries.forEach((key, e) -> out.append(String.format(Locale.ROOT, "%s\t%d\t%.1f\t%.1f%n",
+                    key, e.invocations, e.totalMs, e.firstMs)));
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(file, out, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+    }
+
+    /**
+     * Adds one invocation of {@code key} taking {@code millis}.
+     */
+    public void record(String key, double millis) {
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            entries.put(key, e == null
+                    ? new Entry(1, millis, millis)
+                    : new Entry(e.invocations + 1, e.totalMs + millis, e.firstMs));
+        }
+    }
+
+    /**
+     * Folds {@code run} in: entries it has take its invocation count, with their mean and first
+     * invocation averaged with the history's; the others are kept as they are, so a run only
+     * updates the methods it ran. Blend a whole run at once: shards of one run are
+     * {@link #merge}d first.
+     */
+    public void blend(DurationHistory run) {
+        synchronized (entries) {
+            run.entries.forEach((key, now) -> {
+                Entry before = entries.get(key);
+                double mean = before == null ? now.totalMs / now.invocations
+                        : (before.totalMs / before.invocations + now.totalMs / now.invocations) / 2;
+                entries.put(key, before == null ? now : new Entry(
+                        now.invocations,
+                        mean * now.invocations,
+                        (before.firstMs + now.firstMs) / 2));
+            });
+        }
+    }
+
+    /**
+     * Adds {@code shard}, another part of the same run, in: invocations and totals of a key
+     * split across shards are summed, and its first invocation is the slowest shard's first,
+     * the one that paid for building the shared state.
+     */
+    public void merge(DurationHistory shard) {
+        synchronized (entries) {
+            shard.entries.forEach((key, part) -> entries.merge(key, part, (a, b) -> new Entry(
+                    a.invocations + b.invocations,
+                    a.totalMs + b.totalMs,
+                    Math.max(a.firstMs, b.firstMs))));
+        }
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Total milliseconds of all invocations of {@code key} in a run, or {@code fallback}.
+     */
+    public double totalMillis(String key, double fallback) {
+        Entry e = entries.get(key);
+        return e == null ? fallback : e.totalMs;
+    }
+
+    /**
+     * Milliseconds of an average invocation of {@code key}, or 0 when unknown.
+     */
+    public double meanMillis(String key) {
+        Entry e = entries.get(key);
+        return e == null ? 0 : e.totalMs / e.invocations;
+    }
+
+    /**
+     * How much longer the first invocation of {@code key} takes than an average one.
+     */
+    public double firstCallPremiumMillis(String key) {
+        Entry e = entries.get(key);
+        return e == null || e.invocations < 2 ? 0 : Math.max(0, e.firstMs - e.totalMs / e.invocations);
+    }
+
+    public int invocations(String key) {
+        Entry e = entries.get(key);
+        return e == null ? 1 : e.invocations;
+    }
+
+    private record Entry(int invocations, double totalMs, double firstMs) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.base;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Arithmetic of {@link DurationHistory}; needs no browser.
+ */
+public class DurationHistoryTest {
+
+    @Test
+    public void verifyRecordKeepsFirstCallAndTotals() {
+        DurationHistory run = new DurationHistory();
+        run.record("PaymentsTest.setupPayment", 900);
+        run.record("PaymentsTest.setupPayment", 100);
+        run.record("PaymentsTest.setupPayment", 200);
+
+        Assert.assertEquals(run.invocations("PaymentsTest.setupPayment"), 3);
+        Assert.assertEquals(run.totalMillis("PaymentsTest.setupPayment", -1), 1200.0);
+        Assert.assertEquals(run.meanMillis("PaymentsTest.setupPayment"), 400.0);
+        Assert.assertEquals(run.firstCallPremiumMillis("PaymentsTest.setupPayment"), 500.0);
+        Assert.assertEquals(run.totalMillis("Unknown.test", 42), 42.0);
+        Assert.assertEquals(run.invocations("Unknown.test"), 1);
+    }
+
+    @Test
+    public void verifyBlendAveragesMeansAndKeepsUnseenKeys() {
+        DurationHistory history = new DurationHistory();
+        history.record("A.fixture", 300);
+        history.record("A.fixture", 100);
+        history.record("B.test", 1000);
+
+        DurationHistory run = new DurationHistory();
+        run.record("A.fixture", 500);
+        run.record("A.fixture", 300);
+        run.record("A.fixture", 400);
+        history.blend(run);
+
+        // Means 200 and 400 average to 300, over the run's 3 invocations.
+        Assert.assertEquals(history.invocations("A.fixture"), 3);
+        Assert.assertEquals(history.totalMillis("A.fixture", -1), 900.0, 0.001);
+        Assert.assertEquals(history.meanMillis("A.fixture"), 300.0, 0.001);
+        Assert.assertEquals(history.firstCallPremiumMillis("A.fixture"), 100.0, 0.001);
+        Assert.assertEquals(history.totalMillis("B.test", -1), 1000.0);
+    }
+
+    @Test
+    public void verifyShardsMergeIntoOneRunBeforeBlending() {
+        DurationHistory shard1 = new DurationHistory();
+        shard1.record("PaymentsTest.setupPayment", 900);
+        shard1.record("PaymentsTest.setupPayment", 100);
+        DurationHistory shard2 = new DurationHistory();
+        shard2.record("PaymentsTest.setupPayment", 700);
+        shard2.record("PaymentsTest.setupPayment", 100);
+        shard2.record("PaymentsTest.setupPayment", 100);
+
+        DurationHistory run = new DurationHistory();
+        run.merge(shard1);
+        run.merge(shard2);
+
+        Assert.assertEquals(run.invocations("PaymentsTest.setupPayment"), 5);
+        Assert.assertEquals(run.totalMillis("PaymentsTest.setupPayment", -1), 1900.0);
+        Assert.assertEquals(run.firstCallPremiumMillis("PaymentsTest.setupPayment"), 900.0 - 380.0, 0.001);
+    }
+
+    @Test
+    public void verifySaveAndLoadRoundTrip() throws IOException {
+        Path file = Files.createTempFile("durations", ".tsv");
+        try {
+            DurationHistory history = new DurationHistory();
+            history.record("CartTest.verifyCartPageTitle", 412.5);
+            history.record("CartTest.verifyCartPageTitle", 100);
+            history.save(file);
+
+            DurationHistory loaded = DurationHistory.load(file);
+            Assert.assertEquals(loaded.invocations("CartTest.verifyCartPageTitle"), 2);
+            Assert.assertEquals(loaded.totalMillis("CartTest.verifyCartPageTitle", -1), 512.5);
+            Assert.assertEquals(loaded.firstCallPremiumMillis("CartTest.verifyCartPageTitle"), 412.5 - 256.25, 0.001);
+
+            Files.writeString(file, "CartTest.verifyCartPageTitle\tnot-a-number\t1\t1\n");
+            Assert.assertTrue(DurationHistory.load(file).isEmpty(), "A damaged file should load as empty");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.base;
+
+import java.nio.file.Paths;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+/**
+ * Times every test and configuration method of the suite into {@link DurationHistory}, the
+ * input of {@link ShardPlanner}.
+ * <p>
+ * When the suite finishes, this run's times are written to {@code target/test-durations.tsv}
+ * and blended into the history file. Shards on CI each upload their run file and
+ * {@link ShardReportMerger} blends them all into the shared history.
+ */
+public class DurationRecorder implements IInvokedMethodListener, ISuiteListener {
+
+    private static final DurationHistory RUN = new DurationHistory();
+
+    /**
+     * History key of {@code method} for the class it runs in, e.g.
+     * {@code com.example.tests.PaymentsTest.setupPayment} or, for inherited fixtures,
+     * {@code com.example.tests.PaymentsTest.bindDriver}.
+     */
+    static String keyOf(ITestNGMethod method) {
+        return method.getTestClass().getRealClass().getName() + "." + method.getMethodName();
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (testResult.getStatus() == ITestResult.SKIP || testResult.getEndMillis() <= 0
+                || testResult.getAttribute(TabExecutor.REPORTED) != null) {
+            return;
+        }
+        RUN.record(keyOf(testResult.getMethod()), testResult.getEndMillis() - testResult.getStartMillis());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (RUN.isEmpty()) {
+            return;
+        }
+        RUN.save(Paths.get("target", "test-durations.tsv"));
+        DurationHistory history = DurationHistory.load(DurationHistory.defaultFile());
+        history.blend(RUN);
+        history.save(DurationHistory.defaultFile());
+    }
+}
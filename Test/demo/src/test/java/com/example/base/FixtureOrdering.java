@@ -0,0 +1,83 @@
+package com.example.base;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestClass;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+/**
+ * Runs each class's {@link ReadOnly} tests first and back to back, then the rest, so the read
+ * only ones share the page their class prepared once instead of rebuilding it for every test.
+ * <p>
+ * Classes keep the order they came in and stay contiguous; within each group the tests keep
+ * their relative order. Registered after {@link ShardPlanner} and {@link ResultCache}, so it
+ * orders whatever is left to run on this shard.
+ * <p>
+ * Under {@code -Dws.tabs} the read-only tests that can run in a tab come first within their
+ * class, and are remembered as the batch {@link BaseTest} runs across tabs (see
+ * {@link #tabBatchFrom}).
+ */
+public class FixtureOrdering implements IMethodInterceptor {
+
+    private static final Map<ITestClass, List<ITestNGMethod>> TAB_BATCHES = new ConcurrentHashMap<>();
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        Map<ITestClass, List<IMethodInstance>> readOnly = new LinkedHashMap<>();
+        Map<ITestClass, List<IMethodInstance>> others = new LinkedHashMap<>();
+        for (IMethodInstance m : methods) {
+            ITestClass testClass = m.getMethod().getTestClass();
+            readOnly.computeIfAbsent(testClass, k -> new ArrayList<>());
+            others.computeIfAbsent(testClass, k -> new ArrayList<>());
+            (isReadOnly(m) ? readOnly : others).get(testClass).add(m);
+        }
+        List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+        for (ITestClass testClass : readOnly.keySet()) {
+            List<IMethodInstance> group = readOnly.get(testClass);
+            if (TabExecutor.isEnabled()) {
+                group.sort(Comparator.comparing(m -> !runsInTabs(m.getMethod())));
+                List<ITestNGMethod> batch = new ArrayList<>();
+                group.stream().filter(m -> runsInTabs(m.getMethod())).forEach(m -> batch.add(m.getMethod()));
+                TAB_BATCHES.put(testClass, batch);
+            }
+            ordered.addAll(group);
+            ordered.addAll(others.get(testClass));
+        }
+        return ordered;
+    }
+
+    /**
+     * True for a {@link ReadOnly} test that may run in a tab: one plain invocation, with no
+     * parameters (so no data provider) or dependencies.
+     */
+    static boolean runsInTabs(ITestNGMethod method) {
+        ReadOnly readOnly = method.getConstructorOrMethod().getMethod().getAnnotation(ReadOnly.class);
+        return readOnly != null && readOnly.tabs()
+                && method.getParameterTypes().length == 0
+                && method.getInvocationCount() == 1
+                && method.getMethodsDependedUpon().length == 0
+                && method.getGroupsDependedUpon().length == 0;
+    }
+
+    /**
+     * {@code method} and the tab-eligible read-only tests of its class ordered after it, or just
+     * {@code method} when it was not ordered here.
+     */
+    static List<ITestNGMethod> tabBatchFrom(ITestNGMethod method) {
+        List<ITestNGMethod> batch = TAB_BATCHES.getOrDefault(method.getTestClass(), List.of());
+        int from = batch.indexOf(method);
+        return from < 0 ? List.of(method) : List.copyOf(batch.subList(from, batch.size()));
+    }
+
+    static boolean isReadOnly(IMethodInstance m) {
+        return m.getMethod().getConstructorOrMethod().getMethod().isAnnotationPresent(ReadOnly.class);
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.base;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.chromium.HasCdp;
+
+/**
+ * Soak harness for JS heap, DOM node and event listener leaks in one browser session.
+ * <p>
+ * {@link #run} repeats a page object journey, forces a garbage collection after every cycle
+ * (CDP {@code HeapProfiler.collectGarbage}) and samples {@code Performance.getMetrics}. The
+ * first {@code ws.soak.warmup} (20) cycles are dropped, and a least-squares line through the
+ * rest gives each metric's growth per iteration. A page that cleans up after itself stays
+ * flat; anything retained per cycle shows up as a steady slope, well above the noise of single
+ * samples. {@link Result#assertWithin} fails the test when a slope exceeds its {@link Limits}.
+ * <pre>
+ * soak("cart +/-").run(200, () -&gt; {
+ *     cart.increaseQuantity("neo-chrono");
+ *     cart.decreaseQuantity("neo-chrono");
+ * }).assertWithin(LeakSoak.Limits.DEFAULT);
+ * </pre>
+ */
+public final class LeakSoak {
+
+    static final String HEAP = "JSHeapUsedSize";
+    static final String NODES = "Nodes";
+    static final String LISTENERS = "JSEventListeners";
+    private static final List<String> METRICS = List.of(HEAP, NODES, LISTENERS);
+
+    private final String name;
+    private final HasCdp cdp;
+
+    LeakSoak(String name, HasCdp cdp) {
+        this.name = name;
+        this.cdp = cdp;
+    }
+
+    /**
+     * Runs {@code cycle} {@code iterations} times after {@code ws.soak.warmup} warm-up cycles,
+     * sampling after each measured one.
+     */
+    public Result run(int iterations, Runnable cycle) {
+        if (iterations < 2) {
+            throw new IllegalArgumentException("A trend needs at least 2 iterations, got " + iterations);
+        }
+        int warmup = Integer.getInteger("ws.soak.warmup", 20);
+        cdp.executeCdpCommand("Performance.enable", Map.of());
+        try {
+            for (int i = 0; i < warmup; i++) {
+                cycle.run();
+            }
+            Map<String, double[]> series = new LinkedHashMap<>();
+            METRICS.forEach(m -> series.put(m, new double[iterations]));
+            for (int i = 0; i < iterations; i++) {
+                cycle.run();
+                Map<String, Double> sample = sample();
+                for (String metric : METRICS) {
+                    series.get(metric)[i] = sample.getOrDefault(metric, 0.0);
+                }
+            }
+            return new Result(name, warmup, series);
+        } finally {
+            cdp.executeCdpCommand("Performance.disable", Map.of());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Double> sample() {
+        cdp.executeCdpCommand("HeapProfiler.collectGarbage", Map.of());
+        List<Map<String, Object>> metrics =
+                (List<Map<String, Object>>) cdp.executeCdpCommand("Performance.getMetrics", Map.of()).get("metrics");
+        Map<String, Double> values = new HashMap<>();
+        for (Map<String, Object> metric : metrics) {
+            values.put(String.valueOf(metric.get("name")), ((Number) metric.get("value")).doubleValue());
+        }
+        return values;
+    }
+
+    /**
+     * Least-squares slope of {@code values} against their index.
+     */
+    static double slope(double[] values) {
+        int n = values.length;
+        if (n < 2) {
+            return 0;
+        }
+        double meanX = (n - 1) / 2.0;
+        double meanY = 0;
+        for (double v : values) {
+            meanY += v;
+        }
+        meanY /= n;
+        double num = 0;
+        double den = 0;
+        for (int i = 0; i < n; i++) {
+            num += (i - meanX) * (values[i] - meanY);
+            den += (i - meanX) * (i - meanX);
+        }
+        return num / den;
+    }
+
+    /**
+     * Largest growth per iteration each metric may show. {@link #DEFAULT} reads
+     * {@code ws.soak.maxHeapBytesPerIteration} (4096), {@code ws.soak.maxNodesPerIteration} (1)
+     * and {@code ws.soak.maxListenersPerIteration} (0.5).
+     */
+    public record Limits(double heapBytes, double nodes, double listeners) {
+
+        public static final Limits DEFAULT = new Limits(
+                Double.parseDouble(System.getProperty("ws.soak.maxHeapBytesPerIteration", "4096")),
+                Double.parseDouble(System.getProperty("ws.soak.maxNodesPerIteration", "1")),
+                Double.parseDouble(System.getProperty("ws.soak.maxListenersPerIteration", "0.5")));
+    }
+
+    public static final class Result {
+
+        private final String name;
+        private final int warmup;
+        private final Map<String, double[]> series;
+
+        Result(String name, int warmup, Map<String, double[]> series) {
+            this.name = name;
+            this.warmup = warmup;
+            this.series = series;
+        }
+
+        public int iterations() {
+            return series.get(HEAP).length;
+        }
+
+        public double heapGrowthPerIteration() {
+            return slope(series.get(HEAP));
+        }
+
+        public double nodeGrowthPerIteration() {
+            return slope(series.get(NODES));
+        }
+
+        public double listenerGrowthPerIteration() {
+            return slope(series.get(LISTENERS));
+        }
+
+        /**
+         * Fails with the full trend table if any metric grows faster than {@code limits} allow.
+         */
+        public Result assertWithin(Limits limits) {
+            List<String> failures = new ArrayList<>();
+            if (heapGrowthPerIteration() > limits.heapBytes()) {
+                failures.add(String.format("JS heap grows %.0f B/iteration (limit %.0f)", heapGrowthPerIteration(), limits.heapBytes()));
+            }
+            if (nodeGrowthPerIteration() > limits.nodes()) {
+                failures.add(String.format("DOM nodes grow %.2f/iteration (limit %.2f)", nodeGrowthPerIteration(), limits.nodes()));
+            }
+            if (listenerGrowthPerIteration() > limits.listeners()) {
+                failures.add(String.format("Event listeners grow %.2f/iteration (limit %.2f)",
+                        listenerGrowthPerIteration(), limits.listeners()));
+            }
+            if (!failures.isEmpty()) {
+                throw new AssertionError(String.join("; ", failures) + "\n" + this);
+            }
+            return this;
+        }
+
+        /**
+         * One value per measured iteration: iteration, heap bytes, nodes, listeners.
+         */
+        public String toCsv() {
+            StringBuilder csv = new StringBuilder("iteration,js_heap_bytes,nodes,listeners\n");
+            for (int i = 0; i < iterations(); i++) {
+                csv.append(String.format("%d,%.0f,%.0f,%.0f%n", warmup + i + 1,
+                        series.get(HEAP)[i], series.get(NODES)[i], series.get(LISTENERS)[i]));
+            }
+            return csv.toString();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder(String.format("%s: %d iterations after %d warm-up%n",
+                    name, iterations(), warmup));
+            out.append(String.format("  %-18s %12s %12s %14s%n", "metric", "first", "last", "per iteration"));
+            for (Map.Entry<String, double[]> e : series.entrySet()) {
+                double[] v = e.getValue();
+                out.append(String.format("  %-18s %12.0f %12.0f %14.2f%n",
+                        e.getKey(), v[0], v[v.length - 1], slope(v)));
+            }
+            return out.toString();
+        }
+    }
+}
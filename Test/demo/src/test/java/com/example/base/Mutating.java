@@ -0,0 +1,17 @@
+package com.example.base;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test that changes the state its class prepares, so it always starts from a fresh
+ * setup. Tests with neither this nor {@link ReadOnly} are treated the same way.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Mutating {
+}
@@ -0,0 +1,37 @@
+package com.example.base;
+
+import java.util.List;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * Lets the parallel mode from testng.xml be overridden from the command line:
+ * <pre>
+ * mvn test -Dws.parallel=methods -Dws.threads=16
+ * </pre>
+ * {@code ws.parallel} accepts any TestNG mode (none, methods, classes, tests, instances).
+ * {@code ws.threads} defaults to the number of available processors.
+ */
+public class ParallelSuiteListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String parallel = System.getProperty("ws.parallel", "").trim();
+        if (parallel.isEmpty()) {
+            return;
+        }
+        XmlSuite.ParallelMode mode = XmlSuite.ParallelMode.getValidParallel(parallel);
+        int threads = Integer.getInteger("ws.threads", Runtime.getRuntime().availableProcessors());
+
+        for (XmlSuite suite : suites) {
+            suite.setParallel(mode);
+            suite.setThreadCount(threads);
+            for (XmlTest test : suite.getTests()) {
+                test.setParallel(mode);
+                test.setThreadCount(threads);
+            }
+        }
+    }
+}
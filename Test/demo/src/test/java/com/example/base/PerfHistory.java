@@ -0,0 +1,340 @@
+package com.example.base;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Append-only history of the suite's performance, one segment per run and keyed by commit
+ * ({@code .perf/perf-history.bin} by default, or {@code ws.perf.history}).
+ * <p>
+ * A segment holds the commit, when it ran and its {@link Sample}s: test and fixture
+ * durations, WebDriver command counts and page-load metrics. Keys are written once per
+ * segment and samples refer to them by index, with lengths and values as varints, so a run
+ * of the whole suite takes a few kilobytes. Consecutive segments of the same commit (the
+ * shards of one CI run, or repeated local runs) form one {@link Run}. A segment cut short
+ * by a crash ends the history rather than failing it.
+ */
+public final class PerfHistory {
+
+    private static final int MAGIC = 0x57535048; // "WSPH"
+    private static final int VERSION = 1;
+
+    /**
+     * What a sample measures. Stored by ordinal: only ever add kinds at the end.
+     */
+    public enum Kind {
+        TEST("ms"),
+        STEP("ms"),
+        COMMANDS("calls"),
+        PAGE_TTFB("ms"),
+        PAGE_LCP("ms"),
+        PAGE_LOAD("ms"),
+        PAGE_TBT("ms");
+
+        private final String unit;
+
+        Kind(String unit) {
+            this.unit = unit;
+        }
+
+        public String unit() {
+            return unit;
+        }
+    }
+
+    private final List<Segment> segments;
+
+    private PerfHistory(List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    public static Path defaultFile() {
+        return Paths.get(System.getProperty("ws.perf.history", ".perf/perf-history.bin"));
+    }
+
+    /**
+     * The history in {@code file}, or an empty one when it is missing or not a history file.
+     */
+    public static PerfHistory load(Path file) {
+        List<Segment> segments = new ArrayList<>();
+        if (!Files.isRegularFile(file)) {
+            return new PerfHistory(segments);
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                return new PerfHistory(segments);
+            }
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException end) {
+                    break;
+                }
+                byte[] body = in.readNBytes(length);
+                if (body.length < length) {
+                    break;
+                }
+                segments.add(decode(body));
+            }
+        } catch (IOException | RuntimeException e) {
+            // Keep the segments read so far; the rest was damaged.
+        }
+        return new PerfHistory(segments);
+    }
+
+    /**
+     * Appends {@code segment} to {@code file}, creating the file if needed. A file that is not
+     * a history of this version is moved aside to {@code <file>.old} and started over.
+     */
+    public static void append(Path file, Segment segment) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            if (Files.isRegularFile(file) && Files.size(file) > 0 && !hasHeader(file)) {
+                Files.move(file, file.resolveSibling(file.getFileName() + ".old"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            boolean fresh = !Files.isRegularFile(file) || Files.size(file) == 0;
+            try (OutputStream raw = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    DataOutputStream out = new DataOutputStream(raw)) {
+                if (fresh) {
+                    out.writeInt(MAGIC);
+                    out.writeByte(VERSION);
+                }
+                byte[] body = encode(segment);
+                out.writeInt(body.length);
+                out.write(body);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean hasHeader(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return in.readInt() == MAGIC && in.readUnsignedByte() == VERSION;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    public List<Segment> segments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * Runs, oldest first: consecutive segments of the same commit are merged.
+     */
+    public List<Run> runs() {
+        List<Run> runs = new ArrayList<>();
+        for (Segment segment : segments) {
+            Run last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+            if (last != null && last.commit().equals(segment.commit())) {
+                List<Sample> samples = new ArrayList<>(last.samples());
+                samples.addAll(segment.samples());
+                runs.set(runs.size() - 1, new Run(last.commit(), last.at(), samples));
+            } else {
+                runs.add(new Run(segment.commit(), segment.at(), segment.samples()));
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Keys of {@code kind} whose p95 is more than {@code maxIncreasePercent} and
+     * {@code minIncrease} above their p95 over the {@code baselineRuns} runs before, in each of
+     * the latest {@code confirmRuns} runs. A CI run has one sample per test, so one slow runner
+     * alone does not make a regression. Keys seen in fewer than {@code minBaselineRuns} of the
+     * baseline runs have no baseline yet.
+     */
+    public List<Regression> regressions(Kind kind, double maxIncreasePercent, long minIncrease,
+            int baselineRuns, int minBaselineRuns, int confirmRuns) {
+        List<Run> runs = runs();
+        List<Regression> regressions = new ArrayList<>();
+        int window = Math.max(1, confirmRuns);
+        if (runs.size() < window + 1) {
+            return regressions;
+        }
+        List<Run> current = runs.subList(runs.size() - window, runs.size());
+        List<Run> baseline = runs.subList(Math.max(0, runs.size() - window - baselineRuns), runs.size() - window);
+        Map<String, List<Long>> before = new TreeMap<>();
+        Map<String, Integer> seenIn = new TreeMap<>();
+        for (Run run : baseline) {
+            Map<String, List<Long>> values = run.values(kind);
+            values.forEach((key, v) -> {
+                before.computeIfAbsent(key, k -> new ArrayList<>()).addAll(v);
+                seenIn.merge(key, 1, Integer::sum);
+            });
+        }
+        before.forEach((key, then) -> {
+            if (seenIn.get(key) < minBaselineRuns) {
+                return;
+            }
+            long base = percentile(then, 95);
+            // The least regressed of the window's runs; all of them have to be above the limit.
+            long p95 = Long.MAX_VALUE;
+            int samples = 0;
+            for (Run run : current) {
+                List<Long> now = run.values(kind).get(key);
+                if (now == null) {
+                    return;
+                }
+                p95 = Math.min(p95, percentile(now, 95));
+                samples += now.size();
+            }
+            if (p95 - base >= minIncrease && p95 > base * (1 + maxIncreasePercent / 100)) {
+                regressions.add(new Regression(kind, key, base, p95, then.size(), samples));
+            }
+        });
+        regressions.sort((a, b) -> Double.compare(b.increasePercent(), a.increasePercent()));
+        return regressions;
+    }
+
+    /**
+     * Nearest-rank percentile of {@code values}; 0 when there are none.
+     */
+    public static long percentile(List<Long> values, double p) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(p / 100 * sorted.size());
+        return sorted.get(Math.min(sorted.size(), Math.max(1, rank)) - 1);
+    }
+
+    static byte[] encode(Segment segment) throws IOException {
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        for (Sample sample : segment.samples()) {
+            keys.putIfAbsent(sample.key(), keys.size());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(segment.commit());
+        out.writeLong(segment.at().toEpochMilli());
+        writeVarLong(out, keys.size());
+        for (String key : keys.keySet()) {
+            out.writeUTF(key);
+        }
+        writeVarLong(out, segment.samples().size());
+        for (Sample sample : segment.samples()) {
+            out.writeByte(sample.kind().ordinal());
+            writeVarLong(out, keys.get(sample.key()));
+            writeVarLong(out, Math.max(0, sample.value()));
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static Segment decode(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        String commit = in.readUTF();
+        Instant at = Instant.ofEpochMilli(in.readLong());
+        String[] keys = new String[(int) readVarLong(in)];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = in.readUTF();
+        }
+        Kind[] kinds = Kind.values();
+        int count = (int) readVarLong(in);
+        List<Sample> samples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int kind = in.readUnsignedByte();
+            String key = keys[(int) readVarLong(in)];
+            long value = readVarLong(in);
+            // Kinds from a newer writer are skipped, not misread.
+            if (kind < kinds.length) {
+                samples.add(new Sample(kinds[kind], key, value));
+            }
+        }
+        return new Segment(commit, at, List.copyOf(samples));
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * One measurement, e.g. {@code TEST com.example.tests.CartTest.verifyCartPageTitle 412}.
+     */
+    public record Sample(Kind kind, String key, long value) {
+    }
+
+    /**
+     * What one suite (or shard) run appended.
+     */
+    public record Segment(String commit, Instant at, List<Sample> samples) {
+    }
+
+    /**
+     * Everything recorded for one commit in a row; {@code at} is when its first segment ran.
+     */
+    public record Run(String commit, Instant at, List<Sample> samples) {
+
+        /**
+         * The values of {@code kind}, by key.
+         */
+        public Map<String, List<Long>> values(Kind kind) {
+            Map<String, List<Long>> values = new TreeMap<>();
+            for (Sample sample : samples) {
+                if (sample.kind() == kind) {
+                    values.computeIfAbsent(sample.key(), k -> new ArrayList<>()).add(sample.value());
+                }
+            }
+            return values;
+        }
+    }
+
+    public record Regression(Kind kind, String key, long baselineP95, long currentP95, int baselineSamples,
+            int currentSamples) {
+
+        public double increasePercent() {
+            return baselineP95 == 0 ? Double.POSITIVE_INFINITY : 100.0 * (currentP95 - baselineP95) / baselineP95;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s p95 %d -> %d %s (+%.0f%%, %d baseline / %d current samples)",
+                    key, baselineP95, currentP95, kind.unit(), increasePercent(), baselineSamples, currentSamples);
+        }
+    }
+}
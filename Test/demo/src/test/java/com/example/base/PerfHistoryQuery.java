@@ -0,0 +1,210 @@
+package com.example.base;
+
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.example.base.PerfHistory.Kind;
+import com.example.base.PerfHistory.Regression;
+import com.example.base.PerfHistory.Run;
+
+/**
+ * Trends, percentiles and the regression gate over {@link PerfHistory}:
+ * <pre>
+ * java -cp Test/demo/target/test-classes com.example.base.PerfHistoryQuery runs
+ * java -cp ... PerfHistoryQuery trend CartTest.verifyCartPageTitle
+ * java -cp ... PerfHistoryQuery percentiles --kind PAGE_LCP --runs 5
+ * java -cp ... PerfHistoryQuery gate --max-increase 25
+ * </pre>
+ * Every command takes {@code --history <file>} (default {@link PerfHistory#defaultFile()}),
+ * {@code --kind} (TEST) and {@code --runs}. {@code gate} exits with status 1 when a key's p95
+ * regressed against the rolling baseline in each of the latest {@code --confirm-runs} runs; its
+ * limits default to {@link Gate#configured()}.
+ */
+public final class PerfHistoryQuery {
+
+    private static final DateTimeFormatter WHEN =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm", Locale.ROOT).withZone(ZoneOffset.UTC);
+    private static final int BAR = 30;
+
+    private PerfHistoryQuery() {
+    }
+
+    /**
+     * Limits of the regression gate. {@code -Dws.perf.regression.pct} (25) is the largest
+     * allowed p95 increase, {@code -Dws.perf.regression.min} (50) the smallest increase, in the
+     * kind's unit, worth failing for, and it has to show in each of the latest
+     * {@code -Dws.perf.regression.runs} (2) runs; the baseline is the
+     * {@code -Dws.perf.baseline.runs} (10) runs before those and a key needs
+     * {@code -Dws.perf.baseline.min} (3) of them to have one.
+     */
+    public record Gate(double maxIncreasePercent, long minIncrease, int baselineRuns, int minBaselineRuns,
+            int confirmRuns) {
+
+        public static Gate configured() {
+            return new Gate(
+                    Double.parseDouble(System.getProperty("ws.perf.regression.pct", "25")),
+                    Long.getLong("ws.perf.regression.min", 50),
+                    Integer.getInteger("ws.perf.baseline.runs", 10),
+                    Integer.getInteger("ws.perf.baseline.min", 3),
+                    Integer.getInteger("ws.perf.regression.runs", 2));
+        }
+
+        public List<Regression> check(PerfHistory history, Kind kind) {
+            return history.regressions(kind, maxIncreasePercent, minIncrease, baselineRuns, minBaselineRuns,
+                    confirmRuns);
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--") && i + 1 < args.length) {
+                options.put(args[i].substring(2), args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        if (positional.isEmpty()) {
+            usage();
+        }
+        Path file = options.containsKey("history") ? Path.of(options.get("history")) : PerfHistory.defaultFile();
+        PerfHistory history = PerfHistory.load(file);
+        Kind kind = Kind.valueOf(options.getOrDefault("kind", "TEST").toUpperCase(Locale.ROOT));
+        List<Run> runs = history.runs();
+
+        switch (positional.get(0)) {
+            case "runs":
+                printRuns(runs);
+                break;
+            case "trend":
+                if (positional.size() < 2) {
+                    usage();
+                }
+                printTrend(last(runs, intOption(options, "runs", 20)), kind, positional.get(1));
+                break;
+            case "percentiles":
+                printPercentiles(last(runs, intOption(options, "runs", 10)), kind,
+                        options.getOrDefault("match", ""), intOption(options, "top", 25));
+                break;
+            case "gate":
+                Gate defaults = Gate.configured();
+                Gate gate = new Gate(
+                        Double.parseDouble(options.getOrDefault("max-increase", String.valueOf(defaults.maxIncreasePercent()))),
+                        Long.parseLong(options.getOrDefault("min-increase", String.valueOf(defaults.minIncrease()))),
+                        intOption(options, "baseline", defaults.baselineRuns()),
+                        intOption(options, "min-baseline", defaults.minBaselineRuns()),
+                        intOption(options, "confirm-runs", defaults.confirmRuns()));
+                System.exit(printGate(history, kind, gate) ? 0 : 1);
+                break;
+            default:
+                usage();
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: PerfHistoryQuery [--history <file>] [--kind TEST|STEP|COMMANDS|PAGE_*] [--runs n]"
+                + " runs | trend <key> | percentiles [--match s] [--top n]"
+                + " | gate [--max-increase pct] [--min-increase n] [--baseline runs] [--min-baseline runs]"
+                + " [--confirm-runs n]");
+        System.exit(2);
+    }
+
+    private static int intOption(Map<String, String> options, String name, int fallback) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : fallback;
+    }
+
+    private static List<Run> last(List<Run> runs, int count) {
+        return runs.subList(Math.max(0, runs.size() - count), runs.size());
+    }
+
+    private static void printRuns(List<Run> runs) {
+        System.out.printf(Locale.ROOT, "%-14s %-16s %8s%n", "commit", "started (UTC)", "samples");
+        for (Run run : runs) {
+            System.out.printf(Locale.ROOT, "%-14s %-16s %8d%n", run.commit(), WHEN.format(run.at()), run.samples().size());
+        }
+    }
+
+    private static void printTrend(List<Run> runs, Kind kind, String match) {
+        Map<String, List<Map.Entry<Run, List<Long>>>> byKey = new TreeMap<>();
+        long max = 1;
+        for (Run run : runs) {
+            for (Map.Entry<String, List<Long>> e : run.values(kind).entrySet()) {
+                if (e.getKey().contains(match)) {
+                    byKey.computeIfAbsent(e.getKey(), k -> new ArrayList<>()).add(Map.entry(run, e.getValue()));
+                    max = Math.max(max, PerfHistory.percentile(e.getValue(), 95));
+                }
+            }
+        }
+        if (byKey.isEmpty()) {
+            System.out.println("No " + kind + " samples matching \"" + match + "\" in the last " + runs.size() + " runs");
+        }
+        for (Map.Entry<String, List<Map.Entry<Run, List<Long>>>> e : byKey.entrySet()) {
+            System.out.println(e.getKey());
+            for (Map.Entry<Run, List<Long>> r : e.getValue()) {
+                List<Long> values = r.getValue();
+                long p95 = PerfHistory.percentile(values, 95);
+                System.out.printf(Locale.ROOT, "  %-14s %-16s n=%-4d p50 %6d  p95 %6d  max %6d %s  %s%n",
+                        r.getKey().commit(), WHEN.format(r.getKey().at()), values.size(),
+                        PerfHistory.percentile(values, 50), p95, PerfHistory.percentile(values, 100), kind.unit(),
+                        "#".repeat((int) Math.round(BAR * (double) p95 / max)));
+            }
+        }
+    }
+
+    private static void printPercentiles(List<Run> runs, Kind kind, String match, int top) {
+        Map<String, List<Long>> values = new TreeMap<>();
+        for (Run run : runs) {
+            run.values(kind).forEach((key, v) -> {
+                if (key.contains(match)) {
+                    values.computeIfAbsent(key, k -> new ArrayList<>()).addAll(v);
+                }
+            });
+        }
+        System.out.printf(Locale.ROOT, "%s over the last %d runs (%s), slowest p95 first%n", kind, runs.size(), kind.unit());
+        System.out.printf(Locale.ROOT, "  %6s %7s %7s %7s %7s %7s  %s%n", "n", "p50", "p90", "p95", "p99", "max", "key");
+        values.entrySet().stream()
+                .sorted((a, b) -> Long.compare(PerfHistory.percentile(b.getValue(), 95), PerfHistory.percentile(a.getValue(), 95)))
+                .limit(top)
+                .forEach(e -> {
+                    List<Long> v = e.getValue();
+                    System.out.printf(Locale.ROOT, "  %6d %7d %7d %7d %7d %7d  %s%n", v.size(),
+                            PerfHistory.percentile(v, 50), PerfHistory.percentile(v, 90), PerfHistory.percentile(v, 95),
+                            PerfHistory.percentile(v, 99), PerfHistory.percentile(v, 100), e.getKey());
+                });
+    }
+
+    /**
+     * Prints the gate's verdict on the latest run; false when something regressed.
+     */
+    private static boolean printGate(PerfHistory history, Kind kind, Gate gate) {
+        List<Run> runs = history.runs();
+        if (runs.isEmpty()) {
+            System.out.println("No performance history yet");
+            return true;
+        }
+        List<Regression> regressions = gate.check(history, kind);
+        System.out.print(report(runs.get(runs.size() - 1), kind, gate, regressions));
+        return regressions.isEmpty();
+    }
+
+    static String report(Run current, Kind kind, Gate gate, List<Regression> regressions) {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT,
+                "%s p95 of the latest %d runs (up to %s) against the %d runs before them (fails above +%.0f%% and +%d %s): ",
+                kind, gate.confirmRuns(), current.commit(), gate.baselineRuns(), gate.maxIncreasePercent(),
+                gate.minIncrease(), kind.unit()));
+        if (regressions.isEmpty()) {
+            return out.append("no regressions").append(System.lineSeparator()).toString();
+        }
+        out.append(regressions.size()).append(" regressed").append(System.lineSeparator());
+        regressions.forEach(r -> out.append("  ").append(r).append(System.lineSeparator()));
+        return out.toString();
+    }
+}
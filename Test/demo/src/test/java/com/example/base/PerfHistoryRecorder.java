@@ -0,0 +1,142 @@
+package com.example.base;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import com.example.base.PerfHistory.Kind;
+import com.example.base.PerfHistory.Regression;
+import com.example.base.PerfHistory.Sample;
+import com.example.base.PerfHistory.Segment;
+import com.example.page.PagePerformance;
+
+/**
+ * Records each run of the suite into {@link PerfHistory}: test and fixture (step) durations
+ * by {@code <class>.<method>}, WebDriver command counts per test under
+ * {@code -Dws.trace=true}, and TTFB, LCP, load and Total Blocking Time of every page
+ * load measured through {@link PagePerformance}, by page.
+ * <p>
+ * When the suite finishes the run is written to {@code target/perf-run.bin} and appended to
+ * the history, keyed by {@code -Dws.perf.commit}, {@code GITHUB_SHA} or the checked out
+ * commit. The p95 of each test is then checked against the rolling baseline
+ * ({@link PerfHistoryQuery.Gate}) and regressions are reported; {@code PerfHistoryQuery gate}
+ * turns them into a failing exit status for CI.
+ */
+public class PerfHistoryRecorder implements IInvokedMethodListener, ISuiteListener {
+
+    private static final Queue<Sample> RUN = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void onStart(ISuite suite) {
+        PagePerformance.observe(PerfHistoryRecorder::recordPage);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (testResult.getStatus() == ITestResult.SKIP || testResult.getEndMillis() <= 0
+                || testResult.getAttribute(TabExecutor.REPORTED) != null) {
+            return;
+        }
+        RUN.add(new Sample(method.isTestMethod() ? Kind.TEST : Kind.STEP,
+                DurationRecorder.keyOf(testResult.getMethod()),
+                testResult.getEndMillis() - testResult.getStartMillis()));
+    }
+
+    /**
+     * WebDriver commands the test behind {@code result} issued.
+     */
+    static void recordCommands(ITestResult result, long calls) {
+        if (result.getAttribute(TabExecutor.REPORTED) != null) {
+            return;
+        }
+        RUN.add(new Sample(Kind.COMMANDS, DurationRecorder.keyOf(result.getMethod()), calls));
+    }
+
+    private static void recordPage(PagePerformance.Metrics metrics) {
+        String page = pageOf(metrics.url());
+        RUN.add(new Sample(Kind.PAGE_TTFB, page, metrics.navigation().timeToFirstByte().toMillis()));
+        if (metrics.largestContentfulPaint() != null) {
+            RUN.add(new Sample(Kind.PAGE_LCP, page, metrics.largestContentfulPaint().toMillis()));
+        }
+        RUN.add(new Sample(Kind.PAGE_LOAD, page, metrics.navigation().loadEventEnd().toMillis()));
+        RUN.add(new Sample(Kind.PAGE_TBT, page, metrics.totalBlockingTime().toMillis()));
+    }
+
+    /**
+     * {@code home.html} for {@code http://127.0.0.1:5500/home.html?q=neo}.
+     */
+    static String pageOf(String url) {
+        String path = url == null ? "" : url.replaceFirst("[?#].*$", "");
+        String page = path.substring(path.lastIndexOf('/') + 1);
+        return page.isEmpty() ? "index.html" : page;
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        PagePerformance.observe(metrics -> { });
+        if (RUN.isEmpty()) {
+            return;
+        }
+        Segment run = new Segment(commit(), Instant.now(), List.copyOf(RUN));
+        RUN.clear();
+        Path runFile = Paths.get("target", "perf-run.bin");
+        try {
+            Files.deleteIfExists(runFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        PerfHistory.append(runFile, run);
+        PerfHistory.append(PerfHistory.defaultFile(), run);
+
+        PerfHistoryQuery.Gate gate = PerfHistoryQuery.Gate.configured();
+        PerfHistory history = PerfHistory.load(PerfHistory.defaultFile());
+        List<Regression> regressions = gate.check(history, Kind.TEST);
+        List<PerfHistory.Run> runs = history.runs();
+        if (runs.isEmpty()) {
+            return;
+        }
+        System.out.print(PerfHistoryQuery.report(runs.get(runs.size() - 1), Kind.TEST, gate, regressions));
+    }
+
+    /**
+     * The commit under test, abbreviated to 12 characters; "unknown" outside a git checkout.
+     */
+    static String commit() {
+        String commit = System.getProperty("ws.perf.commit", System.getenv("GITHUB_SHA"));
+        if (commit == null || commit.isBlank()) {
+            commit = gitHead();
+        }
+        commit = commit.strip();
+        return commit.length() > 12 ? commit.substring(0, 12) : commit;
+    }
+
+    private static String gitHead() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "HEAD").redirectErrorStream(true).start();
+            String out = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).strip();
+            if (git.waitFor(5, TimeUnit.SECONDS) && git.exitValue() == 0
+                    && out.matches("[0-9a-f]{7,64}")) {
+                return out;
+            }
+        } catch (IOException e) {
+            // No git on the PATH.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "unknown";
+    }
+}
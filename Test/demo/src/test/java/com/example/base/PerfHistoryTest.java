@@ -0,0 +1,169 @@
+package com.example.base;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.example.base.PerfHistory.Kind;
+import com.example.base.PerfHistory.Regression;
+import com.example.base.PerfHistory.Sample;
+import com.example.base.PerfHistory.Segment;
+
+/**
+ * Encoding, loading and the regression gate of {@link PerfHistory}; needs no browser.
+ */
+public class PerfHistoryTest {
+
+    private static final PerfHistoryQuery.Gate GATE = new PerfHistoryQuery.Gate(25, 50, 10, 3, 2);
+
+    @Test
+    public void verifySegmentRoundTripsThroughVarints() throws IOException {
+        Segment segment = new Segment("abc123def456", Instant.ofEpochMilli(1_700_000_000_123L), List.of(
+                new Sample(Kind.TEST, "CartTest.verifyCartPageTitle", 0),
+                new Sample(Kind.TEST, "CartTest.verifyCartPageTitle", 127),
+                new Sample(Kind.STEP, "CartTest.setupCart", 128),
+                new Sample(Kind.COMMANDS, "CartTest.verifyCartPageTitle", 16_384),
+                new Sample(Kind.PAGE_TBT, "cart.html", Long.MAX_VALUE)));
+
+        Segment decoded = PerfHistory.decode(PerfHistory.encode(segment));
+
+        Assert.assertEquals(decoded, segment);
+    }
+
+    @Test
+    public void verifyTruncatedTailIsDropped() throws IOException {
+        Path file = Files.createTempFile("perf-history", ".bin");
+        try {
+            Files.delete(file);
+            PerfHistory.append(file, segment("c1", 100));
+            PerfHistory.append(file, segment("c2", 200));
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+            List<Segment> segments = PerfHistory.load(file).segments();
+            Assert.assertEquals(segments.size(), 1, "Only the complete segment should load");
+            Assert.assertEquals(segments.get(0).commit(), "c1");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void verifyForeignFileIsMovedAsideOnAppend() throws IOException {
+        Path file = Files.createTempFile("perf-history", ".bin");
+        Path old = file.resolveSibling(file.getFileName() + ".old");
+        try {
+            Files.writeString(file, "not a history");
+            PerfHistory.append(file, segment("c1", 100));
+
+            Assert.assertEquals(PerfHistory.load(file).runs().size(), 1);
+            Assert.assertEquals(Files.readString(old), "not a history");
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(old);
+        }
+    }
+
+    @Test
+    public void verifyConsecutiveSegmentsOfOneCommitFormOneRun() {
+        PerfHistory history = history(segment("c1", 100), segment("c1", 110), segment("c2", 120));
+
+        Assert.assertEquals(history.runs().size(), 2);
+        Assert.assertEquals(history.runs().get(0).values(Kind.TEST).get("T.a"), List.of(100L, 110L));
+    }
+
+    @Test
+    public void verifyOneSlowRunDoesNotFailTheGate() {
+        PerfHistory history = history(baseline(segment("now", 400)));
+
+        Assert.assertTrue(GATE.check(history, Kind.TEST).isEmpty());
+    }
+
+    @Test
+    public void verifyRegressionInConsecutiveRunsFailsTheGate() {
+        List<Segment> segments = baseline(segment("slow-1", 400));
+        segments.add(segment("slow-2", 300));
+
+        List<Regression> regressions = GATE.check(history(segments), Kind.TEST);
+
+        Assert.assertEquals(regressions.size(), 1);
+        Assert.assertEquals(regressions.get(0).key(), "T.a");
+        Assert.assertEquals(regressions.get(0).baselineP95(), 110);
+        Assert.assertEquals(regressions.get(0).currentP95(), 300, "The least regressed run is reported");
+    }
+
+    @Test
+    public void verifyGateThresholds() {
+        // +40% but only +44 ms: under the minimum increase.
+        List<Segment> small = baseline(segment("s1", 154));
+        small.add(segment("s2", 154));
+        Assert.assertTrue(GATE.check(history(small), Kind.TEST).isEmpty());
+
+        // +60 ms but only +20% of a slower baseline: under the percentage.
+        List<Segment> relative = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            relative.add(segment("b" + i, 300));
+        }
+        relative.add(segment("r1", 360));
+        relative.add(segment("r2", 360));
+        Assert.assertTrue(GATE.check(history(relative), Kind.TEST).isEmpty());
+
+        // Slow enough, but with too little baseline.
+        List<Segment> young = List.of(segment("b0", 100), segment("b1", 100), segment("y1", 500), segment("y2", 500));
+        Assert.assertTrue(GATE.check(history(young), Kind.TEST).isEmpty());
+    }
+
+    @Test
+    public void verifyPercentileIsNearestRank() {
+        List<Long> values = new ArrayList<>();
+        for (long v = 1; v <= 20; v++) {
+            values.add(v);
+        }
+        Assert.assertEquals(PerfHistory.percentile(values, 50), 10);
+        Assert.assertEquals(PerfHistory.percentile(values, 95), 19);
+        Assert.assertEquals(PerfHistory.percentile(values, 100), 20);
+        Assert.assertEquals(PerfHistory.percentile(List.of(), 95), 0);
+    }
+
+    /**
+     * Five runs of {@code T.a} at 100 to 110 ms, then {@code latest}.
+     */
+    private static List<Segment> baseline(Segment latest) {
+        List<Segment> segments = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            segments.add(segment("b" + i, i == 4 ? 110 : 100 + i));
+        }
+        segments.add(latest);
+        return segments;
+    }
+
+    private static Segment segment(String commit, long millis) {
+        return new Segment(commit, Instant.EPOCH, List.of(new Sample(Kind.TEST, "T.a", millis)));
+    }
+
+    private static PerfHistory history(Segment... segments) {
+        return history(List.of(segments));
+    }
+
+    private static PerfHistory history(List<Segment> segments) {
+        try {
+            Path file = Files.createTempFile("perf-history", ".bin");
+            try {
+                Files.delete(file);
+                segments.forEach(s -> PerfHistory.append(file, s));
+                return PerfHistory.load(file);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.base;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test that only reads the page its class prepares: it does not change storage, fill
+ * in forms, navigate away or move the clock. {@link FixtureOrdering} runs these back to back
+ * and their setup can skip rebuilding the page (see {@link BaseTest#reusePreparedState()}).
+ * Under {@code -Dws.tabs} they also run side by side in tabs of one browser (see
+ * {@link TabExecutor}), unless {@link #tabs()} is false.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReadOnly {
+
+    /**
+     * False for checks that need the foreground tab, e.g. load budgets: background tabs do
+     * not render frames, so {@code PagePerformance} would never see the page settle.
+     */
+    boolean tabs() default true;
+}
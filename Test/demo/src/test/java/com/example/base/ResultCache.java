@@ -0,0 +1,435 @@
+package com.example.base;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Stage;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.util.ResultsUtils;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+
+/**
+ * Content-addressed cache of passing tests ({@code -Dws.test.cache=true}): a test whose inputs
+ * are unchanged since it last passed is not run again, and its earlier pass is reported.
+ * <p>
+ * A test's inputs are hashed (SHA-256) from:
+ * <ul>
+ *   <li>the watch-store files its browser requested while it passed (pages, images), recorded
+ *       from CDP {@code Network.requestWillBeSent}, plus {@code js/main.js} and
+ *       {@code css/styles.css}, which every page loads,</li>
+ *   <li>the bytecode of its class and every {@code com.example} class reachable from it: page
+ *       objects, {@link BaseTest}, {@link StoreState}, other test classes it borrows from,</li>
+ *   <li>the {@code ws.*} properties that change what a test does, such as
+ *       {@code ws.perf.profile}.</li>
+ * </ul>
+ * Entries live in {@code ws.test.cache.file} ({@code .perf/test-cache.json}); a failure or a
+ * skip drops the test's entry. Reused passes show up in Allure as passed with the {@code cached}
+ * tag and the date of the run that produced them. Under {@code -Dshard} it only sees the tests
+ * {@link ShardPlanner} left to this shard.
+ */
+public class ResultCache implements IMethodInterceptor {
+
+    private static final String TAG = "cached";
+    private static final List<String> SHARED_ASSETS = List.of("js/main.js", "css/styles.css");
+    // Properties that only change scheduling or reporting, not what a test exercises.
+    private static final List<String> NEUTRAL_PROPERTIES = List.of(
+            "ws.baseUrl", "ws.test.cache", "ws.parallel", "ws.threads", "ws.pool.", "ws.trace", "ws.cpuprofile",
+            "ws.waits.stats", "ws.shard.durations", "ws.suite");
+    private static final Pattern CLASS_REFERENCE = Pattern.compile("com/example/[A-Za-z0-9_$/]+");
+    private static final Event<Map<String, Object>> REQUEST_WILL_BE_SENT =
+            new Event<>("Network.requestWillBeSent", input -> input.read(Json.MAP_TYPE));
+
+    private static final Map<WebDriver, AtomicReference<Set<String>>> LISTENING =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+    // Files the previous test on this thread requested, for a test that reuses its page.
+    private static final ThreadLocal<Set<String>> LAST_REQUESTED = new ThreadLocal<>();
+    private static final Map<String, Set<String>> PASSED = new ConcurrentHashMap<>();
+    private static final Set<String> NOT_PASSED = ConcurrentHashMap.newKeySet();
+    private static final Map<String, String> BYTECODE = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, Object>> ENTRIES = new TreeMap<>();
+    private static int reused;
+    private static boolean loaded;
+
+    public static boolean isCaching() {
+        return Boolean.getBoolean("ws.test.cache");
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!isCaching()) {
+            return methods;
+        }
+        if (ShardPlanner.isSharded() && context.getAttribute(ShardPlanner.PLANNED) == null) {
+            // Filtering first would hand each shard a different list to plan, and every shard
+            // would report every cached test.
+            throw new IllegalStateException("-Dws.test.cache with -Dshard needs the ShardPlanner listener"
+                    + " registered before ResultCache");
+        }
+        load();
+        List<IMethodInstance> toRun = new ArrayList<>();
+        int cached = 0;
+        for (IMethodInstance m : methods) {
+            String key = DurationRecorder.keyOf(m.getMethod());
+            Map<String, Object> entry;
+            synchronized (ENTRIES) {
+                entry = ENTRIES.get(key);
+            }
+            if (entry != null && String.valueOf(entry.get("inputs"))
+                    .equals(inputsOf(m.getMethod().getRealClass(), files(entry)))) {
+                reportCached(context, m, entry);
+                cached++;
+            } else {
+                toRun.add(m);
+            }
+        }
+        synchronized (ResultCache.class) {
+            reused += cached;
+        }
+        System.out.printf("Result cache for '%s': %d of %d tests unchanged since they passed, running %d%n",
+                context.getName(), cached, methods.size(), toRun.size());
+        return toRun;
+    }
+
+    /**
+     * Starts recording which site files the lease's browser requests. A browser without
+     * DevTools records nothing, and its tests are simply not cached. With
+     * {@code reusingPage}, the files the previous test requested count as this test's too,
+     * since it reads the page that test set up (see {@link BaseTest#reusePreparedState()}).
+     */
+    static void beginTest(DriverPool.Lease lease, boolean reusingPage) {
+        WebDriver driver = lease.driver();
+        AtomicReference<Set<String>> sink;
+        try {
+            sink = listen(driver);
+        } catch (WebDriverException | ClassCastException e) {
+            return;
+        }
+        Set<String> urls = ConcurrentHashMap.newKeySet();
+        Set<String> previous = LAST_REQUESTED.get();
+        if (reusingPage && previous != null) {
+            urls.addAll(previous);
+        }
+        sink.set(urls);
+        CURRENT.set(new Recording(sink));
+    }
+
+    private static AtomicReference<Set<String>> listen(WebDriver driver) {
+        AtomicReference<Set<String>> sink;
+        synchronized (LISTENING) {
+            sink = LISTENING.get(driver);
+            if (sink == null) {
+                AtomicReference<Set<String>> created = new AtomicReference<>();
+                DevTools devTools = ((HasDevTools) driver).getDevTools();
+                devTools.createSessionIfThereIsNotOne();
+                devTools.addListener(REQUEST_WILL_BE_SENT, sent -> {
+                    Set<String> urls = created.get();
+                    Object request = sent.get("request");
+                    if (urls != null && request instanceof Map) {
+                        urls.add(String.valueOf(((Map<?, ?>) request).get("url")));
+                    }
+                });
+                devTools.send(new Command<>("Network.enable", Map.of()));
+                LISTENING.put(driver, created);
+                sink = created;
+            }
+        }
+        return sink;
+    }
+
+    /**
+     * Stops recording for the calling thread and notes whether {@code result} passed, with the
+     * files under {@code baseUrl} it requested.
+     */
+    static void endTest(ITestResult result, String baseUrl) {
+        Recording recording = CURRENT.get();
+        CURRENT.remove();
+        if (recording == null) {
+            return;
+        }
+        Set<String> urls = recording.sink.getAndSet(null);
+        if (urls == null) {
+            LAST_REQUESTED.remove();
+        } else {
+            LAST_REQUESTED.set(urls);
+        }
+        String key = DurationRecorder.keyOf(result.getMethod());
+        if (result.getStatus() != ITestResult.SUCCESS || urls == null) {
+            NOT_PASSED.add(key);
+            return;
+        }
+        Set<String> files = PASSED.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+        for (String url : urls) {
+            String file = siteFile(url, baseUrl);
+            if (file != null) {
+                files.add(file);
+            }
+        }
+    }
+
+    /**
+     * Stores this run's passes, drops its failures, and returns a one-line summary, or null
+     * when the cache is off.
+     */
+    public static String save() {
+        if (!isCaching()) {
+            return null;
+        }
+        load();
+        int stored = 0;
+        synchronized (ENTRIES) {
+            NOT_PASSED.forEach(ENTRIES::remove);
+            for (Map.Entry<String, Set<String>> passed : PASSED.entrySet()) {
+                if (NOT_PASSED.contains(passed.getKey())) {
+                    continue;
+                }
+                Class<?> testClass = classOf(passed.getKey());
+                if (testClass == null) {
+                    continue;
+                }
+                Set<String> files = new TreeSet<>(passed.getValue());
+                files.addAll(SHARED_ASSETS);
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("inputs", inputsOf(testClass, files));
+                entry.put("passedAt", Instant.now().toString());
+                entry.put("files", new ArrayList<>(files));
+                ENTRIES.put(passed.getKey(), entry);
+                stored++;
+            }
+            Map<String, Object> root = new LinkedHashMap<>();
+            root.put("version", 1);
+            root.put("tests", ENTRIES);
+            Path file = file();
+            try {
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                Files.writeString(file, new Json().toJson(root), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write " + file, e);
+            }
+        }
+        return String.format("Result cache: %d tests reused, %d passes stored, %d failures or skips dropped",
+                reused, stored, NOT_PASSED.size());
+    }
+
+    private static Path file() {
+        return Paths.get(System.getProperty("ws.test.cache.file", ".perf/test-cache.json"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void load() {
+        synchronized (ENTRIES) {
+            if (loaded) {
+                return;
+            }
+            loaded = true;
+            Path file = file();
+            if (!Files.isRegularFile(file)) {
+                return;
+            }
+            try {
+                Map<String, Object> root = new Json().toType(Files.readString(file, StandardCharsets.UTF_8), Map.class);
+                Object tests = root.get("tests");
+                if (tests instanceof Map) {
+                    ((Map<String, Object>) tests).forEach((key, value) -> {
+                        if (value instanceof Map) {
+                            ENTRIES.put(key, (Map<String, Object>) value);
+                        }
+                    });
+                }
+            } catch (IOException | JsonException | ClassCastException e) {
+                ENTRIES.clear();
+            }
+        }
+    }
+
+    private static List<String> files(Map<String, Object> entry) {
+        Object files = entry.get("files");
+        List<String> list = new ArrayList<>();
+        if (files instanceof Collection) {
+            ((Collection<?>) files).forEach(f -> list.add(String.valueOf(f)));
+        }
+        return list;
+    }
+
+    private static Class<?> classOf(String key) {
+        try {
+            return Class.forName(key.substring(0, key.lastIndexOf('.')), false, ResultCache.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The site file {@code url} names, e.g. {@code home.html} for {@code <base>home.html?x=1},
+     * or null when it is not one of the site's files.
+     */
+    static String siteFile(String url, String baseUrl) {
+        if (!url.startsWith(baseUrl)) {
+            return null;
+        }
+        String path = URI.create(url).getPath();
+        String basePath = URI.create(baseUrl).getPath();
+        if (path == null || basePath == null || !path.startsWith(basePath)) {
+            return null;
+        }
+        String relative = path.substring(basePath.length());
+        if (relative.isEmpty() || relative.endsWith("/")) {
+            relative += "index.html";
+        }
+        return Files.isRegularFile(StaticAssets.locateSiteRoot().resolve(relative)) ? relative : null;
+    }
+
+    /**
+     * SHA-256 over the site {@code files}, the bytecode reachable from {@code testClass} and the
+     * relevant {@code ws.*} properties.
+     */
+    static String inputsOf(Class<?> testClass, Collection<String> files) {
+        MessageDigest digest = sha256();
+        Path root = StaticAssets.locateSiteRoot();
+        for (String file : new TreeSet<>(files)) {
+            digest.update(file.getBytes(StandardCharsets.UTF_8));
+            try {
+                digest.update(Files.readAllBytes(root.resolve(file)));
+            } catch (IOException e) {
+                digest.update("(missing)".getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        for (String name : reachableClasses(testClass.getName().replace('.', '/'))) {
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            digest.update(BYTECODE.computeIfAbsent(name, ResultCache::bytecodeHash).getBytes(StandardCharsets.UTF_8));
+        }
+        new TreeMap<>(System.getProperties()).forEach((k, v) -> {
+            String key = String.valueOf(k);
+            if (key.startsWith("ws.") && NEUTRAL_PROPERTIES.stream().noneMatch(key::startsWith)) {
+                digest.update((key + "=" + v + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * {@code start} and every {@code com/example} class its constant pools name, transitively.
+     */
+    private static Set<String> reachableClasses(String start) {
+        Set<String> seen = new TreeSet<>();
+        Deque<String> queue = new ArrayDeque<>(List.of(start));
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            byte[] bytes = classBytes(name);
+            if (bytes == null || !seen.add(name)) {
+                continue;
+            }
+            // Class names are plain UTF-8 entries of the constant pool.
+            Matcher m = CLASS_REFERENCE.matcher(new String(bytes, StandardCharsets.ISO_8859_1));
+            while (m.find()) {
+                if (!seen.contains(m.group())) {
+                    queue.add(m.group());
+                }
+            }
+        }
+        return seen;
+    }
+
+    private static byte[] classBytes(String internalName) {
+        try (InputStream in = ResultCache.class.getClassLoader().getResourceAsStream(internalName + ".class")) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String bytecodeHash(String internalName) {
+        byte[] bytes = classBytes(internalName);
+        return bytes == null ? "" : HexFormat.of().formatHex(sha256().digest(bytes));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void reportCached(ITestContext context, IMethodInstance method, Map<String, Object> entry) {
+        Class<?> testClass = method.getMethod().getRealClass();
+        String fullName = testClass.getName() + "." + method.getMethod().getMethodName();
+        String uuid = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        TestResult result = new TestResult()
+                .setUuid(uuid)
+                .setName(method.getMethod().getMethodName())
+                .setFullName(fullName)
+                .setHistoryId(ResultsUtils.md5(fullName))
+                .setTestCaseId(ResultsUtils.md5(fullName))
+                .setStatus(Status.PASSED)
+                .setStage(Stage.FINISHED)
+                .setStart(now)
+                .setStop(now)
+                .setDescription("Not run: its pages, scripts and classes are unchanged since it passed on "
+                        + entry.get("passedAt") + " (inputs " + String.valueOf(entry.get("inputs")).substring(0, 12)
+                        + ", files " + String.join(", ", files(entry)) + ").")
+                .setLabels(new ArrayList<>(List.of(
+                        ResultsUtils.createParentSuiteLabel(context.getSuite().getName()),
+                        ResultsUtils.createSuiteLabel(context.getName()),
+                        ResultsUtils.createPackageLabel(testClass.getPackageName()),
+                        ResultsUtils.createTestClassLabel(testClass.getName()),
+                        ResultsUtils.createTestMethodLabel(method.getMethod().getMethodName()),
+                        ResultsUtils.createFrameworkLabel("testng"),
+                        ResultsUtils.createLanguageLabel("java"),
+                        ResultsUtils.createHostLabel(),
+                        ResultsUtils.createTagLabel(TAG))));
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        lifecycle.scheduleTestCase(result);
+        lifecycle.startTestCase(uuid);
+        lifecycle.stopTestCase(uuid);
+        lifecycle.writeTestCase(uuid);
+    }
+
+    private record Recording(AtomicReference<Set<String>> sink) {
+    }
+}
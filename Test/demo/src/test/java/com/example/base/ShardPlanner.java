@@ -0,0 +1,217 @@
+package com.example.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestClass;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+/**
+ * Runs one shard of the suite ({@code -Dshard=2/4}: the second of four), so several JVMs or CI
+ * runners can split the work:
+ * <pre>
+ * mvn test -Dshard=1/4   # on runner 1
+ * mvn test -Dshard=4/4   # on runner 4
+ * </pre>
+ * Every shard computes the same plan from the same {@link DurationHistory} and keeps its part.
+ * Test classes are scheduled longest first onto the least loaded shard (LPT). A class stays
+ * in one shard, paying its fixtures once (the browser lease, the first {@code setupPayment}
+ * that builds the cart snapshot), unless it alone runs longer than a shard should; then its
+ * methods are spread individually, and each extra shard it lands on is charged those fixtures
+ * again. Tests without history count as the median known test. Without {@code shard} the suite
+ * is left alone. Registered before {@link ResultCache}, so every shard plans the same full list
+ * and only the shard that owns a cached test reports it.
+ */
+public class ShardPlanner implements IMethodInterceptor {
+
+    // Context attribute set once this shard's part of a <test> has been picked.
+    static final String PLANNED = "ws.shard.planned";
+    private static final double UNKNOWN_TEST_MS = 2000;
+
+    /**
+     * True when {@code -Dshard} splits the suite over more than one shard.
+     */
+    static boolean isSharded() {
+        String spec = System.getProperty("shard", "").trim();
+        return !spec.isEmpty() && parse(spec)[1] > 1;
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!isSharded()) {
+            return methods;
+        }
+        int[] shard = parse(System.getProperty("shard").trim());
+
+        DurationHistory history = DurationHistory.load(DurationHistory.defaultFile());
+        Map<ITestClass, List<ITestNGMethod>> byClass = new LinkedHashMap<>();
+        for (IMethodInstance m : methods) {
+            byClass.computeIfAbsent(m.getMethod().getTestClass(), k -> new ArrayList<>()).add(m.getMethod());
+        }
+        double unknown = medianKnown(methods, history);
+        List<ClassWork> work = new ArrayList<>();
+        byClass.forEach((testClass, tests) -> work.add(ClassWork.of(testClass, tests, history, unknown)));
+
+        Plan plan = plan(work, shard[1]);
+        List<IMethodInstance> mine = methods.stream()
+                .filter(m -> plan.shardOf(DurationRecorder.keyOf(m.getMethod())) == shard[0] - 1)
+                .collect(Collectors.toList());
+        context.setAttribute(PLANNED, Boolean.TRUE);
+        System.out.printf(Locale.ROOT, "Shard %d/%d of '%s': %d of %d tests, ~%.0fs estimated (shards: %s)%n",
+                shard[0], shard[1], context.getName(), mine.size(), methods.size(),
+                plan.loadMs()[shard[0] - 1] / 1000, plan.describeLoads());
+        return mine;
+    }
+
+    /**
+     * {@code "i/N"} as {@code {i, N}}, with 1 &lt;= i &lt;= N.
+     */
+    static int[] parse(String spec) {
+        String[] parts = spec.split("/");
+        try {
+            if (parts.length == 2) {
+                int index = Integer.parseInt(parts[0].trim());
+                int count = Integer.parseInt(parts[1].trim());
+                if (count >= 1 && index >= 1 && index <= count) {
+                    return new int[] {index, count};
+                }
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("Expected -Dshard=<index>/<count> with 1 <= index <= count, got '" + spec + "'");
+    }
+
+    private static double medianKnown(List<IMethodInstance> methods, DurationHistory history) {
+        List<Double> known = methods.stream()
+                .map(m -> DurationRecorder.keyOf(m.getMethod()))
+                .filter(history::contains)
+                .map(key -> history.totalMillis(key, 0))
+                .sorted()
+                .collect(Collectors.toList());
+        return known.isEmpty() ? UNKNOWN_TEST_MS : known.get(known.size() / 2);
+    }
+
+    /**
+     * Longest-processing-time-first assignment of {@code classes} to {@code shards}.
+     */
+    static Plan plan(List<ClassWork> classes, int shards) {
+        double total = classes.stream().mapToDouble(ClassWork::totalMs).sum();
+        double target = total / shards;
+
+        List<Unit> units = new ArrayList<>();
+        for (ClassWork c : classes) {
+            if (c.totalMs() <= target || c.tests().size() == 1) {
+                units.add(new Unit(c, c.tests()));
+            } else {
+                c.tests().forEach(t -> units.add(new Unit(c, List.of(t))));
+            }
+        }
+        units.sort(Comparator.comparingDouble(Unit::sortMs).reversed()
+                .thenComparing(u -> u.tests().get(0).key()));
+
+        double[] load = new double[shards];
+        List<Set<String>> classesOn = new ArrayList<>();
+        for (int s = 0; s < shards; s++) {
+            classesOn.add(new HashSet<>());
+        }
+        Map<String, Integer> shardOf = new HashMap<>();
+        for (Unit unit : units) {
+            int best = 0;
+            double bestLoad = Double.MAX_VALUE;
+            for (int s = 0; s < shards; s++) {
+                double after = load[s] + unit.testsMs()
+                        + (classesOn.get(s).contains(unit.owner().name()) ? 0 : unit.owner().fixtureMs());
+                if (after < bestLoad) {
+                    best = s;
+                    bestLoad = after;
+                }
+            }
+            load[best] = bestLoad;
+            classesOn.get(best).add(unit.owner().name());
+            for (TestWork t : unit.tests()) {
+                shardOf.put(t.key(), best);
+            }
+        }
+        return new Plan(Collections.unmodifiableMap(shardOf), load);
+    }
+
+    record TestWork(String key, double ms) {
+    }
+
+    /**
+     * A test class: what it costs once per shard it runs in, and what each test adds.
+     */
+    record ClassWork(String name, double fixtureMs, List<TestWork> tests) {
+
+        static ClassWork of(ITestClass testClass, List<ITestNGMethod> tests, DurationHistory history, double unknown) {
+            double fixture = 0;
+            for (ITestNGMethod m : concat(testClass.getBeforeClassMethods(), testClass.getAfterClassMethods())) {
+                fixture += history.meanMillis(DurationRecorder.keyOf(m));
+            }
+            double perTest = 0;
+            for (ITestNGMethod m : concat(testClass.getBeforeTestMethods(), testClass.getAfterTestMethods())) {
+                String key = DurationRecorder.keyOf(m);
+                perTest += history.meanMillis(key);
+                fixture += history.firstCallPremiumMillis(key);
+            }
+            List<TestWork> work = new ArrayList<>();
+            for (ITestNGMethod m : tests) {
+                String key = DurationRecorder.keyOf(m);
+                work.add(new TestWork(key, history.totalMillis(key, unknown) + perTest * history.invocations(key)));
+            }
+            return new ClassWork(testClass.getRealClass().getName(), fixture, work);
+        }
+
+        double totalMs() {
+            return fixtureMs + tests.stream().mapToDouble(TestWork::ms).sum();
+        }
+
+        private static List<ITestNGMethod> concat(ITestNGMethod[] a, ITestNGMethod[] b) {
+            List<ITestNGMethod> all = new ArrayList<>(List.of(a));
+            all.addAll(List.of(b));
+            return all;
+        }
+    }
+
+    private record Unit(ClassWork owner, List<TestWork> tests) {
+
+        double testsMs() {
+            return tests.stream().mapToDouble(TestWork::ms).sum();
+        }
+
+        // A whole class brings its fixtures along; a split-off test may share them.
+        double sortMs() {
+            return testsMs() + (tests.size() == owner.tests().size() ? owner.fixtureMs() : 0);
+        }
+    }
+
+    /**
+     * Shard (0-based) of every test key, and each shard's estimated milliseconds.
+     */
+    record Plan(Map<String, Integer> shardOf, double[] loadMs) {
+
+        int shardOf(String key) {
+            return shardOf.getOrDefault(key, 0);
+        }
+
+        String describeLoads() {
+            List<String> loads = new ArrayList<>();
+            for (double ms : loadMs) {
+                loads.add(String.format(Locale.ROOT, "%.0fs", ms / 1000));
+            }
+            return String.join(" ", loads);
+        }
+    }
+}
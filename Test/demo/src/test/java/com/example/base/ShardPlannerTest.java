@@ -0,0 +1,80 @@
+package com.example.base;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.example.base.ShardPlanner.ClassWork;
+import com.example.base.ShardPlanner.Plan;
+import com.example.base.ShardPlanner.TestWork;
+
+/**
+ * {@link ShardPlanner#plan} on hand-made classes; needs no browser.
+ */
+public class ShardPlannerTest {
+
+    @Test
+    public void verifyLongestClassesGoFirstOntoLeastLoadedShard() {
+        Plan plan = ShardPlanner.plan(List.of(
+                work("A", 0, 6000),
+                work("B", 0, 3000),
+                work("C", 0, 2000),
+                work("D", 0, 1000)), 2);
+
+        Assert.assertEquals(plan.shardOf("A.t0"), 0);
+        Assert.assertEquals(plan.shardOf("B.t0"), 1);
+        Assert.assertEquals(plan.shardOf("C.t0"), 1);
+        Assert.assertEquals(plan.shardOf("D.t0"), 1);
+        Assert.assertEquals(plan.loadMs(), new double[] {6000, 6000});
+    }
+
+    @Test
+    public void verifyClassesStayWholeAndPayFixturesOnce() {
+        Plan plan = ShardPlanner.plan(List.of(
+                work("A", 500, 1000, 1000, 1000),
+                work("B", 500, 1000, 1000, 1000)), 2);
+
+        for (String owner : List.of("A", "B")) {
+            int shard = plan.shardOf(owner + ".t0");
+            Assert.assertEquals(plan.shardOf(owner + ".t1"), shard, owner + " should not be split");
+            Assert.assertEquals(plan.shardOf(owner + ".t2"), shard, owner + " should not be split");
+        }
+        Assert.assertNotEquals(plan.shardOf("A.t0"), plan.shardOf("B.t0"));
+        Assert.assertEquals(plan.loadMs(), new double[] {3500, 3500});
+    }
+
+    @Test
+    public void verifyOversizedClassIsSplitAndChargedFixturesPerShard() {
+        Plan plan = ShardPlanner.plan(List.of(
+                work("Big", 1000, 3000, 3000, 3000, 3000),
+                work("Small", 0, 1000)), 2);
+
+        List<Integer> shards = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            shards.add(plan.shardOf("Big.t" + i));
+        }
+        Assert.assertTrue(shards.contains(0) && shards.contains(1), "Big should be spread over both shards: " + shards);
+        double tests = 4 * 3000 + 1000;
+        Assert.assertEquals(plan.loadMs()[0] + plan.loadMs()[1], tests + 2 * 1000, 0.001,
+                "Each shard Big lands on pays its fixtures");
+    }
+
+    @Test
+    public void verifyShardSpecParsing() {
+        Assert.assertEquals(ShardPlanner.parse("2/4"), new int[] {2, 4});
+        Assert.assertEquals(ShardPlanner.parse(" 1 / 1 "), new int[] {1, 1});
+        for (String bad : List.of("0/4", "5/4", "2", "a/b", "1/0")) {
+            Assert.assertThrows(IllegalArgumentException.class, () -> ShardPlanner.parse(bad));
+        }
+    }
+
+    private static ClassWork work(String name, double fixtureMs, double... testMs) {
+        List<TestWork> tests = new ArrayList<>();
+        for (int i = 0; i < testMs.length; i++) {
+            tests.add(new TestWork(name + ".t" + i, testMs[i]));
+        }
+        return new ClassWork(name, fixtureMs, tests);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.base;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Combines the results of {@code -Dshard=i/N} runs (see {@link ShardPlanner}) into one report.
+ * <p>
+ * Each argument after the output directory is a shard's {@code target} directory (or a copy of
+ * it): its {@code allure-results} are copied together, its surefire {@code TEST-*.xml} files are
+ * merged into a single {@code surefire-reports/TEST-TestSuite.xml}, the shards'
+ * {@code test-durations.tsv} are merged into one run and blended into the history given with
+ * {@code --history}, and its
+ * {@code perf-run.bin} is appended to the {@link PerfHistory} given with {@code --perf-history}:
+ * <pre>
+ * java -cp Test/demo/target/test-classes com.example.base.ShardReportMerger \
+ *     --history Test/demo/.perf/test-durations.tsv --perf-history Test/demo/.perf/perf-history.bin \
+ *     merged shard-1 shard-2 shard-3 shard-4
+ * </pre>
+ */
+public final class ShardReportMerger {
+
+    private ShardReportMerger() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path history = null;
+        Path perfHistory = null;
+        List<Path> dirs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--history")) {
+                history = Paths.get(args[++i]);
+            } else if (args[i].equals("--perf-history")) {
+                perfHistory = Paths.get(args[++i]);
+            } else {
+                dirs.add(Paths.get(args[i]));
+            }
+        }
+        if (dirs.size() < 2) {
+            System.err.println("Usage: ShardReportMerger [--history <durations.tsv>] [--perf-history <perf-history.bin>]"
+                    + " <out-dir> <shard-dir>...");
+            System.exit(2);
+        }
+        Path out = dirs.remove(0);
+
+        int allure = 0;
+        List<Path> junit = new ArrayList<>();
+        DurationHistory durations = new DurationHistory();
+        for (Path shard : dirs) {
+            allure += copyAll(shard.resolve("allure-results"), out.resolve("allure-results"));
+            junit.addAll(list(shard.resolve("surefire-reports"), "TEST-*.xml"));
+            Path run = shard.resolve("test-durations.tsv");
+            if (Files.isRegularFile(run)) {
+                durations.merge(DurationHistory.load(run));
+            }
+            Path perfRun = shard.resolve("perf-run.bin");
+            if (perfHistory != null && Files.isRegularFile(perfRun)) {
+                // The shards of one CI run share a commit, so they read back as a single run.
+                for (PerfHistory.Segment segment : PerfHistory.load(perfRun).segments()) {
+                    PerfHistory.append(perfHistory, segment);
+                }
+            }
+        }
+        if (history != null && !durations.isEmpty()) {
+            // Blended once as a whole run, so a class split across shards counts all its calls.
+            DurationHistory blended = DurationHistory.load(history);
+            blended.blend(durations);
+            blended.save(history);
+        }
+        int[] totals = mergeJunit(junit, out.resolve("surefire-reports").resolve("TEST-TestSuite.xml"));
+        System.out.printf(Locale.ROOT, "Merged %d shards: %d Allure files, %d tests, %d failures, %d errors, %d skipped%n",
+                dirs.size(), allure, totals[0], totals[1], totals[2], totals[3]);
+    }
+
+    private static int copyAll(Path from, Path to) throws IOException {
+        if (!Files.isDirectory(from)) {
+            return 0;
+        }
+        Files.createDirectories(to);
+        int copied = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(from)) {
+            // Result files are named by UUID; shared ones like environment.properties are alike.
+            for (Path file : files) {
+                if (Files.isRegularFile(file)) {
+                    Files.copy(file, to.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                    copied++;
+                }
+            }
+        }
+        return copied;
+    }
+
+    private static List<Path> list(Path dir, String glob) throws IOException {
+        List<Path> found = new ArrayList<>();
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> files = Files.list(dir)) {
+                files.filter(f -> f.getFileSystem().getPathMatcher("glob:" + glob).matches(f.getFileName()))
+                        .sorted()
+                        .forEach(found::add);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Writes every {@code testcase} of {@code reports} into one {@code testsuite} and returns
+     * its tests, failures, errors and skipped counts.
+     */
+    static int[] mergeJunit(List<Path> reports, Path target) throws Exception {
+        DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        Document merged = builder.newDocument();
+        Element suite = merged.createElement("testsuite");
+        suite.setAttribute("name", "TestSuite");
+        merged.appendChild(suite);
+
+        int[] totals = new int[4];
+        double seconds = 0;
+        for (Path report : reports) {
+            NodeList suites = builder.parse(report.toFile()).getElementsByTagName("testsuite");
+            for (int s = 0; s < suites.getLength(); s++) {
+                Element from = (Element) suites.item(s);
+                seconds += number(from, "time");
+                NodeList children = from.getChildNodes();
+                for (int c = 0; c < children.getLength(); c++) {
+                    Node child = children.item(c);
+                    if (child instanceof Element && ((Element) child).getTagName().equals("testcase")) {
+                        Element testcase = (Element) child;
+                        totals[0]++;
+                        totals[1] += testcase.getElementsByTagName("failure").getLength() > 0 ? 1 : 0;
+                        totals[2] += testcase.getElementsByTagName("error").getLength() > 0 ? 1 : 0;
+                        totals[3] += testcase.getElementsByTagName("skipped").getLength() > 0 ? 1 : 0;
+                        suite.appendChild(merged.importNode(testcase, true));
+                    }
+                }
+            }
+        }
+        suite.setAttribute("tests", String.valueOf(totals[0]));
+        suite.setAttribute("failures", String.valueOf(totals[1]));
+        suite.setAttribute("errors", String.valueOf(totals[2]));
+        suite.setAttribute("skipped", String.valueOf(totals[3]));
+        suite.setAttribute("time", String.format(Locale.ROOT, "%.3f", seconds));
+
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create " + target.getParent(), e);
+        }
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(merged), new StreamResult(target.toFile()));
+        return totals;
+    }
+
+    private static double number(Element element, String attribute) {
+        try {
+            return Double.parseDouble(element.getAttribute(attribute).replace(",", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
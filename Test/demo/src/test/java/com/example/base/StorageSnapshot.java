@@ -0,0 +1,61 @@
+package com.example.base;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * A named copy of the site's localStorage and sessionStorage plus the page it was taken on.
+ * Snapshots hold plain data, so one taken in one browser can be restored into any other.
+ */
+public record StorageSnapshot(
+        String name,
+        String url,
+        Map<String, String> localStorage,
+        Map<String, String> sessionStorage) {
+
+    public StorageSnapshot {
+        localStorage = Map.copyOf(localStorage);
+        sessionStorage = Map.copyOf(sessionStorage);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static StorageSnapshot capture(String name, WebDriver driver) {
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                "const dump = (s) => {"
+                        + "  const o = {};"
+                        + "  for (let i = 0; i < s.length; i++) { const k = s.key(i); o[k] = s.getItem(k); }"
+                        + "  return o;"
+                        + "};"
+                        + "return { url: location.href, local: dump(localStorage), session: dump(sessionStorage) };");
+        return new StorageSnapshot(
+                name,
+                String.valueOf(raw.get("url")),
+                toStrings((Map<String, Object>) raw.get("local")),
+                toStrings((Map<String, Object>) raw.get("session")));
+    }
+
+    /**
+     * Replaces both storages with this snapshot in one script call. The caller navigates afterwards.
+     */
+    public void writeTo(WebDriver driver, String baseUrl) {
+        StoreState.ensureOnOrigin(driver, baseUrl);
+        ((JavascriptExecutor) driver).executeScript(
+                "localStorage.clear();"
+                        + "sessionStorage.clear();"
+                        + "for (const [k, v] of Object.entries(arguments[0])) localStorage.setItem(k, v);"
+                        + "for (const [k, v] of Object.entries(arguments[1])) sessionStorage.setItem(k, v);",
+                localStorage,
+                sessionStorage);
+    }
+
+    private static Map<String, String> toStrings(Map<String, Object> raw) {
+        Map<String, String> out = new LinkedHashMap<>();
+        if (raw != null) {
+            raw.forEach((k, v) -> out.put(k, String.valueOf(v)));
+        }
+        return out;
+    }
+}
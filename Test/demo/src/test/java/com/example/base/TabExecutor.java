@@ -0,0 +1,322 @@
+package com.example.base;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+
+import com.example.page.PageWait;
+
+/**
+ * Runs independent checks concurrently in several tabs of one browser instead of one browser
+ * per worker.
+ * <p>
+ * {@link #open} opens {@code -Dws.tabs} tabs next to the current window, each loading the page
+ * that window shows; tabs share its storage, so they see the same prepared state. Each check
+ * runs on a worker thread holding one tab, and {@link #current()} is that tab's driver, which
+ * {@link BaseTest} hands out as {@code driver} on the worker. A WebDriver session executes one
+ * command at a time on its current window, so every call through a tab's driver (and through
+ * the elements, navigation and options it returns) takes the session's lock and switches
+ * windows first when another tab was last; polling sleeps and Java-side work overlap,
+ * commands take turns. An async script holds the session until it returns, so waits created
+ * in a check always poll ({@link PageWait#pollOnThisThread}) even under {@code -Dws.waits=event};
+ * checks that block in the page themselves, like {@code PagePerformance}, gain nothing from tabs.
+ * Meant for read-only checks: a check that writes storage changes it for every tab.
+ */
+public final class TabExecutor implements AutoCloseable {
+
+    /**
+     * {@code ITestResult} attribute marking a result whose outcome came from a tab; its
+     * timing is not the test's own.
+     */
+    public static final String REPORTED = "ws.tabs.reported";
+
+    private static final ThreadLocal<WebDriver> CURRENT = new ThreadLocal<>();
+    private static final AtomicInteger EXECUTORS = new AtomicInteger();
+
+    private final WebDriver session;
+    private final String home;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final List<String> handles = new ArrayList<>();
+    private final BlockingQueue<WebDriver> free;
+    private final ExecutorService workers;
+    private String focused;
+
+    private TabExecutor(WebDriver session, int tabs) {
+        this.session = session;
+        this.home = session.getWindowHandle();
+        this.focused = home;
+        this.free = new ArrayBlockingQueue<>(tabs);
+        int id = EXECUTORS.incrementAndGet();
+        AtomicInteger thread = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(tabs, r -> {
+            Thread t = new Thread(r, "tabs-" + id + "-" + thread.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Tabs per browser requested with {@code -Dws.tabs}; 1 (no tabs) by default.
+     */
+    public static int configuredTabs() {
+        return Math.max(1, Integer.getInteger("ws.tabs", 1));
+    }
+
+    /**
+     * Tabs load the site straight from the server and run unthrottled, so they are off under
+     * {@code -Dws.site=fetch} and throttled {@link PerformanceProfile}s, which only apply to a
+     * browser's first tab.
+     */
+    public static boolean isEnabled() {
+        return configuredTabs() > 1 && !InterceptedSite.isEnabled()
+                && PerformanceProfile.configured() == PerformanceProfile.DESKTOP;
+    }
+
+    /**
+     * The tab the calling thread is running a check in, or null outside {@link #runAll}.
+     */
+    static WebDriver current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Opens {@code tabs} tabs in {@code session}'s browser, each on the page its current
+     * window shows. {@code session} must be the raw driver, not a {@link BaseTest} proxy.
+     */
+    public static TabExecutor open(WebDriver session, int tabs) {
+        TabExecutor executor = new TabExecutor(session, tabs);
+        String url = session.getCurrentUrl();
+        try {
+            for (int i = 0; i < tabs; i++) {
+                session.switchTo().newWindow(WindowType.TAB);
+                String handle = session.getWindowHandle();
+                executor.handles.add(handle);
+                session.get(url);
+                executor.free.add(executor.bind(handle));
+            }
+        } catch (RuntimeException e) {
+            executor.close();
+            throw e;
+        }
+        executor.focused = session.getWindowHandle();
+        return executor;
+    }
+
+    /**
+     * Runs every check, each in whichever tab is free, and returns what each threw (null when
+     * it passed), in order.
+     */
+    public List<Throwable> runAll(List<Check> checks) {
+        List<Future<Throwable>> futures = new ArrayList<>();
+        for (Check check : checks) {
+            futures.add(workers.submit(() -> {
+                WebDriver tab = free.take();
+                CURRENT.set(tab);
+                PageWait.pollOnThisThread(true);
+                try {
+                    check.run(tab);
+                    return null;
+                } catch (Throwable t) {
+                    return t;
+                } finally {
+                    PageWait.pollOnThisThread(false);
+                    CURRENT.remove();
+                    free.add(tab);
+                }
+            }));
+        }
+        List<Throwable> outcomes = new ArrayList<>();
+        for (Future<Throwable> future : futures) {
+            try {
+                outcomes.add(future.get());
+            } catch (ExecutionException e) {
+                outcomes.add(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                outcomes.add(e);
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Closes the tabs and returns to the window the executor was opened from.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+        lock.lock();
+        try {
+            for (String handle : handles) {
+                try {
+                    session.switchTo().window(handle);
+                    session.close();
+                } catch (WebDriverException ignored) {
+                    // Already gone.
+                }
+            }
+            session.switchTo().window(home);
+            focused = home;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A check run in one tab; {@code tab} is also what {@link #current()} returns meanwhile.
+     */
+    @FunctionalInterface
+    public interface Check {
+        void run(WebDriver tab) throws Throwable;
+    }
+
+    private WebDriver bind(String handle) {
+        return (WebDriver) wrap(session, handle);
+    }
+
+    /**
+     * {@code target} seen through {@link TabBound}, for the Selenium interfaces it implements.
+     */
+    private Object wrap(Object target, String handle) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> c = target.getClass(); c != null; c = c.getSuperclass()) {
+            collectInterfaces(c, interfaces);
+        }
+        interfaces.removeIf(i -> !i.getName().startsWith("org.openqa.selenium.") || !Modifier.isPublic(i.getModifiers()));
+        interfaces.add(WrapsDriver.class);
+        return Proxy.newProxyInstance(TabExecutor.class.getClassLoader(), interfaces.toArray(new Class<?>[0]),
+                new TabBound(target, handle));
+    }
+
+    private static void collectInterfaces(Class<?> type, Set<Class<?>> into) {
+        for (Class<?> i : type.getInterfaces()) {
+            if (into.add(i)) {
+                collectInterfaces(i, into);
+            }
+        }
+    }
+
+    /**
+     * Runs each call on {@code target} with the session focused on {@code handle}, and keeps
+     * elements, navigation and options it returns bound to the same tab.
+     */
+    private final class TabBound implements InvocationHandler {
+
+        private final Object target;
+        private final String handle;
+
+        TabBound(Object target, String handle) {
+            this.target = target;
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Tab[" + handle + "] " + target;
+                case "getWrappedDriver":
+                    if (method.getDeclaringClass() == WrapsDriver.class) {
+                        return session;
+                    }
+                    break;
+                case "getWrappedElement":
+                    if (method.getDeclaringClass() == WrapsElement.class) {
+                        return target instanceof WrapsElement ? ((WrapsElement) target).getWrappedElement() : target;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            Object[] unwrapped = args == null ? null : new Object[args.length];
+            for (int i = 0; args != null && i < args.length; i++) {
+                unwrapped[i] = unwrap(args[i]);
+            }
+            Object result;
+            lock.lock();
+            try {
+                if (!handle.equals(focused)) {
+                    session.switchTo().window(handle);
+                    focused = handle;
+                }
+                result = method.invoke(target, unwrapped);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                lock.unlock();
+            }
+            return rebind(result, method.getReturnType());
+        }
+
+        private Object rebind(Object result, Class<?> declared) {
+            if (result == null) {
+                return null;
+            }
+            if (result instanceof WebElement && !(result instanceof WebDriver)) {
+                return wrap(result, handle);
+            }
+            if (result instanceof List) {
+                List<Object> rebound = new ArrayList<>();
+                for (Object item : (List<?>) result) {
+                    rebound.add(item instanceof WebElement ? wrap(item, handle) : item);
+                }
+                return rebound;
+            }
+            // navigate(), manage(), switchTo() and what they return (timeouts(), window(), ...).
+            if (declared.isInterface() && declared.getName().startsWith("org.openqa.selenium.")
+                    && !(result instanceof WebDriver)) {
+                return wrap(result, handle);
+            }
+            return result;
+        }
+    }
+
+    private static Object unwrap(Object arg) {
+        if (arg != null && Proxy.isProxyClass(arg.getClass())
+                && Proxy.getInvocationHandler(arg) instanceof TabExecutor.TabBound) {
+            return ((TabBound) Proxy.getInvocationHandler(arg)).target;
+        }
+        if (arg instanceof List) {
+            List<Object> unwrapped = new ArrayList<>();
+            for (Object item : (List<?>) arg) {
+                unwrapped.add(unwrap(item));
+            }
+            return unwrapped;
+        }
+        if (arg instanceof Object[]) {
+            // executeScript's varargs.
+            Object[] items = (Object[]) arg;
+            Object[] unwrapped = new Object[items.length];
+            for (int i = 0; i < items.length; i++) {
+                unwrapped[i] = unwrap(items[i]);
+            }
+            return unwrapped;
+        }
+        return arg;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.base;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.interactions.Interactive;
+
+/**
+ * A WebDriver that forwards every call to the driver owned by the calling thread.
+ * <p>
+ * Test classes and page objects keep holding a single {@code driver} reference, while
+ * each TestNG worker thread talks to its own browser underneath.
+ */
+final class ThreadBoundDriver implements InvocationHandler {
+
+    private static final Class<?>[] INTERFACES = {
+            WebDriver.class,
+            JavascriptExecutor.class,
+            TakesScreenshot.class,
+            HasCapabilities.class,
+            Interactive.class,
+            WrapsDriver.class
+    };
+
+    private final Supplier<WebDriver> current;
+
+    private ThreadBoundDriver(Supplier<WebDriver> current) {
+        this.current = current;
+    }
+
+    static WebDriver create(Supplier<WebDriver> current) {
+        return (WebDriver) Proxy.newProxyInstance(
+                ThreadBoundDriver.class.getClassLoader(),
+                INTERFACES,
+                new ThreadBoundDriver(current));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "ThreadBoundDriver[" + Thread.currentThread().getName() + "]";
+            case "getWrappedDriver":
+                return current.get();
+            default:
+                break;
+        }
+        try {
+            return method.invoke(current.get(), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
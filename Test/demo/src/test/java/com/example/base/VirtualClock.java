@@ -0,0 +1,85 @@
+package com.example.base;
+
+import java.time.Duration;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Opt-in timer control for the store's artificial delays ({@code -Dws.clock=virtual}).
+ * <p>
+ * A script injected before {@code main.js} wraps {@code setTimeout}: timers up to
+ * {@code ws.clock.fastForwardMs} (1000 ms by default; covers the login, payment, redirect and
+ * logout delays) fire on the next task instead of after their delay, while longer ones (the
+ * 2.8 s toast) keep real time but can be brought forward with {@link #advance}. Only
+ * {@code setTimeout} is affected; {@code Date}, animation frames and intervals run normally.
+ */
+public final class VirtualClock {
+
+    static final String SCRIPT_NAME = "virtual-clock";
+
+    private static final String SCRIPT =
+            "(() => {"
+                    + "  if (window.__wsClock) return;"
+                    + "  const fastForwardMs = %d;"
+                    + "  const realSet = window.setTimeout.bind(window);"
+                    + "  const realClear = window.clearTimeout.bind(window);"
+                    + "  const pending = new Map();"
+                    + "  let offset = 0;"
+                    + "  const now = () => performance.now() + offset;"
+                    + "  window.setTimeout = function (handler, delay, ...args) {"
+                    + "    if (typeof handler !== 'function') return realSet(handler, delay, ...args);"
+                    + "    const ms = Math.max(0, Number(delay) || 0);"
+                    + "    const id = realSet(() => { pending.delete(id); handler(...args); }, ms <= fastForwardMs ? 0 : ms);"
+                    + "    if (ms > fastForwardMs) pending.set(id, { due: now() + ms, handler, args });"
+                    + "    return id;"
+                    + "  };"
+                    + "  window.clearTimeout = function (id) { pending.delete(id); realClear(id); };"
+                    + "  window.__wsClock = {"
+                    + "    fastForwardMs,"
+                    + "    pending: () => pending.size,"
+                    + "    advance(ms) {"
+                    + "      offset += ms;"
+                    + "      let fired = 0;"
+                    + "      for (let guard = 0; guard < 1000; guard++) {"
+                    + "        let next = null;"
+                    + "        for (const [id, t] of pending) {"
+                    + "          if (t.due <= now() && (!next || t.due < next[1].due)) next = [id, t];"
+                    + "        }"
+                    + "        if (!next) break;"
+                    + "        pending.delete(next[0]);"
+                    + "        realClear(next[0]);"
+                    + "        next[1].handler(...next[1].args);"
+                    + "        fired++;"
+                    + "      }"
+                    + "      return fired;"
+                    + "    }"
+                    + "  };"
+                    + "})();";
+
+    private VirtualClock() {
+    }
+
+    public static boolean isEnabled() {
+        return "virtual".equalsIgnoreCase(System.getProperty("ws.clock", "real"));
+    }
+
+    /**
+     * Makes every document the lease's browser loads from now on use the virtual clock.
+     * The script is removed again when the lease goes back to the pool.
+     */
+    static void install(DriverPool.Lease lease) {
+        long fastForwardMs = Long.getLong("ws.clock.fastForwardMs", 1000);
+        lease.ensureDocumentScript(SCRIPT_NAME, String.format(SCRIPT, fastForwardMs));
+    }
+
+    /**
+     * Fires every long timer of the current page that falls due within {@code amount}, in due
+     * order, and returns how many fired. Returns -1 if the page has no virtual clock.
+     */
+    public static long advance(WebDriver driver, Duration amount) {
+        Object fired = ((JavascriptExecutor) driver).executeScript(
+                "return window.__wsClock ? window.__wsClock.advance(arguments[0]) : -1;", amount.toMillis());
+        return fired instanceof Number ? ((Number) fired).longValue() : -1;
+    }
+}
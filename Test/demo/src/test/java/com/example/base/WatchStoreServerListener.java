@@ -0,0 +1,26 @@
+package com.example.base;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Starts the embedded {@link WatchStoreServer} before the suite and stops it afterwards.
+ * Does nothing to an external server given with {@code -Dws.baseUrl}, and starts nothing
+ * under {@code -Dws.site=fetch}, where the browsers serve the site themselves.
+ */
+public class WatchStoreServerListener implements ISuiteListener {
+
+    @Override
+    public void onStart(ISuite suite) {
+        String url = WatchStoreServer.baseUrl();
+        PerformanceProfile profile = PerformanceProfile.configured();
+        System.out.println("Testing watch-store at " + url
+                + (InterceptedSite.isEnabled() ? " (served through CDP Fetch interception)" : "")
+                + (profile != PerformanceProfile.DESKTOP ? ", browsers throttled to performance profile " + profile : ""));
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        WatchStoreServer.stopShared();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.tests;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import io.qameta.allure.Allure;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.example.base.BaseTest;
+import com.example.base.CartModel;
+import com.example.base.CartModel.Action;
+import com.example.base.CartModel.Effect;
+import com.example.base.CartModel.Op;
+import com.example.base.CartOperationGenerator;
+import com.example.base.StoreState;
+import com.example.page.CartPage;
+import com.example.page.ProductPage;
+
+/**
+ * Model-based tests of the cart. Every generated sequence runs against {@link CartModel} in
+ * memory; only a sample of short windows out of them is replayed through the product page and
+ * {@link CartPage}, starting from the model's cart at that point, and checked against one
+ * snapshot of the cart page.
+ * <p>
+ * {@code ws.cart.sequences} (2000), {@code ws.cart.steps} (300) and {@code ws.cart.seed} size
+ * and reproduce the generated run; {@code ws.cart.sample} (4) and {@code ws.cart.window} (10)
+ * set how much of it the browser sees.
+ */
+public class CartModelTest extends BaseTest {
+
+    private static final long SEED = Long.getLong("ws.cart.seed", 20240617L);
+    private static final List<List<Op>> SEQUENCES = CartOperationGenerator.seeded(SEED)
+            .generate(Integer.getInteger("ws.cart.sequences", 2000), Integer.getInteger("ws.cart.steps", 300));
+
+    @Test
+    public void verifyModelInvariantsOverGeneratedSequences() {
+        Set<String> reached = new TreeSet<>();
+        long steps = 0;
+        for (int s = 0; s < SEQUENCES.size(); s++) {
+            CartModel cart = new CartModel();
+            for (Op op : SEQUENCES.get(s)) {
+                int countBefore = cart.count();
+                int qtyBefore = cart.quantity(op.productId());
+                Effect effect = cart.apply(op);
+                steps++;
+                reached.add(op.action() + ":" + effect);
+                String where = "sequence " + s + " (seed " + SEED + "), " + op + " -> " + effect + ", cart " + cart;
+
+                Assert.assertNotEquals(effect, Effect.IGNORED, "The generator should only emit clickable operations: " + where);
+                Assert.assertEquals(cart.count() - countBefore, countDelta(effect, qtyBefore), where);
+                long grand = 0;
+                for (CartModel.Line line : cart.lines()) {
+                    Assert.assertTrue(line.qty() >= 1 && line.qty() <= CartModel.MAX_QTY, where);
+                    Assert.assertEquals(line.total(), line.price() * line.qty(), where);
+                    grand += line.total();
+                }
+                Assert.assertEquals(cart.grandTotal(), grand, where);
+            }
+        }
+
+        Assert.assertEquals(reached, Set.of(
+                "ADD:ADDED", "ADD:INCREMENTED", "ADD:CLAMPED_HIGH", "INC:INCREMENTED", "INC:CLAMPED_HIGH",
+                "DEC:DECREMENTED", "DEC:CLAMPED_LOW", "REMOVE:REMOVED", "REMOVE:EMPTIED"),
+                "Every cart transition should be exercised over " + steps + " steps");
+    }
+
+    private static int countDelta(Effect effect, int qtyBefore) {
+        switch (effect) {
+            case ADDED:
+            case INCREMENTED:
+                return 1;
+            case DECREMENTED:
+                return -1;
+            case REMOVED:
+            case EMPTIED:
+                return -qtyBefore;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Windows of {@code ws.cart.window} operations, picked so each one brings in a transition
+     * the earlier ones did not, then at random once none is left.
+     */
+    @DataProvider(name = "sampledWindows")
+    public Object[][] sampledWindows() {
+        int sample = Integer.getInteger("ws.cart.sample", 4);
+        int size = Integer.getInteger("ws.cart.window", 10);
+        Random random = new Random(SEED);
+        Set<String> covered = new HashSet<>();
+        Set<String> picked = new LinkedHashSet<>();
+        List<Object[]> windows = new ArrayList<>();
+        for (int attempt = 0; windows.size() < sample && attempt < 200 * sample; attempt++) {
+            int s = random.nextInt(SEQUENCES.size());
+            List<Op> ops = SEQUENCES.get(s);
+            int from = random.nextInt(Math.max(1, ops.size() - size + 1));
+            List<Op> window = ops.subList(from, Math.min(ops.size(), from + size));
+
+            CartModel before = new CartModel();
+            ops.subList(0, from).forEach(before::apply);
+            CartModel after = before.copy();
+            Set<String> transitions = new HashSet<>();
+            window.forEach(op -> transitions.add(op.action() + ":" + after.apply(op)));
+            if ((covered.containsAll(transitions) && attempt < 100 * sample) || !picked.add(s + "@" + from)) {
+                continue;
+            }
+            covered.addAll(transitions);
+            windows.add(new Object[] {"sequence " + s + " @ " + from, before, List.copyOf(window)});
+        }
+        return windows.toArray(new Object[0][]);
+    }
+
+    @Test(dataProvider = "sampledWindows")
+    public void verifyCartPageFollowsModel(String window, CartModel before, List<Op> ops) {
+        CartModel expected = before.copy();
+        startOn("cart.html", expected.writeTo(StoreState.forUser("test@test.com", "password123").loggedIn()));
+        CartPage cart = new CartPage(driver);
+        ProductPage product = new ProductPage(driver);
+        cart.waitForLoaded();
+
+        boolean onCart = true;
+        for (Op op : ops) {
+            expected.apply(op);
+            if (op.action() == Action.ADD) {
+                product.open(op.productId());
+                product.addToCart(expected.count());
+                onCart = false;
+                continue;
+            }
+            if (!onCart) {
+                cart.open();
+                onCart = true;
+            }
+            switch (op.action()) {
+                case INC:
+                    cart.increaseQuantity(op.productId());
+                    break;
+                case DEC:
+                    cart.decreaseQuantity(op.productId());
+                    break;
+                case REMOVE:
+                    cart.removeLine(op.productId());
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (!onCart) {
+            cart.open();
+        }
+
+        CartPage.Snapshot page = cart.snapshot();
+        List<String> pageLines = new ArrayList<>();
+        for (CartPage.Line line : page.lines()) {
+            pageLines.add(line.id() + " | " + line.title() + " | " + line.qty() + " | " + line.totalAsInt());
+        }
+        List<String> modelLines = new ArrayList<>();
+        for (CartModel.Line line : expected.lines()) {
+            modelLines.add(line.id() + " | " + line.title() + " | " + line.qty() + " | " + line.total());
+        }
+        String context = String.format("%s (seed %d)%n  start: %s%n  ops:   %s%n  model: %s",
+                window, SEED, before, ops, expected);
+        Allure.addAttachment("Cart window", context);
+
+        Assert.assertEquals(pageLines, modelLines, "Cart lines differ from the model after " + context);
+        Assert.assertEquals(page.grandTotalAsInt(), expected.grandTotal(), "Grand total after " + context);
+        Assert.assertEquals(page.cartCountAsInt(), expected.count(), "Cart badge after " + context);
+        Assert.assertEquals(page.checkoutEnabled(), expected.grandTotal() > 0, "Checkout button after " + context);
+    }
+}
@@ -1,109 +1,82 @@
 package com.example.tests;
 
-import org.openqa.selenium.JavascriptExecutor;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import com.example.base.BaseTest;
+import com.example.base.Mutating;
+import com.example.base.ReadOnly;
+import com.example.base.StoreState;
 import com.example.page.CartPage;
-import com.example.page.HomePage;
-import com.example.page.LoginPage;
 
 public class CartTest extends BaseTest {
 
+    static final String CART_SNAPSHOT = "cart-with-neo-chrono";
+
     private CartPage cart;
 
     @BeforeMethod
     public void setupCart() {
-        boolean ready = false;
-        for (int attempt = 0; attempt < 2 && !ready; attempt++) {
-            clearBrowserState();
-            openLoginPage();
-            seedUser("test@test.com", "password123");
-
-            LoginPage login = new LoginPage(driver);
-            login.waitForLoaded();
-            login.enterEmail("test@test.com");
-            login.enterPassword("password123");
-            login.clickLogin();
-            waitForHomePage();
-
-            HomePage home = new HomePage(driver);
-            home.waitForLoaded();
-            boolean added = home.ensureAtLeastOneItemInCart();
-            if (!added) {
-                seedCartFallbackData();
-            }
-
-            driver.get(BASE_URL + "cart.html");
-            cart = new CartPage(driver);
-            cart.waitForLoaded();
-
-            if (cart.getCartCountAsInt() <= 0) {
-                driver.get(BASE_URL + "home.html");
-                waitForHomePage();
-                home.waitForLoaded();
-                home.ensureAtLeastOneItemInCart();
-
-                driver.get(BASE_URL + "cart.html");
-                cart.waitForLoaded();
-            }
-
-            ready = cart.getCartCountAsInt() > 0;
-        }
-
-        if (!ready) {
-            seedCartFallbackData();
-            forceCartUiWithOneItem();
-            ready = cart.getCartCountAsInt() > 0;
+        if (!reusePreparedState()) {
+            restoreSnapshot(CART_SNAPSHOT, "cart.html", () -> startOn("cart.html", cartWithNeoChrono()));
         }
 
-        Assert.assertTrue(ready, "Could not add an item to cart from Home page");
+        cart = new CartPage(driver);
+        cart.waitForLoaded();
     }
 
     @Test
+    @ReadOnly
     public void verifyCartPageTitle() {
         Assert.assertTrue(cart.getPageTitle().contains("Cart"));
     }
 
     @Test
+    @ReadOnly
     public void verifyCartTitleIsDisplayed() {
         Assert.assertTrue(cart.isCartTitleVisible());
     }
 
     @Test
+    @ReadOnly
     public void verifyCartTableIsVisible() {
         Assert.assertTrue(cart.isCartTableVisible());
     }
 
     @Test
+    @ReadOnly
     public void verifyGrandTotalIsDisplayed() {
         Assert.assertTrue(hasAnyDigit(cart.getGrandTotal()));
     }
 
     @Test
+    @ReadOnly
     public void verifyCheckoutButtonIsEnabled() {
         Assert.assertTrue(cart.isCheckoutEnabled());
     }
 
     @Test
+    @ReadOnly
     public void verifyCartCountIsDisplayed() {
         Assert.assertNotNull(cart.getCartCount());
     }
 
     @Test
+    @ReadOnly
     public void verifyCartInitiallyNotNegative() {
         Assert.assertFalse(cart.getCartCount().contains("-"));
     }
 
     @Test
+    @Mutating
     public void verifyContinueShoppingRedirectsToHome() {
         cart.clickContinueShopping();
         Assert.assertTrue(driver.getTitle().contains("Home"));
     }
 
     @Test
+    @Mutating
     public void verifyLogoutFromCart() {
         cart.logout();
         driver.get(BASE_URL + "home.html");
@@ -112,67 +85,74 @@ public class CartTest extends BaseTest {
     }
 
     @Test
+    @Mutating
     public void verifyCheckoutDoesNotCrash() {
         cart.clickCheckout();
         Assert.assertTrue(true);
     }
 
     @Test
+    @ReadOnly
     public void verifyGrandTotalUpdatesAfterAdd() {
         Assert.assertFalse(isZeroAmount(cart.getGrandTotal()));
     }
 
     @Test
+    @ReadOnly
     public void verifyCartTableNotEmptyAfterAdd() {
         Assert.assertTrue(cart.isCartTableVisible());
     }
 
     @Test
+    @ReadOnly
     public void verifyCartCountMatchesItems() {
-        Assert.assertTrue(cart.getCartCountAsInt() >= 0);
+        CartPage.Snapshot page = cart.snapshot();
+        int quantities = page.lines().stream().mapToInt(CartPage.Line::qty).sum();
+        Assert.assertTrue(page.cartCountAsInt() >= 0);
+        Assert.assertEquals(page.cartCountAsInt(), quantities, "Header count should equal the summed line quantities");
     }
 
     @Test
-    public void verifyCartPageLoadsFast() {
-        long start = System.currentTimeMillis();
-        cart.isCartTitleVisible();
-        long end = System.currentTimeMillis();
-        Assert.assertTrue((end - start) < 3000);
+    @ReadOnly(tabs = false)
+    public void verifyCartPageMeetsLoadBudget() {
+        cart.open().assertWithin(loadBudget());
     }
 
     @Test
+    @ReadOnly
     public void verifyUserStaysOnCartAfterRefresh() {
         driver.navigate().refresh();
         Assert.assertTrue(driver.getTitle().contains("Cart"));
     }
 
-    private void seedCartFallbackData() {
-        ((JavascriptExecutor) driver).executeScript(
-                "try {"
-                        + "const item={id:'seed-1',name:'Seed Watch',price:1999,qty:1,quantity:1};"
-                        + "const arr=JSON.stringify([item]);"
-                        + "const keys=['ws_cart','cart','ws_cart_items','watchstore_cart'];"
-                        + "for (const k of keys) localStorage.setItem(k, arr);"
-                        + "localStorage.setItem('ws_cart_count','1');"
-                        + "} catch(e) {}"
-        );
-    }
-
-    private void forceCartUiWithOneItem() {
-        ((JavascriptExecutor) driver).executeScript(
-                "try {"
-                        + "const countEls=document.querySelectorAll('[data-cart-count]');"
-                        + "countEls.forEach(e=>e.textContent='1');"
-                        + "const total=document.getElementById('grandTotal');"
-                        + "if (total) total.textContent='\\u20B91999';"
-                        + "const btn=document.getElementById('checkoutBtn');"
-                        + "if (btn) btn.disabled=false;"
-                        + "const table=document.getElementById('cartTable');"
-                        + "if (table && !table.textContent.trim()) {"
-                        + "  table.innerHTML='<div class=\"row\" style=\"padding:12px;border-bottom:1px solid #ddd\">Seed Watch x1</div>';"
-                        + "}"
-                        + "} catch(e) {}"
-        );
+    @Test
+    @Mutating
+    public void verifyQuantityButtonsUpdateLineAndBadge() {
+        cart.increaseQuantity("neo-chrono");
+        Assert.assertEquals(cart.getQuantity("neo-chrono"), 2);
+        Assert.assertEquals(cart.getCartCountAsInt(), 2);
+
+        cart.decreaseQuantity("neo-chrono");
+        Assert.assertEquals(cart.getQuantity("neo-chrono"), 1);
+        Assert.assertEquals(cart.getCartCountAsInt(), 1);
+    }
+
+    @Test
+    @Mutating
+    public void verifyRemoveLineEmptiesCart() {
+        cart.removeLine("neo-chrono");
+        CartPage.Snapshot page = cart.snapshot();
+        Assert.assertTrue(page.lines().isEmpty(), "Removed line should be gone");
+        Assert.assertFalse(page.checkoutEnabled(), "Checkout should be disabled for an empty cart");
+    }
+
+    /**
+     * The state behind {@link #CART_SNAPSHOT}; {@link PaymentsTest} starts from it too.
+     */
+    static StoreState cartWithNeoChrono() {
+        return StoreState.forUser("test@test.com", "password123")
+                .loggedIn()
+                .withCartItem("neo-chrono", 1);
     }
 
     private boolean hasAnyDigit(String text) {
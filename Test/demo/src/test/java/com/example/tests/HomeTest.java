@@ -3,11 +3,12 @@ package com.example.tests;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
-import org.openqa.selenium.TimeoutException;
 
 import com.example.base.BaseTest;
+import com.example.base.Mutating;
+import com.example.base.ReadOnly;
+import com.example.base.StoreState;
 import com.example.page.HomePage;
-import com.example.page.LoginPage;
 
 public class HomeTest extends BaseTest {
 
@@ -15,30 +16,8 @@ public class HomeTest extends BaseTest {
 
     @BeforeMethod
     public void loginToHome() {
-        TimeoutException last = null;
-
-        for (int attempt = 0; attempt < 2; attempt++) {
-            try {
-                clearBrowserState();
-                openLoginPage();
-                seedUser("user@test.com", "123456");
-
-                LoginPage login = new LoginPage(driver);
-                login.waitForLoaded();
-                login.enterEmail("user@test.com");
-                login.enterPassword("123456");
-                login.clickLogin();
-                waitForHomePage();
-                last = null;
-                break;
-            } catch (TimeoutException ex) {
-                last = ex;
-                driver.get(LOGIN_URL);
-            }
-        }
-
-        if (last != null) {
-            throw last;
+        if (!reusePreparedState()) {
+            startOn("home.html", StoreState.forUser("user@test.com", "123456").loggedIn());
         }
 
         home = new HomePage(driver);
@@ -46,26 +25,31 @@ public class HomeTest extends BaseTest {
     }
 
     @Test
+    @ReadOnly
     public void verifyHomePageTitle() {
         Assert.assertEquals(home.getPageTitle(), "Watch Store — Home");
     }
 
     @Test
+    @ReadOnly
     public void verifyHeroSectionIsVisible() {
         Assert.assertTrue(home.isHeroTitleDisplayed());
     }
 
     @Test
+    @ReadOnly
     public void verifySearchBoxIsVisible() {
         Assert.assertTrue(home.isSearchBoxVisible());
     }
 
     @Test
+    @ReadOnly
     public void verifyProductsGridIsDisplayed() {
         Assert.assertTrue(home.isProductsGridVisible());
     }
 
     @Test
+    @Mutating
     public void verifySearchResultsCountUpdates() {
         String before = home.getResultsCount();
         home.searchProduct("neo");
@@ -76,11 +60,19 @@ public class HomeTest extends BaseTest {
     }
 
     @Test
+    @ReadOnly(tabs = false)
+    public void verifyHomePageMeetsLoadBudget() {
+        home.open().assertWithin(loadBudget());
+    }
+
+    @Test
+    @ReadOnly
     public void verifyCartCountInitiallyZero() {
         Assert.assertEquals(home.getCartItemCount(), "0");
     }
 
     @Test
+    @Mutating
     public void verifyLogoutRedirectsToLoginPage() {
         home.logout();
         waitForLoginPage();
@@ -88,14 +80,15 @@ public class HomeTest extends BaseTest {
     }
 
     @Test
+    @ReadOnly
     public void verifyInitialResultsCountMatchesCards() {
-        int cards = home.getProductsCount();
-        int count = parseResultsCount(home.getResultsCount());
-        Assert.assertTrue(cards > 0, "Expected at least one product");
-        Assert.assertEquals(count, cards, "resultsCount should match number of cards");
+        HomePage.Snapshot page = home.snapshot();
+        Assert.assertTrue(page.productCount() > 0, "Expected at least one product");
+        Assert.assertEquals(page.resultsCountAsInt(), page.productCount(), "resultsCount should match number of cards");
     }
 
     @Test
+    @Mutating
     public void verifySearchByNameReducesResults() {
         String beforeText = home.getResultsCount();
         int before = parseResultsCount(beforeText);
@@ -103,44 +96,48 @@ public class HomeTest extends BaseTest {
         home.searchProduct("Neo Chrono");
         home.waitForResultsCountToChange(beforeText);
 
-        int after = parseResultsCount(home.getResultsCount());
-        int cards = home.getProductsCount();
+        HomePage.Snapshot page = home.snapshot();
+        int after = page.resultsCountAsInt();
 
         Assert.assertTrue(after > 0, "Expected at least one result for Neo Chrono");
         Assert.assertTrue(after <= before, "Filtered results should not exceed original count");
-        Assert.assertEquals(after, cards, "Text count and card count should match");
+        Assert.assertEquals(after, page.productCount(), "Text count and card count should match");
     }
 
     @Test
+    @Mutating
     public void verifySearchUnknownShowsZeroResults() {
         String beforeText = home.getResultsCount();
         home.searchProduct("this-does-not-exist-123");
         home.waitForResultsCountToChange(beforeText);
 
-        int count = parseResultsCount(home.getResultsCount());
-        int cards = home.getProductsCount();
+        HomePage.Snapshot page = home.snapshot();
 
-        Assert.assertEquals(count, 0, "Unknown query should show zero results");
-        Assert.assertEquals(cards, 0, "No product cards should be visible for unknown query");
+        Assert.assertEquals(page.resultsCountAsInt(), 0, "Unknown query should show zero results");
+        Assert.assertEquals(page.productCount(), 0, "No product cards should be visible for unknown query");
     }
 
     @Test
+    @ReadOnly
     public void verifyResultsCountTextFormat() {
         String text = home.getResultsCount();
         Assert.assertTrue(text.matches("\\d+\\s+watch(es)?"), "resultsCount text should look like '12 watches'");
     }
 
     @Test
+    @ReadOnly
     public void verifyHomeNavPillIsActive() {
         Assert.assertTrue(home.isHomeNavActive(), "Home nav pill should be marked active");
     }
 
     @Test
+    @ReadOnly
     public void verifyToastIsHiddenByDefault() {
         Assert.assertFalse(home.isToastVisible(), "Toast should not be visible on initial load");
     }
 
     @Test
+    @ReadOnly
     public void verifyReloadKeepsUserOnHomePage() {
         driver.navigate().refresh();
         home.waitForLoaded();
@@ -148,6 +145,7 @@ public class HomeTest extends BaseTest {
     }
 
     @Test
+    @Mutating
     public void verifyHomeRedirectsToLoginWhenNotAuthenticated() {
         clearBrowserState();
         driver.get(HOME_URL);
@@ -0,0 +1,69 @@
+package com.example.tests;
+
+import io.qameta.allure.Allure;
+import org.testng.annotations.Test;
+
+import com.example.base.BaseTest;
+import com.example.base.LeakSoak;
+import com.example.base.StoreState;
+import com.example.page.CartPage;
+import com.example.page.HomePage;
+
+/**
+ * Repeats re-rendering journeys in one browser session and fails when the JS heap, DOM node
+ * or event listener count keeps growing (see {@link LeakSoak}). Iterations per journey:
+ * {@code ws.soak.iterations} (200).
+ */
+public class LeakSoakTest extends BaseTest {
+
+    private static final int ITERATIONS = Integer.getInteger("ws.soak.iterations", 200);
+
+    @Test
+    public void cartQuantityChangesDoNotLeak() {
+        startOn("cart.html", StoreState.forUser("soak@test.com", "123456")
+                .loggedIn()
+                .withCartItem("neo-chrono", 1)
+                .withCartItem("aurora-stealth", 1));
+        CartPage cart = new CartPage(driver);
+        cart.waitForLoaded();
+
+        check(soak("cart +/-").run(ITERATIONS, () -> {
+            cart.increaseQuantity("neo-chrono");
+            cart.decreaseQuantity("neo-chrono");
+        }));
+    }
+
+    @Test
+    public void repeatedSearchesDoNotLeak() {
+        startOn("home.html", StoreState.forUser("soak@test.com", "123456").loggedIn());
+        HomePage home = new HomePage(driver);
+        home.waitForLoaded();
+
+        check(soak("home search").run(ITERATIONS, () -> {
+            home.searchProduct("neo");
+            home.waitForSearchResults("neo");
+            home.searchProduct("a");
+            home.waitForSearchResults("a");
+        }));
+    }
+
+    @Test
+    public void navigatingBetweenHomeAndCartDoesNotLeak() {
+        startOn("home.html", StoreState.forUser("soak@test.com", "123456")
+                .loggedIn()
+                .withCartItem("neo-chrono", 1));
+        HomePage home = new HomePage(driver);
+        CartPage cart = new CartPage(driver);
+
+        check(soak("home <-> cart").run(ITERATIONS, () -> {
+            home.open();
+            cart.open();
+        }));
+    }
+
+    private static void check(LeakSoak.Result result) {
+        Allure.addAttachment("Leak soak", result.toString());
+        Allure.addAttachment("Leak soak samples", "text/csv", result.toCsv(), ".csv");
+        result.assertWithin(LeakSoak.Limits.DEFAULT);
+    }
+}
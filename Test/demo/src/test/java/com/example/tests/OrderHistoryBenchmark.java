@@ -0,0 +1,122 @@
+package com.example.tests;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.example.base.BaseTest;
+import com.example.base.BenchmarkReport;
+import com.example.base.StoreState;
+import com.example.load.LatencyHistogram;
+import com.example.page.OrdersPage;
+
+/**
+ * Orders page cost against order histories of growing size, paged and fully rendered.
+ * <p>
+ * For each size in {@code ws.orders.sizes} the page is loaded {@code ws.orders.samples} times
+ * in its default, paged mode and with {@code ?render=all}. Each load records the time to the
+ * first rendered cards (the {@code ws:orders-rendered} mark), the JS heap and DOM size after
+ * it, and how long {@link OrdersPage#readCards} takes to read the newest page of cards. The
+ * results are printed, attached to the report and written to {@code ws.orders.out}
+ * ({@code target/order-history-scaling.csv}). Sizes that do not fit in localStorage are skipped.
+ * <p>
+ * Not part of testng.xml; run it with {@code mvn test -Dws.suite=benchmarks.xml}.
+ */
+public class OrderHistoryBenchmark extends BaseTest {
+
+    private static final int PAGE = 25;
+
+    private final List<Row> rows = new ArrayList<>();
+
+    @DataProvider
+    public Object[][] historySizes() {
+        return BenchmarkReport.sizes("ws.orders.sizes", "1000,5000,10000,15000");
+    }
+
+    @Test(dataProvider = "historySizes")
+    public void measureOrdersPage(int size) {
+        startOnOrSkipIfOverQuota("orders.html",
+                StoreState.forUser("history@test.com", "123456").loggedIn().withOrderHistory(size), size + " orders");
+        OrdersPage orders = new OrdersPage(driver);
+        orders.waitForLoaded();
+        Assert.assertEquals(orders.getTotalOrderCount(), size, "Orders page should see the whole history");
+
+        int samples = Integer.getInteger("ws.orders.samples", 5);
+        for (String mode : List.of("paged", "all")) {
+            Row row = new Row(size, mode);
+            for (int i = 0; i < samples; i++) {
+                driver.get(BASE_URL + (mode.equals("all") ? "orders.html?render=all" : "orders.html"));
+                orders.waitForLoaded();
+                Map<String, Object> m = measure();
+                row.firstCard.recordMicros(Math.round(((Number) m.get("firstCardMs")).doubleValue() * 1000));
+                row.heapBytes = Math.max(row.heapBytes, ((Number) m.get("heap")).longValue());
+                row.domNodes = Math.max(row.domNodes, ((Number) m.get("nodes")).longValue());
+
+                long start = System.nanoTime();
+                List<OrdersPage.OrderCard> newest = orders.readCards(0, PAGE);
+                row.readPage.record(Duration.ofNanos(System.nanoTime() - start));
+                Assert.assertEquals(newest.get(0).id(), String.format("ORD-H-%06d", size), "Newest order should come first");
+            }
+            synchronized (rows) {
+                rows.add(row);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> measure() {
+        return (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                "const mark = performance.getEntriesByName('ws:orders-rendered')[0];"
+                        + "return {"
+                        + "  firstCardMs: mark ? mark.startTime : -1,"
+                        + "  heap: performance.memory ? performance.memory.usedJSHeapSize : 0,"
+                        + "  nodes: document.getElementsByTagName('*').length"
+                        + "};");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void publishScalingCurve() {
+        if (rows.isEmpty()) {
+            return;
+        }
+        rows.sort((a, b) -> a.size != b.size ? Integer.compare(a.size, b.size) : b.mode.compareTo(a.mode));
+
+        StringBuilder csv = new StringBuilder("size,mode,samples,first_card_p50_ms,first_card_p95_ms,heap_mb,dom_nodes,read_page_p50_ms\n");
+        StringBuilder table = new StringBuilder(String.format("%7s %-6s %11s %11s %8s %9s %10s%n",
+                "orders", "mode", "first p50", "first p95", "heap", "dom nodes", "read 25"));
+        for (Row row : rows) {
+            double heapMb = row.heapBytes / (1024.0 * 1024.0);
+            csv.append(String.format("%d,%s,%d,%.1f,%.1f,%.1f,%d,%.1f%n", row.size, row.mode, row.firstCard.count(),
+                    BenchmarkReport.millis(row.firstCard.percentile(50)), BenchmarkReport.millis(row.firstCard.percentile(95)),
+                    heapMb, row.domNodes, BenchmarkReport.millis(row.readPage.percentile(50))));
+            table.append(String.format("%7d %-6s %9.1fms %9.1fms %6.1fMB %9d %8.1fms%n", row.size, row.mode,
+                    BenchmarkReport.millis(row.firstCard.percentile(50)), BenchmarkReport.millis(row.firstCard.percentile(95)),
+                    heapMb, row.domNodes, BenchmarkReport.millis(row.readPage.percentile(50))));
+        }
+
+        BenchmarkReport.publish("Orders page by history size", table, csv,
+                "ws.orders.out", "target/order-history-scaling.csv");
+    }
+
+    private static final class Row {
+
+        final int size;
+        final String mode;
+        final LatencyHistogram firstCard = new LatencyHistogram();
+        final LatencyHistogram readPage = new LatencyHistogram();
+        long heapBytes;
+        long domNodes;
+
+        Row(int size, String mode) {
+            this.size = size;
+            this.mode = mode;
+        }
+    }
+}
@@ -1,16 +1,15 @@
 package com.example.tests;
 
-import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.NoSuchWindowException;
-import org.openqa.selenium.WebDriverException;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import java.time.Duration;
+
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import com.example.base.BaseTest;
-import com.example.page.LoginPage;
+import com.example.base.Mutating;
+import com.example.base.ReadOnly;
+import com.example.base.StoreState;
 import com.example.page.OrdersPage;
 
 public class OrdersTest extends BaseTest {
@@ -22,73 +21,90 @@ public class OrdersTest extends BaseTest {
 
     @BeforeMethod
     public void setupOrders() {
-        ensureDriverSession();
-
-        driver.get(BASE_URL + "index.html");
-        clearBrowserState();
-        driver.get(BASE_URL + "index.html");
-        seedUser(TEST_EMAIL, TEST_PASSWORD);
-
-        LoginPage login = new LoginPage(driver);
-        login.waitForLoaded();
-        login.enterEmail(TEST_EMAIL);
-        login.enterPassword(TEST_PASSWORD);
-        login.clickLogin();
-        waitForHomePage();
+        ensureLiveDriver();
 
-        seedOrderData(TEST_EMAIL);
+        if (!reusePreparedState()) {
+            startOn("orders.html", StoreState.forUser(TEST_EMAIL, TEST_PASSWORD)
+                    .loggedIn()
+                    .withOrder(SEEDED_ORDER_ID, new StoreState.OrderLine("neo-chrono", "Neo Chrono X1", 7999, 1)));
+        }
 
-        driver.get(BASE_URL + "orders.html");
         orders = new OrdersPage(driver);
         orders.waitForLoaded();
     }
 
     @Test
+    @ReadOnly
     public void verifyOrdersPageTitle() {
         Assert.assertTrue(orders.getPageTitle().contains("Orders"));
     }
 
     @Test
+    @ReadOnly
     public void verifyHeroVisible() {
         Assert.assertTrue(orders.isHeroVisible());
     }
 
     @Test
+    @ReadOnly
     public void verifyOrdersWrapVisible() {
         Assert.assertTrue(orders.isOrdersWrapVisible());
     }
 
     @Test
+    @ReadOnly
     public void verifyOrderCardRendered() {
         Assert.assertTrue(orders.hasOrderCards());
     }
 
     @Test
+    @ReadOnly
     public void verifySeededOrderIdVisible() {
-        Assert.assertTrue(orders.getOrdersText().contains(SEEDED_ORDER_ID));
+        Assert.assertTrue(orders.snapshot().orderIds().contains(SEEDED_ORDER_ID));
+    }
+
+    @Test
+    @Mutating
+    public void verifyOrderConfirmationToastHidesAfterDelay() {
+        driver.get(BASE_URL + "orders.html?success=1&id=" + SEEDED_ORDER_ID);
+        orders.waitForLoaded();
+        Assert.assertTrue(orders.snapshot().toastVisible(), "Confirmation toast should show on arrival");
+
+        advanceTime(Duration.ofMillis(1500));
+        Assert.assertTrue(orders.snapshot().toastVisible(), "Toast should still show before 2.8 s");
+
+        advanceTime(Duration.ofMillis(1500));
+        Assert.assertFalse(orders.snapshot().toastVisible(), "Toast should hide after 2.8 s");
     }
 
     @Test
+    @ReadOnly
     public void verifySeededOrderItemVisible() {
         Assert.assertTrue(orders.getOrdersText().contains("Neo Chrono X1"));
     }
 
     @Test
+    @ReadOnly
     public void verifySeededOrderTotalVisible() {
-        Assert.assertTrue(orders.getOrdersText().contains("7,999") || orders.getOrdersText().contains("7999"));
+        String text = orders.snapshot().ordersText();
+        Assert.assertTrue(text.contains("7,999") || text.contains("7999"));
     }
 
     @Test
+    @ReadOnly
     public void verifySeededOrderQuantityVisible() {
-        Assert.assertTrue(orders.getOrdersText().contains("1×") || orders.getOrdersText().contains("1x"));
+        String text = orders.snapshot().ordersText();
+        Assert.assertTrue(text.contains("1×") || text.contains("1x"));
     }
 
     @Test
+    @ReadOnly
     public void verifyCartCountVisibleInHeader() {
         Assert.assertNotNull(orders.getCartCount());
     }
 
     @Test
+    @ReadOnly
     public void verifyOrdersPersistAfterRefresh() {
         driver.navigate().refresh();
         orders.waitForLoaded();
@@ -96,14 +112,13 @@ public class OrdersTest extends BaseTest {
     }
 
     @Test
-    public void verifyOrdersPageLoadsFast() {
-        long start = System.currentTimeMillis();
-        orders.isOrdersWrapVisible();
-        long end = System.currentTimeMillis();
-        Assert.assertTrue((end - start) < 3000);
+    @ReadOnly(tabs = false)
+    public void verifyOrdersPageMeetsLoadBudget() {
+        orders.open().assertWithin(loadBudget());
     }
 
     @Test
+    @Mutating
     public void verifyOpenHomeAndBackToOrders() {
         driver.get(BASE_URL + "home.html");
         waitForHomePage();
@@ -113,6 +128,7 @@ public class OrdersTest extends BaseTest {
     }
 
     @Test
+    @Mutating
     public void verifyLogoutFromOrders() {
         orders.logout();
         driver.get(BASE_URL + "home.html");
@@ -121,55 +137,14 @@ public class OrdersTest extends BaseTest {
     }
 
     @Test
+    @ReadOnly
     public void verifyOrdersTextNotBlank() {
         Assert.assertFalse(orders.getOrdersText().isBlank());
     }
 
     @Test
+    @ReadOnly
     public void verifyOrdersHasPurchaseHistoryLabel() {
         Assert.assertTrue(orders.getOrdersText().toLowerCase().contains("order"));
     }
-
-    private void seedOrderData(String email) {
-        ((JavascriptExecutor) driver).executeScript(
-                "try {"
-                        + "const email = arguments[0];"
-                        + "const orderId = arguments[1];"
-                        + "const key = `ws_orders:${email}`;"
-                        + "const order = {"
-                        + "  id: orderId,"
-                        + "  createdAt: new Date().toISOString(),"
-                        + "  total: 7999,"
-                        + "  items: [{id:'neo-chrono', title:'Neo Chrono X1', price:7999, qty:1, total:7999}]"
-                        + "};"
-                        + "localStorage.setItem(key, JSON.stringify([order]));"
-                        + "localStorage.setItem(`ws_lastOrder:${email}`, orderId);"
-                        + "} catch(e) {}",
-                email,
-                SEEDED_ORDER_ID
-        );
-    }
-
-    private void ensureDriverSession() {
-        try {
-            if (driver == null) {
-                driver = new ChromeDriver();
-                driver.manage().window().maximize();
-                wait = new WebDriverWait(driver, java.time.Duration.ofSeconds(8));
-                return;
-            }
-            driver.getTitle();
-            if (driver.getWindowHandles().isEmpty()) {
-                throw new NoSuchWindowException("No active browser window");
-            }
-        } catch (WebDriverException ex) {
-            try {
-                driver.quit();
-            } catch (Exception ignored) {
-            }
-            driver = new ChromeDriver();
-            driver.manage().window().maximize();
-            wait = new WebDriverWait(driver, java.time.Duration.ofSeconds(8));
-        }
-    }
 }
@@ -0,0 +1,123 @@
+package com.example.tests;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+import io.qameta.allure.Allure;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.example.base.BaseTest;
+import com.example.base.PaymentInputGenerator;
+import com.example.base.PaymentRules;
+import com.example.page.PaymentPage;
+import com.example.page.PaymentValidationBridge;
+import com.example.page.PaymentValidationBridge.Input;
+import com.example.page.PaymentValidationBridge.Verdict;
+
+/**
+ * Differential tests of the checkout validation: the page's {@code luhnOk},
+ * {@code parseExpiry} and {@code paymentError} against {@link PaymentRules}, thousands of
+ * inputs per round trip. {@code ws.fuzz.cases} (5000) and {@code ws.fuzz.seed} size and
+ * reproduce the generated run.
+ */
+public class PaymentValidationFuzzTest extends BaseTest {
+
+    private static final int MAX_REPORTED = 25;
+
+    private PaymentValidationBridge bridge;
+    private ZoneId zone;
+
+    @BeforeMethod
+    public void openPaymentPage() {
+        restoreSnapshot(CartTest.CART_SNAPSHOT, "payment.html",
+                () -> startOn("cart.html", CartTest.cartWithNeoChrono()));
+        new PaymentPage(driver).waitForLoaded();
+
+        bridge = new PaymentValidationBridge(driver);
+        zone = bridge.browserZone();
+    }
+
+    @Test
+    public void verifyGeneratedInputsMatchReference() {
+        int cases = Integer.getInteger("ws.fuzz.cases", 5000);
+        long seed = Long.getLong("ws.fuzz.seed", 20240611L);
+        Instant now = Instant.now();
+        List<Input> inputs = PaymentInputGenerator.seeded(seed).generate(cases, now, zone);
+
+        List<Verdict> verdicts = bridge.evaluate(inputs, now);
+
+        Set<String> outcomes = new TreeSet<>();
+        inputs.forEach(in -> outcomes.add(reference(in, now).error()));
+        assertNoMismatches(inputs, verdicts, now, "seed " + seed);
+        Assert.assertEquals(outcomes.size(), 7, "Every validation outcome should be exercised, got " + outcomes);
+        Assert.assertTrue(bridge.roundTrips() <= 1 + Math.ceil(cases / (double) PaymentValidationBridge.DEFAULT_BATCH_SIZE),
+                "Inputs should go over in batches, took " + bridge.roundTrips() + " round trips");
+    }
+
+    @Test
+    public void verifyEdgeCasesMatchReference() {
+        Instant now = Instant.now();
+        YearMonth month = YearMonth.from(now.atZone(zone));
+        String thisMonth = String.format(Locale.ROOT, "%02d/%02d", month.getMonthValue(), month.getYear() % 100);
+        String lastMonth = String.format(Locale.ROOT, "%02d/%02d", month.minusMonths(1).getMonthValue(), month.minusMonths(1).getYear() % 100);
+        List<Input> inputs = List.of(
+                new Input("Test User", "4242 4242 4242 4242", "08/29", "123", "560001"),
+                new Input("Test User", "4242\u00A04242\u00A04242\u00A04242", "08/29", "123", "560001"),
+                new Input("Test User", "4242-4242-4242-4242", "08/29", "123", "560001"),
+                new Input("Test User", "424242424242424\u0662", "08/29", "123", "560001"),
+                new Input("Test User", "4242 4242 4242 4242", "08/29\n", "123", "560001"),
+                new Input("Test User", "4242 4242 4242 4242", "8/29", "123", "560001"),
+                new Input("Test User", "4242 4242 4242 4242", "08 / 29", "123", "560001"),
+                new Input("Test User", "4242 4242 4242 4242", "08/2029", "123", "560001"),
+                new Input("Test User", "4242 4242 4242 4242", thisMonth, "123", "560001"),
+                new Input("Test User", "4242 4242 4242 4242", lastMonth, "123", "560001"),
+                new Input("Test User", "4242 4242 4242 4242", "08/29", "\uFEFF123\u3000", "560001"),
+                new Input("Test User", "4242 4242 4242 4242", "08/29", "12", "560001"),
+                new Input("Test User", "4242 4242 4242 4242", "08/29", "123", "5600 01"),
+                new Input("\u00A0J\u00A0", "4242 4242 4242 4242", "08/29", "123", "560001"));
+
+        assertNoMismatches(inputs, bridge.evaluate(inputs, now), now, "edge cases");
+    }
+
+    private Verdict reference(Input in, Instant now) {
+        return new Verdict(
+                PaymentRules.luhnOk(in.card()),
+                PaymentRules.parseExpiry(in.expiry()),
+                PaymentRules.paymentError(in.name(), in.card(), in.expiry(), in.cvv(), in.zip(), now, zone));
+    }
+
+    private void assertNoMismatches(List<Input> inputs, List<Verdict> page, Instant now, String run) {
+        Assert.assertEquals(page.size(), inputs.size());
+        List<String> mismatches = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            Verdict expected = reference(inputs.get(i), now);
+            if (!expected.equals(page.get(i))) {
+                mismatches.add(String.format("#%d %s%n    page:      %s%n    reference: %s",
+                        i, escape(inputs.get(i)), page.get(i), expected));
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            String report = String.format("%d of %d inputs disagree (%s, now %s, zone %s)%n%s",
+                    mismatches.size(), inputs.size(), run, now, zone,
+                    String.join("\n", mismatches.subList(0, Math.min(MAX_REPORTED, mismatches.size()))));
+            Allure.addAttachment("Payment validation mismatches", report);
+            Assert.fail(report);
+        }
+    }
+
+    private static String escape(Input in) {
+        StringBuilder out = new StringBuilder();
+        for (char c : in.toString().toCharArray()) {
+            out.append(c >= 0x20 && c < 0x7F ? String.valueOf(c) : String.format("\\u%04X", (int) c));
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.tests;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.example.base.BaseTest;
+import com.example.base.BenchmarkReport;
+import com.example.base.CatalogGenerator;
+import com.example.base.StoreState;
+import com.example.load.LatencyHistogram;
+import com.example.page.HomePage;
+
+/**
+ * Home page search latency against generated catalogs of growing size.
+ * <p>
+ * For each size in {@code ws.catalog.sizes} the catalog replaces the seeded products, and
+ * {@code ws.catalog.samples} rounds of three searches are timed with {@link HomePage#timeSearch}:
+ * one product by its number, one series (1/12 of the catalog) and a blank query (the whole
+ * catalog). The curve is printed, attached to the report and written to
+ * {@code ws.catalog.out} ({@code target/catalog-search-scaling.csv}), together with the first
+ * size whose p95 exceeds {@code ws.catalog.budgetMs} (100 ms). Sizes that do not fit in
+ * localStorage are skipped.
+ * <p>
+ * Not part of testng.xml; run it with {@code mvn test -Dws.suite=benchmarks.xml}.
+ * Large catalogs render slowly on first load, so raise {@code -Dws.waits.pageTimeoutMs} as well.
+ */
+public class SearchScalingBenchmark extends BaseTest {
+
+    private static final CatalogGenerator CATALOG = CatalogGenerator.seeded(42);
+    private static final String SERIES_TERM = "Aurora";
+    private static final String ALL_TERM = " ";
+
+    private final List<Row> rows = new ArrayList<>();
+
+    @DataProvider
+    public Object[][] catalogSizes() {
+        return BenchmarkReport.sizes("ws.catalog.sizes", "1000,2500,5000,10000,20000,30000");
+    }
+
+    @Test(dataProvider = "catalogSizes")
+    public void measureSearchLatency(int size) {
+        startOnOrSkipIfOverQuota("home.html",
+                StoreState.forUser("bench@test.com", "123456").loggedIn().withCatalog(CATALOG, size), size + " products");
+        HomePage home = new HomePage(driver);
+        home.waitForLoaded();
+        Assert.assertEquals(home.snapshot().productCount(), size, "Home page should render the whole catalog");
+
+        String exactTerm = String.format("%06d", size / 2);
+        LatencyHistogram exact = new LatencyHistogram();
+        LatencyHistogram series = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        int samples = Integer.getInteger("ws.catalog.samples", 10);
+        for (int i = 0; i < samples; i++) {
+            exact.record(home.timeSearch(exactTerm));
+            series.record(home.timeSearch(SERIES_TERM));
+            all.record(home.timeSearch(ALL_TERM));
+        }
+
+        synchronized (rows) {
+            rows.add(new Row(size, "exact", CatalogGenerator.matches(exactTerm, size), exact));
+            rows.add(new Row(size, "series", CatalogGenerator.matches(SERIES_TERM, size), series));
+            rows.add(new Row(size, "all", size, all));
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void publishScalingCurve() {
+        if (rows.isEmpty()) {
+            return;
+        }
+        rows.sort((a, b) -> a.size() != b.size() ? Integer.compare(a.size(), b.size()) : a.query().compareTo(b.query()));
+        Duration budget = Duration.ofMillis(Long.getLong("ws.catalog.budgetMs", 100));
+
+        StringBuilder csv = new StringBuilder("size,query,matches,samples,p50_ms,p95_ms,max_ms\n");
+        StringBuilder table = new StringBuilder(String.format("%8s %-7s %8s %9s %9s %9s%n",
+                "size", "query", "matches", "p50", "p95", "max"));
+        Integer breaksAt = null;
+        for (Row row : rows) {
+            LatencyHistogram h = row.latency();
+            csv.append(String.format("%d,%s,%d,%d,%.1f,%.1f,%.1f%n", row.size(), row.query(), row.matches(), h.count(),
+                    BenchmarkReport.millis(h.percentile(50)), BenchmarkReport.millis(h.percentile(95)),
+                    BenchmarkReport.millis(h.max())));
+            table.append(String.format("%8d %-7s %8d %7.1fms %7.1fms %7.1fms%n", row.size(), row.query(), row.matches(),
+                    BenchmarkReport.millis(h.percentile(50)), BenchmarkReport.millis(h.percentile(95)),
+                    BenchmarkReport.millis(h.max())));
+            if (breaksAt == null && h.percentile(95).compareTo(budget) > 0) {
+                breaksAt = row.size();
+            }
+        }
+        table.append(breaksAt == null
+                ? "p95 stays within " + budget.toMillis() + " ms at every size measured\n"
+                : "p95 first exceeds " + budget.toMillis() + " ms at " + breaksAt + " products\n");
+
+        BenchmarkReport.publish("Search latency by catalog size", table, csv,
+                "ws.catalog.out", "target/catalog-search-scaling.csv");
+    }
+
+    private record Row(int size, String query, int matches, LatencyHistogram latency) {
+    }
+}
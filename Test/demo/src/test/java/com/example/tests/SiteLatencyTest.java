@@ -0,0 +1,75 @@
+package com.example.tests;
+
+import java.time.Duration;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.example.base.BaseTest;
+import com.example.base.StoreState;
+import com.example.page.HomePage;
+import com.example.page.PagePerformance;
+
+/**
+ * Home page behaviour when single resources are slow or missing, injected per request through
+ * {@link com.example.base.SiteRules}. Rules are set after the storage is seeded so they only
+ * affect the measured load.
+ */
+public class SiteLatencyTest extends BaseTest {
+
+    HomePage home;
+
+    @BeforeMethod
+    public void loginToHome() {
+        startOn("home.html", StoreState.forUser("user@test.com", "123456").loggedIn());
+
+        home = new HomePage(driver);
+        home.waitForLoaded();
+    }
+
+    @Test
+    public void verifyHomeRendersWhenScriptArrivesLate() {
+        siteRules().delay("/js/main.js", Duration.ofMillis(1500));
+
+        PagePerformance.Metrics metrics = home.open();
+
+        Assert.assertTrue(resource(metrics, "/js/main.js").duration().toMillis() >= 1400,
+                "main.js should have taken the injected 1.5 s: " + metrics);
+        Assert.assertTrue(home.isProductsGridVisible());
+        Assert.assertFalse(home.getResultsCount().isBlank());
+    }
+
+    @Test
+    public void verifyHomeWorksWithoutStylesheet() {
+        siteRules().failWith("/css/styles.css", 404);
+
+        home.open();
+
+        Assert.assertTrue(home.isSearchBoxVisible());
+        String before = home.getResultsCount();
+        home.searchProduct("neo");
+        Assert.assertNotEquals(home.getResultsCount(), before);
+    }
+
+    @Test
+    public void verifySlowStylesheetHoldsBackFirstPaint() {
+        // styles.css is ~7.5 KB, so about 0.9 s at 8 KB/s.
+        siteRules().bandwidth("/css/styles.css", 8 * 1024);
+
+        PagePerformance.Metrics metrics = home.open();
+
+        Assert.assertTrue(resource(metrics, "/css/styles.css").duration().toMillis() >= 800,
+                "styles.css should have been throttled: " + metrics);
+        Assert.assertNotNull(metrics.firstContentfulPaint());
+        Assert.assertTrue(metrics.firstContentfulPaint().toMillis() >= 800,
+                "The render-blocking stylesheet should delay first paint: " + metrics);
+    }
+
+    private static PagePerformance.ResourceTiming resource(PagePerformance.Metrics metrics, String path) {
+        return metrics.resources().stream()
+                .filter(r -> r.name().contains(path))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No resource timing for " + path + ": " + metrics));
+    }
+}
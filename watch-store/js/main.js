@@ -12,6 +12,9 @@ const money = new Intl.NumberFormat("en-IN", {
   maximumFractionDigits: 0,
 });
 
+// Order cards rendered per page on orders.html.
+const ORDERS_PAGE_SIZE = 25;
+
 const qs = (sel, root = document) => root.querySelector(sel);
 const qsa = (sel, root = document) => [...root.querySelectorAll(sel)];
 
@@ -596,6 +599,19 @@ function parseExpiry(text) {
   return { mm, yy: fullYear };
 }
 
+// First problem with the payment form's values, or "" when they can be charged.
+function paymentError({ name, card, exp, cvv, zip }, now = new Date()) {
+  if (String(name || "").trim().length < 2) return "Enter the name on the card.";
+  if (!luhnOk(card)) return "Enter a valid card number.";
+  const ex = parseExpiry(exp);
+  if (!ex) return "Expiry must be in MM/YY format.";
+  const expLast = new Date(ex.yy, ex.mm, 0, 23, 59, 59);
+  if (expLast < now) return "Card is expired.";
+  if (!/^\d{3,4}$/.test(String(cvv || "").trim())) return "CVV must be 3–4 digits.";
+  if (!/^[0-9]{4,10}$/.test(String(zip || "").trim())) return "Enter a valid ZIP/Postal code.";
+  return "";
+}
+
 function initPaymentPage() {
   const email = getSessionEmail();
   const { lines, grand } = cartLinesDetailed(email);
@@ -620,21 +636,14 @@ function initPaymentPage() {
     btn.textContent = "Processing…";
 
     try {
-      const name = qs("#cardName").value.trim();
-      const card = qs("#cardNumber").value;
-      const exp = qs("#expiry").value;
-      const cvv = qs("#cvv").value.trim();
-      const zip = qs("#zip").value.trim();
-
-      if (name.length < 2) throw new Error("Enter the name on the card.");
-      if (!luhnOk(card)) throw new Error("Enter a valid card number.");
-      const ex = parseExpiry(exp);
-      if (!ex) throw new Error("Expiry must be in MM/YY format.");
-      const now = new Date();
-      const expLast = new Date(ex.yy, ex.mm, 0, 23, 59, 59);
-      if (expLast < now) throw new Error("Card is expired.");
-      if (!/^\d{3,4}$/.test(cvv)) throw new Error("CVV must be 3–4 digits.");
-      if (!/^[0-9]{4,10}$/.test(zip)) throw new Error("Enter a valid ZIP/Postal code.");
+      const problem = paymentError({
+        name: qs("#cardName").value,
+        card: qs("#cardNumber").value,
+        exp: qs("#expiry").value,
+        cvv: qs("#cvv").value,
+        zip: qs("#zip").value,
+      });
+      if (problem) throw new Error(problem);
 
       // Simulated payment processing (fast, non-blocking)
       await new Promise((r) => setTimeout(r, 350));
@@ -685,13 +694,45 @@ function initOrdersPage() {
     return;
   }
 
-  wrap.innerHTML = orders
-    .map((o) => {
-      const dt = new Date(o.createdAt);
-      const items = (o.items || [])
-        .map((it) => `<div class="row"><span class="chip"><strong>${it.qty}×</strong> ${it.title}</span><span class="spacer"></span><span class="chip"><strong>${money.format(it.total)}</strong></span></div>`)
-        .join("");
-      return `
+  // Long histories render a page of cards at a time, appending the next page when the
+  // "Show more" row scrolls into view. ?render=all restores the single full render.
+  const renderAll = params.get("render") === "all";
+  const pageSize = renderAll ? orders.length : ORDERS_PAGE_SIZE;
+  let shown = 0;
+  wrap.dataset.total = String(orders.length);
+
+  const more = document.createElement("div");
+  more.id = "ordersMore";
+  more.className = "row";
+  more.innerHTML = `<span class="spacer"></span><button class="btn small ghost" type="button">Show more orders</button><span class="spacer"></span>`;
+
+  const showNext = () => {
+    const next = orders.slice(shown, shown + pageSize);
+    shown += next.length;
+    more.remove();
+    wrap.insertAdjacentHTML("beforeend", next.map(orderCardHtml).join(""));
+    wrap.dataset.shown = String(shown);
+    if (shown < orders.length) wrap.appendChild(more);
+  };
+
+  wrap.innerHTML = "";
+  showNext();
+  performance.mark("ws:orders-rendered");
+
+  more.querySelector("button").addEventListener("click", showNext);
+  if ("IntersectionObserver" in window) {
+    new IntersectionObserver((entries) => {
+      if (entries.some((e) => e.isIntersecting) && more.isConnected) showNext();
+    }, { rootMargin: "400px" }).observe(more);
+  }
+}
+
+function orderCardHtml(o) {
+  const dt = new Date(o.createdAt);
+  const items = (o.items || [])
+    .map((it) => `<div class="row"><span class="chip"><strong>${it.qty}×</strong> ${it.title}</span><span class="spacer"></span><span class="chip"><strong>${money.format(it.total)}</strong></span></div>`)
+    .join("");
+  return `
 <section class="card pad">
   <div class="row">
     <div class="stack" style="gap:2px">
@@ -703,8 +744,6 @@ function initOrdersPage() {
   </div>
   <div class="stack" style="margin-top:12px">${items}</div>
 </section>`;
-    })
-    .join("");
 }
 
 function initCommonNav() {